@@ -0,0 +1,80 @@
+/*
+ * Copyright 2019-2020 the Joy Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.joy.classic.tests;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.StringReader;
+
+import jakarta.json.Json;
+import jakarta.json.JsonArray;
+import jakarta.json.JsonArrayBuilder;
+import jakarta.json.JsonNumber;
+import jakarta.json.stream.JsonParser;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.leadpony.joy.api.JsonNumberArray;
+
+/**
+ * @author leadpony
+ */
+public class JsonArrayTest {
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+        "[1,-2,0,2147483647]|true",
+        "[1,-9223372036854775808,3]|true",
+        "[0.5,-1.0E-7,3.14159265358979,-0.0]|true",
+        "[1.0E7,0.001,1.5E-4,123.0,9.99999E22]|true",
+        "[2.0E23,2.82879384806159E17]|true",
+        "[0.5,3.141592653589793]|false",
+        "[0.5,1.0E+7,1e7]|false",
+        "[1,0.5]|false",
+        "[0.1,1.50]|false",
+        "[1,9223372036854775808]|false",
+        "[1e2]|false",
+        "[1,\"a\",null]|false"
+    })
+    public void readArrayShouldKeepNumbersAsPrimitives(String json, boolean primitive) {
+        JsonArray actual = Json.createReader(new StringReader(json)).readArray();
+        JsonArray expected = parseItems(json);
+
+        assertThat(actual).isEqualTo(expected).hasSameHashCodeAs(expected);
+        assertThat(actual.toString()).isEqualTo(expected.toString());
+        assertThat(actual instanceof JsonNumberArray).isEqualTo(primitive);
+        if (primitive) {
+            JsonNumberArray array = (JsonNumberArray) actual;
+            for (int i = 0; i < expected.size(); i++) {
+                JsonNumber number = expected.getJsonNumber(i);
+                assertThat(array.toIntArray()[i]).isEqualTo(number.intValue());
+                assertThat(array.toLongArray()[i]).isEqualTo(number.longValue());
+                assertThat(array.toDoubleArray()[i]).isEqualTo(number.doubleValue());
+            }
+        }
+    }
+
+    private static JsonArray parseItems(String json) {
+        JsonArrayBuilder builder = Json.createArrayBuilder();
+        try (JsonParser parser = Json.createParser(new StringReader(json))) {
+            parser.next();
+            while (parser.next() != JsonParser.Event.END_ARRAY) {
+                builder.add(parser.getValue());
+            }
+        }
+        return builder.build();
+    }
+}
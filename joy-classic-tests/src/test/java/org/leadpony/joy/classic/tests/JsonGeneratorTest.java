@@ -0,0 +1,294 @@
+/*
+ * Copyright 2019-2020 the Joy Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.joy.classic.tests;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import jakarta.json.Json;
+import jakarta.json.JsonValue;
+import jakarta.json.stream.JsonGenerator;
+import jakarta.json.stream.JsonGeneratorFactory;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.leadpony.joy.api.ReusableJsonGenerator;
+import org.leadpony.joy.api.SerializedName;
+
+/**
+ * @author leadpony
+ */
+public class JsonGeneratorTest {
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    public void createGeneratorShouldEncodeOutputStreamInUtf8(boolean prettyPrinting) {
+        Map<String, Object> config = new HashMap<>();
+        if (prettyPrinting) {
+            config.put(JsonGenerator.PRETTY_PRINTING, Boolean.TRUE);
+        }
+        JsonGeneratorFactory factory = Json.createGeneratorFactory(config);
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+
+        generate(factory.createGenerator(actual));
+        generate(factory.createGenerator(new OutputStreamWriter(expected, StandardCharsets.UTF_8)));
+
+        assertThat(actual.toByteArray()).isEqualTo(expected.toByteArray());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "0.0",
+        "-0.0",
+        "1.0",
+        "0.1",
+        "-123456.789",
+        "0.001",
+        "9.999999999999998E-4",
+        "9999999.999999998",
+        "1.0E7",
+        "1.0E23",
+        "2.0E23",
+        "1.9999999999999998E23",
+        "2.82879384806159008E17",
+        "4.9E-324",
+        "2.2250738585072014E-308",
+        "1.7976931348623157E308",
+        "9007199254740993",
+        "-9223372036854775808",
+        "2147483647"
+    })
+    public void writeShouldWriteShortestNumber(String number) {
+        StringWriter writer = new StringWriter();
+        JsonGenerator generator = Json.createGenerator(writer);
+        generator.writeStartArray();
+        String expected = number;
+        if (number.contains(".") || number.contains("E")) {
+            double value = Double.parseDouble(number);
+            generator.write(value);
+            // The same as Double.toString(), which is the shortest since Java 19.
+            expected = String.valueOf(value);
+        } else {
+            generator.write(Long.parseLong(number));
+        }
+        generator.writeEnd().close();
+
+        assertThat(writer.toString()).isEqualTo("[" + expected + "]");
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+        "''|[\"\\\"\\\\/\\b\\f\\n\\r\\t\\u0000\\u001f\u007f\u00e9\u2028\u2029\ud83d\ude00\"]",
+        "org.leadpony.joy.api.JsonGenerator.escapeNonAscii|"
+            + "[\"\\\"\\\\/\\b\\f\\n\\r\\t\\u0000\\u001f\u007f\\u00e9\\u2028\\u2029\\ud83d\\ude00\"]",
+        "org.leadpony.joy.api.JsonGenerator.escapeLineSeparators|"
+            + "[\"\\\"\\\\/\\b\\f\\n\\r\\t\\u0000\\u001f\u007f\u00e9\\u2028\\u2029\ud83d\ude00\"]"
+    })
+    public void writeShouldEscapeCharactersAsConfigured(String property, String expected) {
+        Map<String, Object> config = new HashMap<>();
+        if (!property.isEmpty()) {
+            config.put(property, Boolean.TRUE);
+        }
+        StringWriter writer = new StringWriter();
+        JsonGenerator generator = Json.createGeneratorFactory(config).createGenerator(writer);
+
+        generator.writeStartArray()
+            .write("\"\\/\b\f\n\r\t\u0000\u001f\u007f\u00e9\u2028\u2029\ud83d\ude00")
+            .writeEnd()
+            .close();
+
+        assertThat(writer.toString()).isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    public void writeKeyShouldWriteSameAsStringKey(boolean prettyPrinting) {
+        Map<String, Object> config = new HashMap<>();
+        if (prettyPrinting) {
+            config.put(JsonGenerator.PRETTY_PRINTING, Boolean.TRUE);
+        }
+        org.leadpony.joy.api.JsonGeneratorFactory factory =
+                (org.leadpony.joy.api.JsonGeneratorFactory) Json.createGeneratorFactory(config);
+        String[] names = {"a", "\"b\"\n", "\u540d\u524d", "d", "e", "f", "g", "h", "i", "j", "k", "l"};
+        SerializedName[] serializedNames = new SerializedName[names.length];
+        for (int i = 0; i < names.length; i++) {
+            serializedNames[i] = factory.serializedName(names[i]);
+        }
+        StringWriter actual = new StringWriter();
+        StringWriter expected = new StringWriter();
+
+        org.leadpony.joy.api.JsonGenerator generator =
+                (org.leadpony.joy.api.JsonGenerator) factory.createGenerator(actual);
+        generator.writeStartObject()
+            .writeKey(serializedNames[0]).write(1)
+            .write(serializedNames[1], "x")
+            .writeStartObject(serializedNames[2])
+                .writeStartArray(serializedNames[3]).writeEnd()
+                .write(serializedNames[4], JsonValue.TRUE)
+                .write(serializedNames[5], BigInteger.TEN)
+                .write(serializedNames[6], BigDecimal.ONE)
+            .writeEnd()
+            .write(serializedNames[7], 2L)
+            .write(serializedNames[8], 1.5)
+            .write(serializedNames[9], false)
+            .writeNull(serializedNames[10])
+            .write(serializedNames[11], 3)
+            .writeEnd()
+            .close();
+
+        factory.createGenerator(expected).writeStartObject()
+            .writeKey(names[0]).write(1)
+            .write(names[1], "x")
+            .writeStartObject(names[2])
+                .writeStartArray(names[3]).writeEnd()
+                .write(names[4], JsonValue.TRUE)
+                .write(names[5], BigInteger.TEN)
+                .write(names[6], BigDecimal.ONE)
+            .writeEnd()
+            .write(names[7], 2L)
+            .write(names[8], 1.5)
+            .write(names[9], false)
+            .writeNull(names[10])
+            .write(names[11], 3)
+            .writeEnd()
+            .close();
+
+        assertThat(actual.toString()).isEqualTo(expected.toString());
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    public void copyStructureShouldCopyValuesAsTheyAre(boolean bytes) {
+        String json = "{\"a\":[1.0e+2,\"\\u00e9\\n\u540d\",true,null],\"b\":{\"c\":-0}}";
+        org.leadpony.joy.api.JsonParser parser;
+        if (bytes) {
+            byte[] encoded = json.getBytes(StandardCharsets.UTF_8);
+            parser = (org.leadpony.joy.api.JsonParser) Json.createParserFactory(null)
+                    .createParser(new ByteArrayInputStream(encoded));
+        } else {
+            parser = (org.leadpony.joy.api.JsonParser) Json.createParser(new StringReader(json));
+        }
+        StringWriter writer = new StringWriter();
+        org.leadpony.joy.api.JsonGenerator generator =
+                (org.leadpony.joy.api.JsonGenerator) Json.createGenerator(writer);
+
+        parser.next();
+        generator.writeStartArray().copyStructure(parser).writeEnd().close();
+
+        // The escape sequences are kept only if the bytes are copied.
+        String expected = bytes ? json : json.replace("\\u00e9", "\u00e9");
+        assertThat(writer.toString()).isEqualTo("[" + expected + "]");
+        assertThat(parser.hasNext()).isFalse();
+        parser.close();
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    public void resetShouldWriteSameAsNewGenerator(boolean prettyPrinting) {
+        Map<String, Object> config = new HashMap<>();
+        if (prettyPrinting) {
+            config.put(JsonGenerator.PRETTY_PRINTING, Boolean.TRUE);
+        }
+        org.leadpony.joy.api.JsonGeneratorFactory factory =
+                (org.leadpony.joy.api.JsonGeneratorFactory) Json.createGeneratorFactory(config);
+        ReusableJsonGenerator generator = factory.createReusableGenerator();
+        ByteArrayOutputStream expectedBytes = new ByteArrayOutputStream();
+        ByteArrayOutputStream expectedUtf16 = new ByteArrayOutputStream();
+        StringWriter expectedChars = new StringWriter();
+        generate(factory.createGenerator(expectedBytes));
+        generate(factory.createGenerator(expectedUtf16, StandardCharsets.UTF_16BE));
+        generate(factory.createGenerator(expectedChars));
+
+        for (int i = 0; i < 2; i++) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            generator.reset(bytes);
+            generate(generator);
+            assertThat(bytes.toByteArray()).isEqualTo(expectedBytes.toByteArray());
+
+            // The incomplete JSON is discarded by the next reset.
+            generator.reset(new StringWriter());
+            generator.writeStartObject().writeStartArray("a");
+
+            StringWriter chars = new StringWriter();
+            generator.reset(chars);
+            generate(generator);
+            assertThat(chars.toString()).isEqualTo(expectedChars.toString());
+
+            ByteArrayOutputStream utf16 = new ByteArrayOutputStream();
+            generator.reset(utf16, StandardCharsets.UTF_16BE);
+            generate(generator);
+            assertThat(utf16.toByteArray()).isEqualTo(expectedUtf16.toByteArray());
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    public void createGeneratorShouldWriteByteBufferAndChannel(boolean direct) {
+        org.leadpony.joy.api.JsonGeneratorFactory factory =
+                (org.leadpony.joy.api.JsonGeneratorFactory) Json.createGeneratorFactory(null);
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        ByteArrayOutputStream drained = new ByteArrayOutputStream();
+        ByteArrayOutputStream channel = new ByteArrayOutputStream();
+        ByteBuffer buffer = direct ? ByteBuffer.allocateDirect(100) : ByteBuffer.allocate(100);
+
+        generate(factory.createGenerator(expected));
+        generate(factory.createGenerator(buffer, full -> {
+            full.flip();
+            while (full.hasRemaining()) {
+                drained.write(full.get());
+            }
+            full.clear();
+            return full;
+        }));
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            drained.write(buffer.get());
+        }
+        generate(factory.createGenerator(Channels.newChannel(channel)));
+
+        assertThat(drained.toByteArray()).isEqualTo(expected.toByteArray());
+        assertThat(channel.toByteArray()).isEqualTo(expected.toByteArray());
+    }
+
+    private static void generate(JsonGenerator generator) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 3000; i++) {
+            builder.append("aé名😀\"\n");
+        }
+        generator.writeStartObject()
+            .write("名前", builder.toString())
+            .writeStartArray("b")
+            .write("\uD800x")
+            .write(42)
+            .writeEnd()
+            .writeEnd();
+        generator.close();
+    }
+}
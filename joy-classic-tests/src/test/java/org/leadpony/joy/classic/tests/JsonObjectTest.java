@@ -0,0 +1,60 @@
+/*
+ * Copyright 2019-2020 the Joy Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.joy.classic.tests;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.io.StringReader;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonObjectBuilder;
+import jakarta.json.JsonValue;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * @author leadpony
+ */
+public class JsonObjectTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 8, 9, 100})
+    public void buildShouldBehaveAsLinkedHashMap(int size) {
+        JsonObjectBuilder builder = Json.createObjectBuilder();
+        Map<String, JsonValue> expected = new LinkedHashMap<>();
+        for (int i = size - 1; i >= 0; i--) {
+            builder.add("p" + i, i);
+            expected.put("p" + i, Json.createValue(i));
+        }
+        builder.add("p0", "replaced").remove("p1");
+        expected.put("p0", Json.createValue("replaced"));
+        expected.remove("p1");
+
+        JsonObject actual = builder.build();
+
+        assertThat(actual).isEqualTo(expected).hasSameHashCodeAs(expected);
+        assertThat(actual.keySet()).containsExactlyElementsOf(expected.keySet());
+        assertThat(actual.get("p" + size)).isNull();
+        assertThat(actual.containsKey(null)).isFalse();
+        assertThat(catchThrowable(() -> actual.remove("p0"))).isInstanceOf(UnsupportedOperationException.class);
+        assertThat(Json.createReader(new StringReader(actual.toString())).readObject()).isEqualTo(expected);
+    }
+}
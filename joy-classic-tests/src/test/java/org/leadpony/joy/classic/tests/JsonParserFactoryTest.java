@@ -0,0 +1,313 @@
+/*
+ * Copyright 2019-2020 the Joy Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.joy.classic.tests;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import jakarta.json.Json;
+import jakarta.json.stream.JsonParser;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.leadpony.joy.api.JsonFeedParser;
+import org.leadpony.joy.api.JsonParserFactory;
+import org.leadpony.joy.api.ReusableJsonParser;
+
+/**
+ * @author leadpony
+ */
+public class JsonParserFactoryTest {
+
+    private static final JsonParserFactory FACTORY = (JsonParserFactory) Json.createParserFactory(null);
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "[]",
+        "{}",
+        "\"\\u30c6\\u30b9\\u30c8 é\\n\"",
+        "[true,false,null,-1.5e+3,9223372036854775808]",
+        "{\"a\":[1,2,{\"b\":\"あ\"}],\r\n\"c\":{}}"
+    })
+    public void createParserShouldParseByteArray(String json) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        byte[] padded = new byte[bytes.length + 4];
+        System.arraycopy(bytes, 0, padded, 2, bytes.length);
+
+        List<String> actual = parse(FACTORY.createParser(padded, 2, bytes.length));
+
+        assertThat(actual).isEqualTo(parse(json));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "[]",
+        "\"\\u30c6\\u30b9\\u30c8 é\\n\"",
+        "{\"a\":[1,2,{\"b\":\"あ\"}],\r\n\"c\":{}}"
+    })
+    public void createParserShouldParseDirectByteBuffer(String json) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes).flip();
+
+        List<String> actual = parse(FACTORY.createParser(buffer));
+
+        assertThat(actual).isEqualTo(parse(json));
+        assertThat(buffer.position()).isEqualTo(0);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "[]",
+        "\"\\u30c6\\u30b9\\u30c8 é\\n\"",
+        "{\"a\":[1,2,{\"b\":\"あ\"}],\r\n\"c\":{}}"
+    })
+    public void createParserShouldParseCharSequence(String json) {
+        List<String> expected = parse(json);
+
+        assertThat(parse(FACTORY.createParser(new StringBuilder(json)))).isEqualTo(expected);
+        assertThat(parse(FACTORY.createParser(CharBuffer.wrap("  " + json, 2, json.length() + 2))))
+                .isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "[]",
+        "\"\\u30c6\\u30b9\\u30c8 é\\n\"",
+        "{\"a\":[1,2,{\"b\":\"あ\"}],\r\n\"c\":{}}"
+    })
+    public void createParserShouldParseFile(String json, @TempDir Path dir) throws IOException {
+        Path path = dir.resolve("test.json");
+        Files.write(path, json.getBytes(StandardCharsets.UTF_8));
+
+        List<String> actual = parse(FACTORY.createParser(path));
+
+        assertThat(actual).isEqualTo(parse(json));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "UTF-16BE, false",
+        "UTF-16LE, false",
+        "UTF-32BE, false",
+        "UTF-32LE, false",
+        "UTF-16BE, true",
+        "UTF-16LE, true",
+        "UTF-32BE, true",
+        "UTF-32LE, true"
+    })
+    public void createParserShouldDetectEncoding(String encoding, boolean bom) {
+        String json = "{\"a\":[1,\"\uD83D\uDE00\u540d\"],\"b\":\"\"}";
+        byte[] bytes = ((bom ? "\uFEFF" : "") + json).getBytes(Charset.forName(encoding));
+
+        List<String> actual = parse(FACTORY.createParser(new ByteArrayInputStream(bytes)));
+
+        assertThat(actual).isEqualTo(parse(json));
+    }
+
+    @Test
+    public void createParserShouldShareKeyNames() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(org.leadpony.joy.api.JsonParser.KEY_NAME_CACHE_SIZE, 16);
+        JsonParserFactory factory = (JsonParserFactory) Json.createParserFactory(config);
+        byte[] bytes = "{\"name\":1}".getBytes(StandardCharsets.UTF_8);
+
+        String first = getFirstKeyName(factory.createParser(new StringReader("{\"name\":1}")));
+        String second = getFirstKeyName(factory.createParser(bytes, 0, bytes.length));
+
+        assertThat(factory.getConfigInUse()).containsKey(org.leadpony.joy.api.JsonParser.KEY_NAME_CACHE_SIZE);
+        assertThat(second).isEqualTo("name").isSameAs(first);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "[]",
+        "\"\\u30c6\\u30b9\\u30c8 é\\n\"",
+        "[true,false,null,-1.5e+3,9223372036854775808]",
+        "{\"a\":[1,2,{\"b\":\"あ\"}],\r\n\"c\":{}}",
+        "42"
+    })
+    public void createFeedParserShouldParseEachByte(String json) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        JsonFeedParser parser = FACTORY.createFeedParser();
+        List<String> actual = new ArrayList<>();
+
+        for (byte b : bytes) {
+            assertThat(parser.needsMoreInput()).isTrue();
+            parser.feed(ByteBuffer.wrap(new byte[] {b}));
+            actual.addAll(parse(parser, false));
+        }
+        parser.endOfInput();
+        actual.addAll(parse(parser, true));
+
+        assertThat(parser.needsMoreInput()).isFalse();
+        assertThat(actual).isEqualTo(parse(json));
+    }
+
+    @Test
+    public void createFeedParserShouldRejectValuesNotFedWholly() {
+        JsonFeedParser parser = FACTORY.createFeedParser();
+        parser.feed(ByteBuffer.wrap("{\"a\":[1,2],\"b\":{\"c\":\"]}\"".getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(parser.next()).isEqualTo(JsonParser.Event.START_OBJECT);
+        assertThat(parser.next()).isEqualTo(JsonParser.Event.KEY_NAME);
+        assertThat(parser.next()).isEqualTo(JsonParser.Event.START_ARRAY);
+        assertThat(parser.getArray()).isEqualTo(Json.createArrayBuilder().add(1).add(2).build());
+        assertThat(parser.next()).isEqualTo(JsonParser.Event.KEY_NAME);
+        assertThat(parser.next()).isEqualTo(JsonParser.Event.START_OBJECT);
+
+        assertThat(catchThrowable(parser::getValue)).isInstanceOf(IllegalStateException.class)
+                .hasMessage("getValue() was called before the whole value was fed to the parser.");
+        assertThat(catchThrowable(parser::getObject)).isInstanceOf(IllegalStateException.class);
+        assertThat(catchThrowable(parser::getObjectStream)).isInstanceOf(IllegalStateException.class);
+        assertThat(catchThrowable(parser::skipObject)).isInstanceOf(IllegalStateException.class);
+
+        parser.feed(ByteBuffer.wrap("}".getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(parser.getObject()).isEqualTo(Json.createObjectBuilder().add("c", "]}").build());
+        assertThat(parser.hasNext()).isFalse();
+        assertThat(catchThrowable(parser::next)).isInstanceOf(NoSuchElementException.class)
+                .hasMessage("The parser needs more input to produce the next event.");
+
+        parser.feed(ByteBuffer.wrap("}".getBytes(StandardCharsets.UTF_8)));
+        parser.endOfInput();
+
+        assertThat(parser.next()).isEqualTo(JsonParser.Event.END_OBJECT);
+        assertThat(parser.hasNext()).isFalse();
+        parser.close();
+    }
+
+    @Test
+    public void createFeedParserShouldRejectArraysNotFedWholly() {
+        JsonFeedParser parser = FACTORY.createFeedParser();
+        parser.feed(ByteBuffer.wrap("[[1,\"[\"],[3 ".getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(parser.next()).isEqualTo(JsonParser.Event.START_ARRAY);
+        assertThat(parser.next()).isEqualTo(JsonParser.Event.START_ARRAY);
+        parser.skipArray();
+        assertThat(parser.next()).isEqualTo(JsonParser.Event.START_ARRAY);
+
+        assertThat(catchThrowable(parser::getArray)).isInstanceOf(IllegalStateException.class);
+        assertThat(catchThrowable(parser::getArrayStream)).isInstanceOf(IllegalStateException.class);
+        assertThat(catchThrowable(parser::skipArray)).isInstanceOf(IllegalStateException.class)
+                .hasMessage("skipArray() was called before the whole value was fed to the parser.");
+        assertThat(parser.next()).isEqualTo(JsonParser.Event.VALUE_NUMBER);
+        assertThat(catchThrowable(parser::next)).isInstanceOf(NoSuchElementException.class);
+
+        parser.feed(ByteBuffer.wrap("]]".getBytes(StandardCharsets.UTF_8)));
+        parser.endOfInput();
+
+        assertThat(parser.next()).isEqualTo(JsonParser.Event.END_ARRAY);
+        assertThat(parser.next()).isEqualTo(JsonParser.Event.END_ARRAY);
+        assertThat(parser.hasNext()).isFalse();
+        parser.close();
+    }
+
+    @Test
+    public void createReusableParserShouldParseEachInput() {
+        String[] jsons = {
+            "{\"a\":[1,2,{\"b\":\"あ\"}],\r\n\"c\":{}}",
+            "[true,false,null,-1.5e+3,9223372036854775808]",
+            "\"\\u30c6\\u30b9\\u30c8 é\\n\"",
+            "42"
+        };
+        ReusableJsonParser parser = FACTORY.createReusableParser();
+
+        assertThat(parser.hasNext()).isFalse();
+        for (String json : jsons) {
+            byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+            parser.reset(bytes, 0, bytes.length);
+            assertThat(parse(parser, false)).isEqualTo(parse(json));
+            parser.reset(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_16LE)));
+            assertThat(parse(parser)).isEqualTo(parse(json));
+            parser.reset(new StringReader(json));
+            assertThat(parse(parser)).isEqualTo(parse(json));
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+        "{\"a\":{\"b\":1,\"c\":[2,3]},\"d\":[4,{\"e\":5}]}|/a/b|{\"a\":{\"b\":1}}",
+        "{\"a\":{\"b\":1,\"c\":[2,3]},\"d\":[4,{\"e\":5}]}|/a/c,/d/1/e|{\"a\":{\"c\":[2,3]},\"d\":[{\"e\":5}]}",
+        "{\"a\":{\"b\":1,\"c\":[2,3]},\"d\":[4,{\"e\":5}]}|/d/0,/x|{\"d\":[4]}",
+        "{\"a\":{\"b\":1,\"c\":[2,3]},\"d\":[4,{\"e\":5}]}|/a/b/c|{\"a\":{}}",
+        "{\"a/b\":[1],\"~\":2}|/a~1b,/~0|{\"a/b\":[1],\"~\":2}",
+        "[1,[2,3]]|''|[1,[2,3]]"
+    })
+    public void createFilteredParserShouldEmitSelectedValues(String json, String pointers, String expected) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        JsonParser parser = FACTORY.createFilteredParser(new ByteArrayInputStream(bytes), pointers.split(","));
+
+        List<String> actual = parse(parser);
+
+        assertThat(actual).isEqualTo(parse(expected));
+    }
+
+    private static String getFirstKeyName(JsonParser parser) {
+        try (JsonParser p = parser) {
+            p.next();
+            p.next();
+            return p.getString();
+        }
+    }
+
+    private static List<String> parse(String json) {
+        return parse(Json.createParser(new StringReader(json)));
+    }
+
+    private static List<String> parse(JsonParser parser) {
+        return parse(parser, true);
+    }
+
+    private static List<String> parse(JsonParser parser, boolean close) {
+        List<String> events = new ArrayList<>();
+        while (parser.hasNext()) {
+            JsonParser.Event event = parser.next();
+            switch (event) {
+            case KEY_NAME:
+            case VALUE_STRING:
+            case VALUE_NUMBER:
+                events.add(event + ":" + parser.getString());
+                break;
+            default:
+                events.add(event.toString());
+                break;
+            }
+        }
+        if (close) {
+            parser.close();
+        }
+        return events;
+    }
+}
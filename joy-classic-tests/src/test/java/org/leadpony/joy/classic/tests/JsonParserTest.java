@@ -0,0 +1,395 @@
+/*
+ * Copyright 2019-2020 the Joy Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.joy.classic.tests;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
+import jakarta.json.Json;
+import jakarta.json.JsonValue;
+import jakarta.json.stream.JsonLocation;
+import jakarta.json.stream.JsonParsingException;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.leadpony.joy.api.FieldSet;
+import org.leadpony.joy.api.JsonParser;
+import org.leadpony.joy.api.JsonParserFactory;
+
+/**
+ * @author leadpony
+ */
+public class JsonParserTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "0",
+        "-0",
+        "-0.0",
+        "1",
+        "-1",
+        "3.141592653589793",
+        "1.7976931348623157e308",
+        "1.7976931348623159e308",
+        "4.9e-324",
+        "2.4703282292062328e-324",
+        "1e-400",
+        "-1e400",
+        "9007199254740993",
+        "123456789012345678901234567890",
+        "0.10000000000000000555111512312578270211815834045410156250000000000001",
+        "2.2250738585072011e-308",
+        "7.2057594037927933e16"
+    })
+    public void getDoubleShouldReturnSameValueAsBigDecimal(String json) {
+        JsonParser parser = (JsonParser) Json.createParser(new StringReader(json));
+        parser.next();
+
+        double actual = parser.getDouble();
+        double expected = new BigDecimal(json).doubleValue();
+
+        assertThat(actual).isEqualTo(expected);
+        parser.close();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "  12345",
+        " -0.125e+2",
+        "\n\n  123456789012345678901234567890"
+    })
+    public void getBigDecimalShouldReturnNumberAtEndOfInput(String json) {
+        JsonParser parser = (JsonParser) Json.createParser(new StringReader(json));
+        parser.next();
+
+        String expected = json.trim();
+
+        assertThat(parser.getString()).isEqualTo(expected);
+        assertThat(parser.getBigDecimal()).isEqualTo(new BigDecimal(expected));
+        assertThat(parser.hasNext()).isFalse();
+        parser.close();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "\"\u540d\u524d\u00e9\uD83D\uDE00\u540d\"",
+        "\"a\\u540d\\n\u540d\\\"b\\\\\"",
+        "-1234.5678e-3",
+        "{\"\u540d\\t\":12345678901234567890}"
+    })
+    public void parsersShouldReturnSameEventsAcrossBufferBoundary(String value) {
+        JsonParserFactory factory = (JsonParserFactory) Json.createParserFactory(null);
+        int length = value.getBytes(StandardCharsets.UTF_8).length;
+        for (int i = 0; i <= length + 4; i++) {
+            StringBuilder builder = new StringBuilder("[");
+            for (int j = 0; j < 8192 - i; j++) {
+                builder.append(' ');
+            }
+            String json = builder.append(value).append(']').toString();
+            byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+
+            assertThat(getEvents((JsonParser) factory.createParser(new ByteArrayInputStream(bytes))))
+                    .isEqualTo(getEvents((JsonParser) factory.createParser(new StringReader(json))));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    public void nextFieldIndexShouldReturnIndexOfKeyName(boolean bytes) {
+        JsonParserFactory factory = (JsonParserFactory) Json.createParserFactory(null);
+        FieldSet fields = factory.fieldSet("id", "\u540d\u524d", "a\"b", "id");
+        String json = "{\"id\":1,\"\u540d\u524d\":2,\"\\u540d\\u524d\":3,\"a\\\"b\":4,\"other\":5,\"\":6}";
+        JsonParser parser;
+        if (bytes) {
+            byte[] encoded = json.getBytes(StandardCharsets.UTF_8);
+            parser = (JsonParser) factory.createParser(encoded, 0, encoded.length);
+        } else {
+            parser = (JsonParser) factory.createParser(new StringReader(json));
+        }
+
+        List<Integer> actual = new ArrayList<>();
+        parser.next();
+        int index;
+        while ((index = parser.nextFieldIndex(fields)) != FieldSet.NO_FIELD) {
+            actual.add(index);
+            parser.next();
+        }
+        parser.close();
+
+        assertThat(actual).containsExactly(0, 1, 1, 2, FieldSet.NOT_FOUND, FieldSet.NOT_FOUND);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    public void skipObjectShouldSkipBracketsInStrings(boolean strict) {
+        String json = "[{\"a\":[\"]}\\\"[{\",{}],\r\n\"b\":{\"c\":\"}\"}},\n42]";
+        JsonParser parser = (JsonParser) createParserFactory(strict).createParser(new StringReader(json));
+
+        parser.next();
+        parser.next();
+        parser.next();
+        parser.skipObject();
+
+        assertThat(parser.next()).isEqualTo(JsonParser.Event.VALUE_NUMBER);
+        assertThat(parser.getInt()).isEqualTo(42);
+        assertThat(parser.getLocation().getLineNumber()).isEqualTo(3);
+        assertThat(parser.next()).isEqualTo(JsonParser.Event.END_ARRAY);
+        assertThat(parser.hasNext()).isFalse();
+        parser.close();
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    public void skipArrayShouldValidateOnlyIfStrict(boolean strict) {
+        String json = "{\"a\":[1,{\"b\" 2}],\"c\":3}";
+        JsonParser parser = (JsonParser) createParserFactory(strict).createParser(new StringReader(json));
+
+        parser.next();
+        parser.next();
+        parser.next();
+        Throwable thrown = catchThrowable(parser::skipArray);
+
+        if (strict) {
+            assertThat(thrown).isInstanceOf(JsonParsingException.class);
+        } else {
+            assertThat(thrown).isNull();
+            assertThat(parser.next()).isEqualTo(JsonParser.Event.KEY_NAME);
+            assertThat(parser.getString()).isEqualTo("c");
+        }
+        parser.close();
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    public void getArrayStreamShouldSupportParallelStream(boolean bytes) {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < 1000; i++) {
+            if (i > 0) {
+                builder.append(",\n");
+            }
+            builder.append("{\"id\":").append(i).append(",\"tags\":[\"a,b\",\"]\"]}");
+        }
+        String json = builder.append("]").toString();
+        JsonParserFactory factory = (JsonParserFactory) Json.createParserFactory(null);
+        JsonParser parser;
+        if (bytes) {
+            byte[] encoded = json.getBytes(StandardCharsets.UTF_8);
+            parser = (JsonParser) factory.createParser(encoded, 0, encoded.length);
+        } else {
+            parser = (JsonParser) factory.createParser(json);
+        }
+
+        parser.next();
+        List<Integer> actual = parser.getArrayStream()
+                .parallel()
+                .map(value -> value.asJsonObject().getInt("id"))
+                .collect(Collectors.toList());
+
+        assertThat(actual).hasSize(1000).isSorted();
+        assertThat(parser.hasNext()).isFalse();
+        assertThat(parser.getLocation().getLineNumber()).isEqualTo(1000);
+        parser.close();
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    public void getArrayStreamShouldReportLocationsOfItemsParsedAlternately(boolean bytes) {
+        StringBuilder builder = new StringBuilder("[");
+        List<String> expected = new ArrayList<>();
+        long lineOffset = 0;
+        for (int i = 0; i < 200; i++) {
+            if (i > 0) {
+                builder.append(",\n");
+                lineOffset = builder.length();
+            }
+            builder.append("\"名前😀é\"");
+            if (i % 3 == 0) {
+                long offset = builder.length() + 1;
+                expected.add("line=" + (i + 1) + ",column=" + (offset - lineOffset + 1) + ",offset=" + offset);
+                builder.append(" x");
+            }
+        }
+        String json = builder.append("]").toString();
+        JsonParserFactory factory = (JsonParserFactory) Json.createParserFactory(null);
+        JsonParser parser;
+        if (bytes) {
+            byte[] encoded = json.getBytes(StandardCharsets.UTF_8);
+            parser = (JsonParser) factory.createParser(encoded, 0, encoded.length);
+        } else {
+            parser = (JsonParser) factory.createParser(json);
+        }
+
+        parser.next();
+        Spliterator<JsonValue> suffix = parser.getArrayStream().spliterator();
+        Spliterator<JsonValue> prefix = suffix.trySplit();
+        String[] locations = new String[200];
+        int prefixIndex = 0;
+        int suffixIndex = 100;
+        while (prefixIndex < 100 || suffixIndex < 200) {
+            if (prefixIndex < 100) {
+                locations[prefixIndex++] = advanceToError(prefix);
+            }
+            if (suffixIndex < 200) {
+                locations[suffixIndex++] = advanceToError(suffix);
+            }
+        }
+
+        assertThat(Arrays.stream(locations).filter(Objects::nonNull)).containsExactlyElementsOf(expected);
+        parser.close();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "[1,\n2,\r\n\"a\\nb\",\r{\"c\":\n\r\n[]}]",
+        "{\"a\":\r\n[true,\n\"\u540d\u524d\"\r,\r\n",
+        "\n\r\n  [1,\n x]",
+        "\"a\"\r"
+    })
+    public void getLocationShouldBeSameIfLazy(String json) {
+        Map<String, Object> config = new HashMap<>();
+        config.put(JsonParser.LAZY_LOCATION, true);
+        JsonParserFactory lazy = (JsonParserFactory) Json.createParserFactory(config);
+        JsonParserFactory eager = (JsonParserFactory) Json.createParserFactory(null);
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+
+        assertThat(getLocations((JsonParser) lazy.createParser(new StringReader(json))))
+                .isEqualTo(getLocations((JsonParser) eager.createParser(new StringReader(json))));
+        assertThat(getLocations((JsonParser) lazy.createParser(bytes, 0, bytes.length)))
+                .isEqualTo(getLocations((JsonParser) eager.createParser(bytes, 0, bytes.length)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "[\"名前名前\", x]",
+        "{\"😀\":\n[\"é\",\r\n\"名\"], \"a\": x}",
+        "[\"名前\",\n  \"😀😀\"]"
+    })
+    public void getLocationShouldCountCharsOfBytes(String json) {
+        JsonParserFactory factory = (JsonParserFactory) Json.createParserFactory(null);
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        List<String> expected = getLocations((JsonParser) factory.createParser(new StringReader(json)));
+
+        assertThat(getLocations((JsonParser) factory.createParser(new ByteArrayInputStream(bytes))))
+                .isEqualTo(expected);
+        assertThat(getLocations((JsonParser) factory.createParser(bytes, 0, bytes.length)))
+                .isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    public void getValueReaderShouldStreamLongString(boolean bytes) throws IOException {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            builder.append("a\\u540d前\"\uD83D\uDE00é\t");
+        }
+        String value = builder.toString();
+        String escaped = value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\t", "\\t");
+        String json = "[\"" + escaped + "\",\"" + escaped + "\",42]";
+        Map<String, Object> config = new HashMap<>();
+        config.put(JsonParser.MAX_BUFFERED_STRING_LENGTH, 16);
+        JsonParserFactory factory = (JsonParserFactory) Json.createParserFactory(config);
+        JsonParser parser;
+        if (bytes) {
+            parser = (JsonParser) factory.createParser(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+        } else {
+            parser = (JsonParser) factory.createParser(new StringReader(json));
+        }
+
+        parser.next();
+        parser.next();
+        StringBuilder actual = new StringBuilder();
+        Reader reader = parser.getValueReader();
+        char[] chunk = new char[100];
+        int charsRead;
+        while ((charsRead = reader.read(chunk)) >= 0) {
+            actual.append(chunk, 0, charsRead);
+        }
+
+        assertThat(actual.toString()).isEqualTo(value);
+        assertThat(parser.next()).isEqualTo(JsonParser.Event.VALUE_STRING);
+        assertThat(parser.next()).isEqualTo(JsonParser.Event.VALUE_NUMBER);
+        assertThat(parser.getInt()).isEqualTo(42);
+        parser.close();
+    }
+
+    /**
+     * Advances the spliterator by one item.
+     *
+     * @return the location of the error found in the item, or {@code null}.
+     */
+    private static String advanceToError(Spliterator<JsonValue> spliterator) {
+        try {
+            assertThat(spliterator.tryAdvance(value -> { })).isTrue();
+            return null;
+        } catch (JsonParsingException e) {
+            JsonLocation location = e.getLocation();
+            return "line=" + location.getLineNumber()
+                    + ",column=" + location.getColumnNumber()
+                    + ",offset=" + location.getStreamOffset();
+        }
+    }
+
+    private static List<String> getEvents(JsonParser parser) {
+        List<String> events = new ArrayList<>();
+        while (parser.hasNext()) {
+            JsonParser.Event event = parser.next();
+            String string = "";
+            if (event == JsonParser.Event.KEY_NAME
+                    || event == JsonParser.Event.VALUE_STRING
+                    || event == JsonParser.Event.VALUE_NUMBER) {
+                string = parser.getString();
+            }
+            events.add(event + " " + string + " " + parser.getLocation());
+        }
+        parser.close();
+        return events;
+    }
+
+    private static List<String> getLocations(JsonParser parser) {
+        List<String> locations = new ArrayList<>();
+        try {
+            while (parser.hasNext()) {
+                parser.next();
+                locations.add(parser.getLocation().toString());
+            }
+        } catch (JsonParsingException e) {
+            locations.add(e.getLocation().toString());
+        }
+        parser.close();
+        return locations;
+    }
+
+    private static JsonParserFactory createParserFactory(boolean strictSkip) {
+        Map<String, Object> config = new HashMap<>();
+        config.put(JsonParser.STRICT_SKIP, strictSkip);
+        return (JsonParserFactory) Json.createParserFactory(config);
+    }
+}
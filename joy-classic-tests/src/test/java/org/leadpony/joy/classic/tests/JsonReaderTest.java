@@ -0,0 +1,91 @@
+/*
+ * Copyright 2019-2020 the Joy Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.joy.classic.tests;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import jakarta.json.Json;
+import jakarta.json.JsonReader;
+import jakarta.json.JsonReaderFactory;
+import jakarta.json.JsonValue;
+import jakarta.json.stream.JsonParsingException;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * @author leadpony
+ */
+public class JsonReaderTest {
+
+    private static final JsonReaderFactory[] FACTORIES = {
+        Json.createReaderFactory(Collections.singletonMap(org.leadpony.joy.api.JsonReader.LAZY_VALUES, Boolean.TRUE)),
+        Json.createReaderFactory(Collections.singletonMap(org.leadpony.joy.api.JsonReader.COMPACT_VALUES, Boolean.TRUE))
+    };
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "[]",
+        "{}",
+        "[1,-2.5e3,\"a\\\"b\\u00e9\",true,false,null,[{}],{\"c\":[]}]",
+        "[[1],{\"a\":[2,3]},9223372036854775808,0.1,\"\"]",
+        "{\"a\":{\"b\":[1,{\"c\":\"\u540d\u524d\"}]},\"d\":\"\\n\",\"a\":2}",
+        "{\"p0\":0,\"p1\":1,\"p2\":2,\"p3\":3,\"p4\":4,\"p5\":5,\"p6\":6,\"p7\":7,\"p8\":8,\"p1\":9}",
+        "\"\\ud83d\\ude00\"",
+        "42"
+    })
+    public void readValueShouldReadSameValueInEachForm(String json) {
+        JsonValue expected = Json.createReader(new StringReader(json)).readValue();
+
+        for (JsonReaderFactory factory : FACTORIES) {
+            for (int i = 0; i < 2; i++) {
+                JsonReader reader;
+                if (i == 0) {
+                    reader = factory.createReader(new StringReader(json));
+                } else {
+                    reader = factory.createReader(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+                }
+                JsonValue actual = reader.readValue();
+                reader.close();
+
+                assertThat(actual).isEqualTo(expected).hasSameHashCodeAs(expected);
+                assertThat(actual.toString()).isEqualTo(expected.toString());
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "[1,{\"a\":[2,}]",
+        "{\"a\":\"\\x\"}",
+        "[1,2"
+    })
+    public void readShouldReportSameErrorInEachForm(String json) {
+        Throwable expected = catchThrowable(() -> Json.createReader(new StringReader(json)).read());
+
+        for (JsonReaderFactory factory : FACTORIES) {
+            Throwable actual = catchThrowable(() -> factory.createReader(new StringReader(json)).read());
+
+            assertThat(actual).isInstanceOf(JsonParsingException.class).hasMessage(expected.getMessage());
+        }
+    }
+}
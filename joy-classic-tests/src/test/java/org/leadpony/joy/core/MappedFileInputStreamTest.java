@@ -0,0 +1,119 @@
+/*
+ * Copyright 2019-2020 the Joy Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.joy.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.json.Json;
+import jakarta.json.stream.JsonParser;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * A test of {@link MappedFileInputStream} with small windows.
+ *
+ * @author leadpony
+ */
+public class MappedFileInputStreamTest {
+
+    private static final JsonParserFactoryImpl FACTORY = (JsonParserFactoryImpl) Json.createParserFactory(null);
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "[12345678,\"abcdefgh\",true,null]",
+        "{\"名前\":\"é😀名\"}",
+        "\"😀😀\\u540d\\n\""
+    })
+    public void createParserShouldParseFileAcrossWindows(String json, @TempDir Path dir) throws IOException {
+        Path path = dir.resolve("test.json");
+        Files.write(path, json.getBytes(StandardCharsets.UTF_8));
+        List<String> expected = parse(Json.createParser(new StringReader(json)));
+
+        for (int windowSize = 1; windowSize <= 8; windowSize++) {
+            assertThat(parse(FACTORY.createParser(path, windowSize))).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    public void readShouldReadAllBytesAcrossWindows(@TempDir Path dir) throws IOException {
+        byte[] bytes = "[\"名前😀\",42]".getBytes(StandardCharsets.UTF_8);
+        Path path = dir.resolve("test.json");
+        Files.write(path, bytes);
+
+        for (int windowSize = 1; windowSize <= 8; windowSize++) {
+            try (InputStream in = new MappedFileInputStream(path, windowSize)) {
+                assertThat(in.available()).isEqualTo(bytes.length);
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                out.write(in.read());
+                byte[] chunk = new byte[5];
+                int bytesRead;
+                while ((bytesRead = in.read(chunk, 0, chunk.length)) >= 0) {
+                    assertThat(bytesRead).isBetween(1, windowSize);
+                    out.write(chunk, 0, bytesRead);
+                }
+                assertThat(out.toByteArray()).isEqualTo(bytes);
+                assertThat(in.available()).isZero();
+            }
+        }
+    }
+
+    @Test
+    public void readShouldReturnEndOfFileForEmptyFile(@TempDir Path dir) throws IOException {
+        Path path = dir.resolve("empty.json");
+        Files.write(path, new byte[0]);
+
+        try (InputStream in = new MappedFileInputStream(path, 4)) {
+            assertThat(in.available()).isZero();
+            assertThat(in.read()).isEqualTo(-1);
+            assertThat(in.read(new byte[4], 0, 4)).isEqualTo(-1);
+        }
+        JsonParser parser = FACTORY.createParser(path, 4);
+        assertThat(parser.hasNext()).isFalse();
+        parser.close();
+    }
+
+    private static List<String> parse(JsonParser parser) {
+        List<String> events = new ArrayList<>();
+        while (parser.hasNext()) {
+            JsonParser.Event event = parser.next();
+            switch (event) {
+            case KEY_NAME:
+            case VALUE_STRING:
+            case VALUE_NUMBER:
+                events.add(event + ":" + parser.getString() + parser.getLocation());
+                break;
+            default:
+                events.add(event.toString() + parser.getLocation());
+                break;
+            }
+        }
+        parser.close();
+        return events;
+    }
+}
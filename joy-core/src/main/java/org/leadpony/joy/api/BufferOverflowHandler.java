@@ -0,0 +1,55 @@
+/*
+ * Copyright 2019-2020 the Joy Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.joy.api;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * A handler called when a generator has filled the byte buffer it writes to.
+ *
+ * <pre>
+ * <code>
+ * JsonGenerator generator = factory.createGenerator(buffer, full -&gt; {
+ *     full.flip();
+ *     channel.write(full);
+ *     full.compact();
+ *     return full;
+ * });
+ * </code>
+ * </pre>
+ *
+ * @author leadpony
+ * @since 2.1
+ * @see JsonGeneratorFactory#createGenerator(ByteBuffer, BufferOverflowHandler)
+ */
+@FunctionalInterface
+public interface BufferOverflowHandler {
+
+    /**
+     * Handles the buffer which has no space remaining. The bytes written by
+     * the generator are between the start of the buffer and its position.
+     * The handler may drain the buffer and return it again, or return another
+     * buffer. The generator continues writing at the position of the returned
+     * buffer.
+     *
+     * @param buffer the buffer which has no space remaining.
+     * @return the buffer to which the rest of the output is written, which
+     *         must have some space remaining.
+     * @throws IOException if an I/O error occurs.
+     */
+    ByteBuffer handleOverflow(ByteBuffer buffer) throws IOException;
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2019-2020 the Joy Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.joy.api;
+
+/**
+ * A set of field names prepared for matching the key names found by
+ * {@link JsonParser#nextFieldIndex(FieldSet)}.
+ *
+ * <pre>
+ * <code>
+ * FieldSet fields = factory.fieldSet("id", "name");
+ * int index;
+ * while ((index = parser.nextFieldIndex(fields)) != FieldSet.NO_FIELD) {
+ *     parser.next();
+ *     switch (index) {
+ *     case 0:
+ *         id = parser.getLong();
+ *         break;
+ *     case 1:
+ *         name = parser.getString();
+ *         break;
+ *     default:
+ *         parser.getValue();
+ *         break;
+ *     }
+ * }
+ * </code>
+ * </pre>
+ *
+ * <p>
+ * Instances of this type are immutable and can be shared by multiple parsers.
+ * </p>
+ *
+ * @author leadpony
+ * @since 2.1
+ * @see JsonParserFactory#fieldSet(String...)
+ */
+public interface FieldSet {
+
+    /**
+     * The index returned when the key name is not in this set.
+     */
+    int NOT_FOUND = -1;
+
+    /**
+     * The index returned when the parser did not find a key name.
+     */
+    int NO_FIELD = -2;
+
+    /**
+     * Returns the number of the field names in this set.
+     *
+     * @return the number of the field names.
+     */
+    int size();
+
+    /**
+     * Returns the field name at the specified index.
+     *
+     * @param index the index of the field name.
+     * @return the field name at the index.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    String getName(int index);
+
+    /**
+     * Returns the index of the specified field name.
+     *
+     * @param name the field name to find.
+     * @return the index of the field name, or {@link #NOT_FOUND} if this set
+     *         does not contain the name.
+     */
+    int indexOf(String name);
+}
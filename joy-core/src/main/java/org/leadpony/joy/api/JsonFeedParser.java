@@ -0,0 +1,83 @@
+/*
+ * Copyright 2019-2020 the Joy Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.joy.api;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A JSON parser which never blocks for the input. The input is fed to the
+ * parser in chunks of UTF-8 encoded bytes as they arrive, and the tokens may
+ * be split at any byte between the chunks.
+ *
+ * <p>
+ * {@link #hasNext()} returns {@code false} until enough input is fed to
+ * produce the next event. {@link #needsMoreInput()} tells whether the parser
+ * is waiting for more input or has reached the end of input.
+ * </p>
+ *
+ * <pre>
+ * <code>
+ * parser.feed(chunk);
+ * while (parser.hasNext()) {
+ *     Event event = parser.next();
+ *     ...
+ * }
+ * if (!parser.needsMoreInput()) {
+ *     parser.close();
+ * }
+ * </code>
+ * </pre>
+ *
+ * <p>
+ * {@link #next()} throws {@link java.util.NoSuchElementException} while the
+ * parser needs more input. The methods which read the rest of an array or an
+ * object at once, such as {@link #getValue()}, {@link #getArrayStream()},
+ * {@link #skipArray()} and {@link #skipObject()}, can be called only if the
+ * whole value was already fed, and throw {@link IllegalStateException}
+ * otherwise.
+ * </p>
+ *
+ * @author leadpony
+ * @since 2.1
+ */
+public interface JsonFeedParser extends JsonParser {
+
+    /**
+     * Feeds the remaining bytes of the specified buffer to this parser. The
+     * bytes are copied and the position of the buffer is moved to its limit.
+     *
+     * @param input the buffer containing the next chunk of the input.
+     * @throws NullPointerException  if the specified {@code input} is
+     *                               {@code null}.
+     * @throws IllegalStateException if {@link #endOfInput()} was already
+     *                               called.
+     */
+    void feed(ByteBuffer input);
+
+    /**
+     * Tells this parser that all of the input was fed.
+     */
+    void endOfInput();
+
+    /**
+     * Checks if more input must be fed before the next event can be produced.
+     * This method returns {@code false} always after {@link #endOfInput()} was
+     * called.
+     *
+     * @return {@code true} if more input is needed, {@code false} otherwise.
+     */
+    boolean needsMoreInput();
+}
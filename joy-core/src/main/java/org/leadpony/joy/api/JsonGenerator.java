@@ -15,9 +15,18 @@
  */
 package org.leadpony.joy.api;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import jakarta.json.JsonValue;
+
 /**
  * An extended {@link JsonGenerator}.
  *
+ * <p>
+ * All generators created by Joy implement this interface.
+ * </p>
+ *
  * @author leadpony
  */
 public interface JsonGenerator extends jakarta.json.stream.JsonGenerator {
@@ -53,4 +62,454 @@ public interface JsonGenerator extends jakarta.json.stream.JsonGenerator {
      * @since 1.1
      */
     String TAB_INDENTATION = "org.leadpony.joy.api.JsonGenerator.tabIndentation";
+
+    /**
+     * Configuration property to escape all non-ASCII characters in strings as
+     * <code>&#92;uXXXX</code>, so that the output contains only ASCII characters. The
+     * value of the property must be a boolean. By default only the characters
+     * which must be escaped are escaped.
+     *
+     * <pre>
+     * <code>
+     * Map&lt;String, Object&gt; config = new HashMap&lt;&gt;();
+     * config.put(JsonGenerator.ESCAPE_NON_ASCII, Boolean.TRUE);
+     * </code>
+     * </pre>
+     *
+     * @since 2.1
+     */
+    String ESCAPE_NON_ASCII = "org.leadpony.joy.api.JsonGenerator.escapeNonAscii";
+
+    /**
+     * Configuration property to escape the line separator U+2028 and the
+     * paragraph separator U+2029 in strings, which are not allowed in string
+     * literals of older JavaScript. The value of the property must be a
+     * boolean. By default these characters are written as they are.
+     *
+     * <pre>
+     * <code>
+     * Map&lt;String, Object&gt; config = new HashMap&lt;&gt;();
+     * config.put(JsonGenerator.ESCAPE_LINE_SEPARATORS, Boolean.TRUE);
+     * </code>
+     * </pre>
+     *
+     * @since 2.1
+     */
+    String ESCAPE_LINE_SEPARATORS = "org.leadpony.joy.api.JsonGenerator.escapeLineSeparators";
+
+    /*
+     * The methods inherited from the base interface return this interface, so
+     * that the methods taking SerializedName can be chained.
+     */
+    @Override
+    JsonGenerator writeStartObject();
+
+    @Override
+    JsonGenerator writeStartObject(String name);
+
+    @Override
+    JsonGenerator writeKey(String name);
+
+    @Override
+    JsonGenerator writeStartArray();
+
+    @Override
+    JsonGenerator writeStartArray(String name);
+
+    @Override
+    JsonGenerator write(String name, JsonValue value);
+
+    @Override
+    JsonGenerator write(String name, String value);
+
+    @Override
+    JsonGenerator write(String name, BigInteger value);
+
+    @Override
+    JsonGenerator write(String name, BigDecimal value);
+
+    @Override
+    JsonGenerator write(String name, int value);
+
+    @Override
+    JsonGenerator write(String name, long value);
+
+    @Override
+    JsonGenerator write(String name, double value);
+
+    @Override
+    JsonGenerator write(String name, boolean value);
+
+    @Override
+    JsonGenerator writeNull(String name);
+
+    @Override
+    JsonGenerator writeEnd();
+
+    @Override
+    JsonGenerator write(JsonValue value);
+
+    @Override
+    JsonGenerator write(String value);
+
+    @Override
+    JsonGenerator write(BigDecimal value);
+
+    @Override
+    JsonGenerator write(BigInteger value);
+
+    @Override
+    JsonGenerator write(int value);
+
+    @Override
+    JsonGenerator write(long value);
+
+    @Override
+    JsonGenerator write(double value);
+
+    @Override
+    JsonGenerator write(boolean value);
+
+    @Override
+    JsonGenerator writeNull();
+
+    /**
+     * Writes a field name prepared in advance. This method is equivalent to
+     * {@link #writeKey(String)} with the original name, but copies the name
+     * escaped and quoted in advance.
+     *
+     * @param name the field name.
+     * @return this generator.
+     * @throws NullPointerException if the specified {@code name} is
+     *                              {@code null}.
+     * @throws jakarta.json.stream.JsonGenerationException if this method is
+     *                                                     not called within an
+     *                                                     object context.
+     * @since 2.1
+     */
+    default JsonGenerator writeKey(SerializedName name) {
+        writeKey(name.getName());
+        return this;
+    }
+
+    /**
+     * Writes the start of an object as the value of a field name prepared in
+     * advance.
+     *
+     * @param name the field name.
+     * @return this generator.
+     * @throws NullPointerException if the specified {@code name} is
+     *                              {@code null}.
+     * @throws jakarta.json.stream.JsonGenerationException if this method is
+     *                                                     not called within an
+     *                                                     object context.
+     * @see #writeKey(SerializedName)
+     * @since 2.1
+     */
+    default JsonGenerator writeStartObject(SerializedName name) {
+        writeKey(name);
+        writeStartObject();
+        return this;
+    }
+
+    /**
+     * Writes the start of an array as the value of a field name prepared in
+     * advance.
+     *
+     * @param name the field name.
+     * @return this generator.
+     * @throws NullPointerException if the specified {@code name} is
+     *                              {@code null}.
+     * @throws jakarta.json.stream.JsonGenerationException if this method is
+     *                                                     not called within an
+     *                                                     object context.
+     * @see #writeKey(SerializedName)
+     * @since 2.1
+     */
+    default JsonGenerator writeStartArray(SerializedName name) {
+        writeKey(name);
+        writeStartArray();
+        return this;
+    }
+
+    /**
+     * Writes a JSON value as the value of a field name prepared in advance.
+     *
+     * @param name  the field name.
+     * @param value the value to write.
+     * @return this generator.
+     * @throws NullPointerException if the specified {@code name} or {@code value} is
+     *                              {@code null}.
+     * @throws jakarta.json.stream.JsonGenerationException if this method is
+     *                                                     not called within an
+     *                                                     object context.
+     * @see #writeKey(SerializedName)
+     * @since 2.1
+     */
+    default JsonGenerator write(SerializedName name, JsonValue value) {
+        writeKey(name);
+        write(value);
+        return this;
+    }
+
+    /**
+     * Writes a string as the value of a field name prepared in advance.
+     *
+     * @param name  the field name.
+     * @param value the value to write.
+     * @return this generator.
+     * @throws NullPointerException if the specified {@code name} or {@code value} is
+     *                              {@code null}.
+     * @throws jakarta.json.stream.JsonGenerationException if this method is
+     *                                                     not called within an
+     *                                                     object context.
+     * @see #writeKey(SerializedName)
+     * @since 2.1
+     */
+    default JsonGenerator write(SerializedName name, String value) {
+        writeKey(name);
+        write(value);
+        return this;
+    }
+
+    /**
+     * Writes a number as the value of a field name prepared in advance.
+     *
+     * @param name  the field name.
+     * @param value the value to write.
+     * @return this generator.
+     * @throws NullPointerException if the specified {@code name} or {@code value} is
+     *                              {@code null}.
+     * @throws jakarta.json.stream.JsonGenerationException if this method is
+     *                                                     not called within an
+     *                                                     object context.
+     * @see #writeKey(SerializedName)
+     * @since 2.1
+     */
+    default JsonGenerator write(SerializedName name, BigInteger value) {
+        writeKey(name);
+        write(value);
+        return this;
+    }
+
+    /**
+     * Writes a number as the value of a field name prepared in advance.
+     *
+     * @param name  the field name.
+     * @param value the value to write.
+     * @return this generator.
+     * @throws NullPointerException if the specified {@code name} or {@code value} is
+     *                              {@code null}.
+     * @throws jakarta.json.stream.JsonGenerationException if this method is
+     *                                                     not called within an
+     *                                                     object context.
+     * @see #writeKey(SerializedName)
+     * @since 2.1
+     */
+    default JsonGenerator write(SerializedName name, BigDecimal value) {
+        writeKey(name);
+        write(value);
+        return this;
+    }
+
+    /**
+     * Writes a number as the value of a field name prepared in advance.
+     *
+     * @param name  the field name.
+     * @param value the value to write.
+     * @return this generator.
+     * @throws NullPointerException if the specified {@code name} is
+     *                              {@code null}.
+     * @throws jakarta.json.stream.JsonGenerationException if this method is
+     *                                                     not called within an
+     *                                                     object context.
+     * @see #writeKey(SerializedName)
+     * @since 2.1
+     */
+    default JsonGenerator write(SerializedName name, int value) {
+        writeKey(name);
+        write(value);
+        return this;
+    }
+
+    /**
+     * Writes a number as the value of a field name prepared in advance.
+     *
+     * @param name  the field name.
+     * @param value the value to write.
+     * @return this generator.
+     * @throws NullPointerException if the specified {@code name} is
+     *                              {@code null}.
+     * @throws jakarta.json.stream.JsonGenerationException if this method is
+     *                                                     not called within an
+     *                                                     object context.
+     * @see #writeKey(SerializedName)
+     * @since 2.1
+     */
+    default JsonGenerator write(SerializedName name, long value) {
+        writeKey(name);
+        write(value);
+        return this;
+    }
+
+    /**
+     * Writes a number as the value of a field name prepared in advance.
+     *
+     * @param name  the field name.
+     * @param value the value to write.
+     * @return this generator.
+     * @throws NullPointerException if the specified {@code name} is
+     *                              {@code null}.
+     * @throws NumberFormatException if the value is NaN or infinity.
+     * @throws jakarta.json.stream.JsonGenerationException if this method is
+     *                                                     not called within an
+     *                                                     object context.
+     * @see #writeKey(SerializedName)
+     * @since 2.1
+     */
+    default JsonGenerator write(SerializedName name, double value) {
+        writeKey(name);
+        write(value);
+        return this;
+    }
+
+    /**
+     * Writes a boolean as the value of a field name prepared in advance.
+     *
+     * @param name  the field name.
+     * @param value the value to write.
+     * @return this generator.
+     * @throws NullPointerException if the specified {@code name} is
+     *                              {@code null}.
+     * @throws jakarta.json.stream.JsonGenerationException if this method is
+     *                                                     not called within an
+     *                                                     object context.
+     * @see #writeKey(SerializedName)
+     * @since 2.1
+     */
+    default JsonGenerator write(SerializedName name, boolean value) {
+        writeKey(name);
+        write(value);
+        return this;
+    }
+
+    /**
+     * Writes a JSON null as the value of a field name prepared in advance.
+     *
+     * @param name the field name.
+     * @return this generator.
+     * @throws NullPointerException if the specified {@code name} is
+     *                              {@code null}.
+     * @throws jakarta.json.stream.JsonGenerationException if this method is
+     *                                                     not called within an
+     *                                                     object context.
+     * @see #writeKey(SerializedName)
+     * @since 2.1
+     */
+    default JsonGenerator writeNull(SerializedName name) {
+        writeKey(name);
+        writeNull();
+        return this;
+    }
+
+    /**
+     * Writes the current event of the specified parser. A key name is written
+     * as the field name, a string or number as the value, and the start or
+     * end of a structure as the corresponding start or end. The generators
+     * created by Joy may copy the characters of a string or number from the
+     * parsers created by Joy without building a string or decimal number.
+     *
+     * @param parser the parser positioned at the event to write.
+     * @return this generator.
+     * @throws NullPointerException  if the specified {@code parser} is
+     *                               {@code null}.
+     * @throws IllegalStateException if {@link JsonParser#next()} was not
+     *                               called on the parser yet.
+     * @throws jakarta.json.stream.JsonGenerationException if the event is
+     *                                                     not allowed in the
+     *                                                     current context.
+     * @since 2.1
+     */
+    default JsonGenerator copyCurrentEvent(JsonParser parser) {
+        if (parser == null) {
+            throw new NullPointerException("parser must not be null.");
+        }
+        JsonParser.Event event = parser.currentEvent();
+        if (event == null) {
+            throw new IllegalStateException("The parser has no current event.");
+        }
+        switch (event) {
+        case START_ARRAY:
+            writeStartArray();
+            break;
+        case START_OBJECT:
+            writeStartObject();
+            break;
+        case KEY_NAME:
+            writeKey(parser.getString());
+            break;
+        case VALUE_STRING:
+            write(parser.getString());
+            break;
+        case VALUE_NUMBER:
+            write(parser.getBigDecimal());
+            break;
+        case VALUE_TRUE:
+            write(true);
+            break;
+        case VALUE_FALSE:
+            write(false);
+            break;
+        case VALUE_NULL:
+            writeNull();
+            break;
+        default:
+            writeEnd();
+            break;
+        }
+        return this;
+    }
+
+    /**
+     * Writes the value at the current event of the specified parser,
+     * including all of its contents. If the current event is
+     * {@link JsonParser.Event#KEY_NAME}, the key name and the following value
+     * are written. If the current event is the start of an array or object,
+     * the parser is advanced to the matching end. Otherwise this method is
+     * equivalent to {@link #copyCurrentEvent(JsonParser)}.
+     *
+     * @param parser the parser positioned at the value to write.
+     * @return this generator.
+     * @throws NullPointerException  if the specified {@code parser} is
+     *                               {@code null}.
+     * @throws IllegalStateException if {@link JsonParser#next()} was not
+     *                               called on the parser yet.
+     * @throws jakarta.json.stream.JsonGenerationException if the value is
+     *                                                     not allowed in the
+     *                                                     current context.
+     * @throws jakarta.json.stream.JsonParsingException if the parser
+     *                                                  encounters invalid JSON.
+     * @since 2.1
+     */
+    default JsonGenerator copyStructure(JsonParser parser) {
+        copyCurrentEvent(parser);
+        JsonParser.Event event = parser.currentEvent();
+        if (event == JsonParser.Event.KEY_NAME) {
+            event = parser.next();
+            copyCurrentEvent(parser);
+        }
+        if (event == JsonParser.Event.START_ARRAY || event == JsonParser.Event.START_OBJECT) {
+            int depth = 1;
+            while (depth > 0) {
+                event = parser.next();
+                copyCurrentEvent(parser);
+                if (event == JsonParser.Event.START_ARRAY || event == JsonParser.Event.START_OBJECT) {
+                    depth++;
+                } else if (event == JsonParser.Event.END_ARRAY || event == JsonParser.Event.END_OBJECT) {
+                    depth--;
+                }
+            }
+        }
+        return this;
+    }
 }
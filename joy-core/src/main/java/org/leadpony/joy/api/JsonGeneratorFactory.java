@@ -0,0 +1,92 @@
+/*
+ * Copyright 2019-2020 the Joy Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.joy.api;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * An extended {@link JsonGeneratorFactory}.
+ *
+ * <pre>
+ * <code>
+ * JsonGeneratorFactory factory = (JsonGeneratorFactory) Json.createGeneratorFactory(null);
+ * SerializedName name = factory.serializedName("name");
+ * </code>
+ * </pre>
+ *
+ * @author leadpony
+ * @since 2.1
+ */
+public interface JsonGeneratorFactory extends jakarta.json.stream.JsonGeneratorFactory {
+
+    /**
+     * Creates a field name escaped and quoted in advance, which can be written
+     * by the generators without escaping it again.
+     *
+     * @param name the field name.
+     * @return the newly created field name.
+     * @throws NullPointerException if the specified {@code name} is
+     *                              {@code null}.
+     */
+    SerializedName serializedName(String name);
+
+    /**
+     * Creates a JSON generator which writes JSON in UTF-8 into the specified
+     * byte buffer, starting at its position. When the buffer is full, the
+     * specified handler is called to drain it or to replace it with another
+     * buffer. Closing the generator writes the rest of the output into the
+     * buffer, and the position of the last buffer is at the end of the
+     * output.
+     *
+     * @param buffer  the byte buffer to which JSON is written.
+     * @param handler the handler called when the buffer is full.
+     * @return the newly created JSON generator.
+     * @throws NullPointerException if any of the specified arguments is
+     *                              {@code null}.
+     * @see BufferOverflowHandler
+     */
+    JsonGenerator createGenerator(ByteBuffer buffer, BufferOverflowHandler handler);
+
+    /**
+     * Creates a JSON generator which writes JSON in UTF-8 to the specified
+     * channel. The channel must be in blocking mode, and is closed when the
+     * generator is closed.
+     *
+     * @param channel the channel to which JSON is written.
+     * @return the newly created JSON generator.
+     * @throws NullPointerException if the specified {@code channel} is
+     *                              {@code null}.
+     */
+    JsonGenerator createGenerator(WritableByteChannel channel);
+
+    /**
+     * Creates a JSON generator which can be reset to write to another output.
+     * The generator is configured in the same way as the other generators
+     * created by this factory, and keeps its buffers while it is reused.
+     *
+     * <pre>
+     * <code>
+     * ReusableJsonGenerator generator = factory.createReusableGenerator();
+     * generator.reset(out);
+     * </code>
+     * </pre>
+     *
+     * @return the newly created JSON generator, which has no output.
+     * @see ReusableJsonGenerator
+     */
+    ReusableJsonGenerator createReusableGenerator();
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2019-2020 the Joy Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.joy.api;
+
+import jakarta.json.JsonArray;
+
+/**
+ * A JSON array of numbers which keeps the numbers as primitive values. The
+ * readers and the parsers created by Joy return this kind of array for an
+ * array of integers fitting in {@code long}, or an array of numbers with a
+ * fraction or an exponent which are exactly the decimal representation of
+ * {@code double} values, written with 15 significant digits at most. The
+ * items of the array are created as {@link jakarta.json.JsonNumber} only when
+ * they are accessed, and are equal to the ones which would be parsed
+ * otherwise.
+ *
+ * <pre>
+ * <code>
+ * JsonArray array = reader.readArray();
+ * if (array instanceof JsonNumberArray) {
+ *     long[] values = ((JsonNumberArray) array).toLongArray();
+ * }
+ * </code>
+ * </pre>
+ *
+ * @author leadpony
+ * @since 2.1
+ */
+public interface JsonNumberArray extends JsonArray {
+
+    /**
+     * Returns the numbers in this array as an array of ints. Each number is
+     * converted in the same way as {@link jakarta.json.JsonNumber#intValue()}.
+     *
+     * @return the newly created array of the numbers.
+     */
+    int[] toIntArray();
+
+    /**
+     * Returns the numbers in this array as an array of longs. Each number is
+     * converted in the same way as {@link jakarta.json.JsonNumber#longValue()}.
+     *
+     * @return the newly created array of the numbers.
+     */
+    long[] toLongArray();
+
+    /**
+     * Returns the numbers in this array as an array of doubles. Each number is
+     * converted in the same way as
+     * {@link jakarta.json.JsonNumber#doubleValue()}.
+     *
+     * @return the newly created array of the numbers.
+     */
+    double[] toDoubleArray();
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2019-2020 the Joy Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.joy.api;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.CharBuffer;
+
+import jakarta.json.JsonException;
+
+/**
+ * An extended {@link JsonParser}.
+ *
+ * <p>
+ * All parsers created by Joy implement this interface.
+ * </p>
+ *
+ * @author leadpony
+ * @since 2.1
+ */
+public interface JsonParser extends jakarta.json.stream.JsonParser {
+
+    /**
+     * Configuration property to share the key names among the parsers created
+     * by the same factory. The value of the property must be an integer which
+     * specifies the maximum number of key names to be kept. The key names
+     * longer than 64 characters are not kept. By default the key names are
+     * not shared.
+     *
+     * <pre>
+     * <code>
+     * Map&lt;String, Object&gt; config = new HashMap&lt;&gt;();
+     * config.put(JsonParser.KEY_NAME_CACHE_SIZE, 256);
+     * JsonParserFactory factory = Json.createParserFactory(config);
+     * </code>
+     * </pre>
+     *
+     * @since 2.1
+     */
+    String KEY_NAME_CACHE_SIZE = "org.leadpony.joy.api.JsonParser.keyNameCacheSize";
+
+    /**
+     * Configuration property to validate the values skipped by
+     * {@link #skipArray()} and {@link #skipObject()}. The value of the
+     * property must be a boolean. By default the parsers only match the
+     * brackets outside of strings while skipping, and malformed values in the
+     * skipped part are not reported.
+     *
+     * <pre>
+     * <code>
+     * Map&lt;String, Object&gt; config = new HashMap&lt;&gt;();
+     * config.put(JsonParser.STRICT_SKIP, Boolean.TRUE);
+     * JsonParserFactory factory = Json.createParserFactory(config);
+     * </code>
+     * </pre>
+     *
+     * @since 2.1
+     */
+    String STRICT_SKIP = "org.leadpony.joy.api.JsonParser.strictSkip";
+
+    /**
+     * Configuration property to count the lines only when the location is
+     * needed. The value of the property must be a boolean. The parsers
+     * created with this property do not track the line breaks while skipping
+     * spaces, and find them later when {@link #getLocation()} is called or an
+     * error is reported. The locations are the same, but calling
+     * {@link #getLocation()} frequently will be slower. By default the lines
+     * are tracked while parsing.
+     *
+     * <pre>
+     * <code>
+     * Map&lt;String, Object&gt; config = new HashMap&lt;&gt;();
+     * config.put(JsonParser.LAZY_LOCATION, Boolean.TRUE);
+     * JsonParserFactory factory = Json.createParserFactory(config);
+     * </code>
+     * </pre>
+     *
+     * @since 2.1
+     */
+    String LAZY_LOCATION = "org.leadpony.joy.api.JsonParser.lazyLocation";
+
+    /**
+     * Configuration property to limit the length of a string value kept in the
+     * read buffer. The value of the property must be an integer which specifies
+     * the maximum number of characters, or bytes for UTF-8 input. A longer
+     * string value is not read into the buffer as a whole, and the rest of it
+     * is read from the input while the reader returned by
+     * {@link #getValueReader()} is read. The rest not read is skipped when the
+     * parser advances to the next state, where the errors in it are reported.
+     * By default the length of string values is not limited.
+     *
+     * <pre>
+     * <code>
+     * Map&lt;String, Object&gt; config = new HashMap&lt;&gt;();
+     * config.put(JsonParser.MAX_BUFFERED_STRING_LENGTH, 65536);
+     * JsonParserFactory factory = Json.createParserFactory(config);
+     * </code>
+     * </pre>
+     *
+     * @since 2.1
+     */
+    String MAX_BUFFERED_STRING_LENGTH = "org.leadpony.joy.api.JsonParser.maxBufferedStringLength";
+
+    /**
+     * Returns the event for the current parser state.
+     *
+     * @return the current event, or {@code null} if {@link #next()} has not
+     *         been called yet.
+     * @since 2.1
+     */
+    Event currentEvent();
+
+    /**
+     * Returns a JSON number as a double. This method returns the same value as
+     * {@code getBigDecimal().doubleValue()}, but may be faster.
+     * This method can only be called when the parser state is
+     * {@link Event#VALUE_NUMBER}.
+     *
+     * @return a double for a JSON number.
+     * @throws IllegalStateException when the parser state is not
+     *                               {@code VALUE_NUMBER}.
+     */
+    default double getDouble() {
+        return getBigDecimal().doubleValue();
+    }
+
+    /**
+     * Returns a reader of the current string value. This method can only be
+     * called when the parser state is {@link Event#KEY_NAME},
+     * {@link Event#VALUE_STRING} or {@link Event#VALUE_NUMBER}. A string value
+     * longer than {@link #MAX_BUFFERED_STRING_LENGTH} is read from the input
+     * while the returned reader is read, and the reader can be used only until
+     * the parser advances to the next state. In that case this method can be
+     * called only once for the value, and {@link #getString()} cannot be
+     * called after this method.
+     *
+     * @return the reader of the current string value.
+     * @throws IllegalStateException when the parser state is not one of the
+     *                               states above, or the string value was
+     *                               already read.
+     */
+    default Reader getValueReader() {
+        return new StringReader(getString());
+    }
+
+    /**
+     * Appends the current string value to the specified target. This method
+     * is equivalent to reading the reader returned by
+     * {@link #getValueReader()} and appending the characters in chunks, so
+     * that a long string value is not built as a whole.
+     *
+     * @param target the target to which the characters will be appended.
+     * @throws NullPointerException  if the specified {@code target} is
+     *                               {@code null}.
+     * @throws IllegalStateException when the parser state is not
+     *                               {@link Event#KEY_NAME},
+     *                               {@link Event#VALUE_STRING} or
+     *                               {@link Event#VALUE_NUMBER}.
+     * @throws JsonException if an I/O error occurs.
+     * @throws jakarta.json.stream.JsonParsingException if the parser
+     *                                                  encounters invalid JSON.
+     */
+    default void getValueChars(Appendable target) {
+        if (target == null) {
+            throw new NullPointerException("target must not be null.");
+        }
+        Reader reader = getValueReader();
+        char[] chunk = new char[1024];
+        try {
+            int charsRead;
+            while ((charsRead = reader.read(chunk)) >= 0) {
+                if (target instanceof Writer) {
+                    ((Writer) target).write(chunk, 0, charsRead);
+                } else {
+                    target.append(CharBuffer.wrap(chunk, 0, charsRead));
+                }
+            }
+        } catch (IOException e) {
+            throw new JsonException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Advances the parser to the next state and returns the index of the key
+     * name in the specified set of field names. This method is equivalent to
+     * calling {@link #next()} followed by {@code fields.indexOf(getString())}
+     * when the next state is {@link Event#KEY_NAME}, but may match the key
+     * name without creating a string.
+     *
+     * @param fields the set of field names to match.
+     * @return the index of the key name in {@code fields},
+     *         {@link FieldSet#NOT_FOUND} if the key name is not in
+     *         {@code fields}, or {@link FieldSet#NO_FIELD} if the next state
+     *         is not {@link Event#KEY_NAME}.
+     * @throws NullPointerException if the specified {@code fields} is
+     *                              {@code null}.
+     * @throws java.util.NoSuchElementException if there are no more parsing
+     *                                          states.
+     * @throws jakarta.json.JsonException if an I/O error occurs.
+     * @throws jakarta.json.stream.JsonParsingException if the parser
+     *                                                  encounters invalid JSON.
+     */
+    default int nextFieldIndex(FieldSet fields) {
+        if (fields == null) {
+            throw new NullPointerException("fields must not be null.");
+        }
+        if (next() != Event.KEY_NAME) {
+            return FieldSet.NO_FIELD;
+        }
+        return fields.indexOf(getString());
+    }
+}
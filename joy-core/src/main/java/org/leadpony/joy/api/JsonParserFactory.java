@@ -0,0 +1,184 @@
+/*
+ * Copyright 2019-2020 the Joy Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.joy.api;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+import jakarta.json.stream.JsonParser;
+
+/**
+ * An extended {@link JsonParserFactory}.
+ *
+ * <pre>
+ * <code>
+ * JsonParserFactory factory = (JsonParserFactory) Json.createParserFactory(null);
+ * JsonParser parser = factory.createParser(bytes, 0, bytes.length);
+ * </code>
+ * </pre>
+ *
+ * @author leadpony
+ * @since 2.1
+ */
+public interface JsonParserFactory extends jakarta.json.stream.JsonParserFactory {
+
+    /**
+     * Creates a JSON parser from the specified byte array. The character
+     * encoding of the input is determined as described in RFC 7159. The
+     * parser reads the bytes in place, so they must not be modified until the
+     * parser is closed.
+     *
+     * @param bytes  the byte array containing the JSON text.
+     * @param offset the offset of the first byte to parse.
+     * @param length the number of bytes to parse.
+     * @return the newly created JSON parser.
+     * @throws NullPointerException      if the specified {@code bytes} is
+     *                                   {@code null}.
+     * @throws IndexOutOfBoundsException if {@code offset} or {@code length} is
+     *                                   out of the bounds of the array.
+     */
+    JsonParser createParser(byte[] bytes, int offset, int length);
+
+    /**
+     * Creates a JSON parser from the remaining bytes of the specified byte
+     * buffer. The character encoding of the input is determined as described
+     * in RFC 7159. The position of the buffer is not changed by the parser,
+     * and the content of the buffer must not be modified until the parser is
+     * closed.
+     *
+     * @param buffer the byte buffer containing the JSON text.
+     * @return the newly created JSON parser.
+     * @throws NullPointerException if the specified {@code buffer} is
+     *                              {@code null}.
+     */
+    JsonParser createParser(ByteBuffer buffer);
+
+    /**
+     * Creates a JSON parser from the specified character sequence.
+     *
+     * @param chars the character sequence containing the JSON text.
+     * @return the newly created JSON parser.
+     * @throws NullPointerException if the specified {@code chars} is
+     *                              {@code null}.
+     */
+    JsonParser createParser(CharSequence chars);
+
+    /**
+     * Creates a JSON parser which reads the specified file through
+     * memory-mapped windows. The character encoding of the input is
+     * determined as described in RFC 7159. Files larger than 2 GB can be
+     * parsed. The file is closed when the parser is closed.
+     *
+     * @param path the path to the file containing the JSON text.
+     * @return the newly created JSON parser.
+     * @throws NullPointerException if the specified {@code path} is
+     *                              {@code null}.
+     * @throws jakarta.json.JsonException if an I/O error occurred while
+     *                                    opening the file.
+     */
+    JsonParser createParser(Path path);
+
+    /**
+     * Creates a JSON parser which does not block for the input. The input
+     * must be fed to the parser as UTF-8 encoded bytes.
+     *
+     * <pre>
+     * <code>
+     * JsonFeedParser parser = factory.createFeedParser();
+     * parser.feed(chunk);
+     * </code>
+     * </pre>
+     *
+     * @return the newly created JSON parser.
+     * @see JsonFeedParser
+     */
+    JsonFeedParser createFeedParser();
+
+    /**
+     * Creates a JSON parser which can be reset to parse another input. The
+     * parser keeps its buffers while it is reused, which makes parsing many
+     * small documents faster.
+     *
+     * <pre>
+     * <code>
+     * ReusableJsonParser parser = factory.createReusableParser();
+     * parser.reset(message, 0, message.length);
+     * </code>
+     * </pre>
+     *
+     * @return the newly created JSON parser, which has an empty input.
+     * @see ReusableJsonParser
+     */
+    ReusableJsonParser createReusableParser();
+
+    /**
+     * Creates a JSON parser which emits only the values referred by the
+     * specified JSON pointers. The selected values are emitted together with
+     * the arrays, objects and key names enclosing them, so the events form a
+     * well-formed JSON document. All other values are skipped without
+     * producing events. The character encoding of the input is determined as
+     * described in RFC 7159.
+     *
+     * <pre>
+     * <code>
+     * JsonParser parser = factory.createFilteredParser(in, "/user/id", "/items/0");
+     * </code>
+     * </pre>
+     *
+     * @param in       the byte stream containing the JSON text.
+     * @param pointers the JSON pointers referring to the values to emit.
+     * @return the newly created JSON parser.
+     * @throws NullPointerException if the specified {@code in},
+     *                              {@code pointers} or any of the pointers is
+     *                              {@code null}.
+     * @throws jakarta.json.JsonException if any of the pointers is not a valid
+     *                                    JSON pointer.
+     */
+    JsonParser createFilteredParser(InputStream in, String... pointers);
+
+    /**
+     * Creates a JSON parser which emits only the values referred by the
+     * specified JSON pointers. The selected values are emitted together with
+     * the arrays, objects and key names enclosing them, so the events form a
+     * well-formed JSON document. All other values are skipped without
+     * producing events.
+     *
+     * @param reader   the character stream containing the JSON text.
+     * @param pointers the JSON pointers referring to the values to emit.
+     * @return the newly created JSON parser.
+     * @throws NullPointerException if the specified {@code reader},
+     *                              {@code pointers} or any of the pointers is
+     *                              {@code null}.
+     * @throws jakarta.json.JsonException if any of the pointers is not a valid
+     *                                    JSON pointer.
+     */
+    JsonParser createFilteredParser(Reader reader, String... pointers);
+
+    /**
+     * Creates a set of field names which can be matched by
+     * {@link org.leadpony.joy.api.JsonParser#nextFieldIndex(FieldSet)}. The
+     * index of each name is its position in the arguments. If the same name
+     * appears more than once, the first position is used.
+     *
+     * @param names the field names.
+     * @return the newly created set of field names.
+     * @throws NullPointerException if the specified {@code names} or any of
+     *                              the names is {@code null}.
+     */
+    FieldSet fieldSet(String... names);
+}
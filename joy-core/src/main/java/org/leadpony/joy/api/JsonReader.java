@@ -0,0 +1,77 @@
+/*
+ * Copyright 2019-2020 the Joy Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.joy.api;
+
+/**
+ * An extended {@link JsonReader}.
+ *
+ * <p>
+ * All readers created by Joy implement this interface.
+ * </p>
+ *
+ * @author leadpony
+ * @since 2.1
+ */
+public interface JsonReader extends jakarta.json.JsonReader {
+
+    /**
+     * Configuration property to build the values lazily. The value of the
+     * property must be a boolean. The readers created with this property read
+     * the whole input into memory and validate it, but keep only the
+     * positions of the values in the input. The arrays, the objects, the
+     * strings and the numbers are built only when they are accessed, and are
+     * kept once built. Only the names of the properties are built when an
+     * object is accessed. The values are equal to the ones which would be
+     * read otherwise, and the input is retained while any of them is
+     * reachable. The input in UTF-16 or UTF-32 without the charset specified
+     * is read as usual. By default the values are built while reading.
+     *
+     * <pre>
+     * <code>
+     * Map&lt;String, Object&gt; config = new HashMap&lt;&gt;();
+     * config.put(JsonReader.LAZY_VALUES, Boolean.TRUE);
+     * JsonReaderFactory factory = Json.createReaderFactory(config);
+     * </code>
+     * </pre>
+     *
+     * @since 2.1
+     */
+    String LAZY_VALUES = "org.leadpony.joy.api.JsonReader.lazyValues";
+
+    /**
+     * Configuration property to keep the values in a compact form. The value
+     * of the property must be a boolean. The readers created with this
+     * property keep the whole value read in two flat arrays, one for the
+     * structure and the integers, and one for the characters of the strings
+     * and the other numbers. The arrays, the objects, the strings and the
+     * numbers are created as views each time they are accessed, and are not
+     * kept. The properties of an object are searched linearly. The values are
+     * equal to the ones which would be read otherwise. This property is
+     * ignored if {@link #LAZY_VALUES} is also specified. By default the values
+     * are built as separate objects while reading.
+     *
+     * <pre>
+     * <code>
+     * Map&lt;String, Object&gt; config = new HashMap&lt;&gt;();
+     * config.put(JsonReader.COMPACT_VALUES, Boolean.TRUE);
+     * JsonReaderFactory factory = Json.createReaderFactory(config);
+     * </code>
+     * </pre>
+     *
+     * @since 2.1
+     */
+    String COMPACT_VALUES = "org.leadpony.joy.api.JsonReader.compactValues";
+}
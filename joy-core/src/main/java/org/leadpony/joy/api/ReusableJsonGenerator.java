@@ -0,0 +1,85 @@
+/*
+ * Copyright 2019-2020 the Joy Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.joy.api;
+
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.Charset;
+
+/**
+ * A JSON generator which can be reset to write to another output. The
+ * generator itself, its buffers and the encoder for UTF-8 output streams are
+ * recycled, so writing many small documents does not allocate a generator for
+ * each of them.
+ *
+ * <pre>
+ * <code>
+ * ReusableJsonGenerator generator = factory.createReusableGenerator();
+ * for (Response response : responses) {
+ *     generator.reset(response.getOutputStream());
+ *     generator.writeStartObject()
+ *         ...
+ *         .writeEnd();
+ *     generator.close();
+ * }
+ * </code>
+ * </pre>
+ *
+ * <p>
+ * A newly created generator has no output and must be reset before writing.
+ * Resetting the generator neither flushes nor closes the previous output, and
+ * the characters not yet written to it are discarded, so each output should
+ * be closed or flushed before the generator is reset. Like the other
+ * generators, this generator must not be used by multiple threads at the same
+ * time.
+ * </p>
+ *
+ * @author leadpony
+ * @since 2.1
+ */
+public interface ReusableJsonGenerator extends JsonGenerator {
+
+    /**
+     * Resets this generator to write a new JSON text to the specified
+     * character stream.
+     *
+     * @param writer the character stream to which JSON is written.
+     * @throws NullPointerException if the specified {@code writer} is
+     *                              {@code null}.
+     */
+    void reset(Writer writer);
+
+    /**
+     * Resets this generator to write a new JSON text to the specified byte
+     * stream in UTF-8.
+     *
+     * @param out the byte stream to which JSON is written.
+     * @throws NullPointerException if the specified {@code out} is
+     *                              {@code null}.
+     */
+    void reset(OutputStream out);
+
+    /**
+     * Resets this generator to write a new JSON text to the specified byte
+     * stream in the specified encoding.
+     *
+     * @param out     the byte stream to which JSON is written.
+     * @param charset the character set used to encode the characters.
+     * @throws NullPointerException if any of the specified arguments is
+     *                              {@code null}.
+     */
+    void reset(OutputStream out, Charset charset);
+}
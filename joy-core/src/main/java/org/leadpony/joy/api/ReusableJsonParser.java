@@ -0,0 +1,88 @@
+/*
+ * Copyright 2019-2020 the Joy Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.joy.api;
+
+import java.io.InputStream;
+import java.io.Reader;
+
+/**
+ * A JSON parser which can be reset to parse another input. The buffers and
+ * the other states of the parser are recycled, so parsing many small
+ * documents does not allocate a parser for each of them.
+ *
+ * <pre>
+ * <code>
+ * ReusableJsonParser parser = factory.createReusableParser();
+ * for (byte[] message : messages) {
+ *     parser.reset(message, 0, message.length);
+ *     while (parser.hasNext()) {
+ *         Event event = parser.next();
+ *         ...
+ *     }
+ * }
+ * </code>
+ * </pre>
+ *
+ * <p>
+ * A newly created parser has an empty input until it is reset. Resetting the
+ * parser does not close the previous input. Like the other parsers, this
+ * parser must not be used by multiple threads at the same time.
+ * </p>
+ *
+ * @author leadpony
+ * @since 2.1
+ */
+public interface ReusableJsonParser extends JsonParser {
+
+    /**
+     * Resets this parser to parse the specified input stream from the start.
+     * The character encoding of the input is determined as described in
+     * RFC 7159.
+     *
+     * @param in the input stream from which JSON is to be read.
+     * @throws NullPointerException if the specified {@code in} is
+     *                              {@code null}.
+     * @throws jakarta.json.JsonException if an I/O error occurred while
+     *                                    detecting the encoding.
+     */
+    void reset(InputStream in);
+
+    /**
+     * Resets this parser to parse the specified character stream from the
+     * start.
+     *
+     * @param reader the character stream from which JSON is to be read.
+     * @throws NullPointerException if the specified {@code reader} is
+     *                              {@code null}.
+     */
+    void reset(Reader reader);
+
+    /**
+     * Resets this parser to parse the specified range of the byte array in
+     * place. The character encoding of the input is determined as described
+     * in RFC 7159. The array must not be modified until the parsing is
+     * completed.
+     *
+     * @param bytes  the byte array containing the JSON text.
+     * @param offset the offset of the first byte to parse.
+     * @param length the number of bytes to parse.
+     * @throws NullPointerException      if the specified {@code bytes} is
+     *                                   {@code null}.
+     * @throws IndexOutOfBoundsException if {@code offset} or {@code length} is
+     *                                   out of the bounds of the array.
+     */
+    void reset(byte[] bytes, int offset, int length);
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2019-2020 the Joy Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.joy.api;
+
+/**
+ * A field name escaped and quoted in advance, which can be written repeatedly
+ * by {@link JsonGenerator#writeKey(SerializedName)} and the other methods
+ * taking this type.
+ *
+ * <pre>
+ * <code>
+ * JsonGeneratorFactory factory = (JsonGeneratorFactory) Json.createGeneratorFactory(null);
+ * SerializedName id = factory.serializedName("id");
+ * JsonGenerator generator = (JsonGenerator) factory.createGenerator(writer);
+ * generator.writeStartObject().write(id, 42).writeEnd();
+ * </code>
+ * </pre>
+ *
+ * <p>
+ * Instances of this type are immutable and can be shared by multiple
+ * generators. The name is escaped in the way configured for the factory which
+ * created it.
+ * </p>
+ *
+ * @author leadpony
+ * @since 2.1
+ * @see JsonGeneratorFactory#serializedName(String)
+ */
+public interface SerializedName {
+
+    /**
+     * Returns the field name before it was escaped.
+     *
+     * @return the field name.
+     */
+    String getName();
+}
@@ -0,0 +1,1402 @@
+/*
+ * Copyright 2019-2020 the Joy Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.joy.core;
+
+import static org.leadpony.joy.core.Preconditions.requireNonNull;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import jakarta.json.JsonNumber;
+import jakarta.json.JsonValue;
+import jakarta.json.stream.JsonLocation;
+import jakarta.json.stream.JsonParsingException;
+
+import org.leadpony.joy.api.FieldSet;
+
+/**
+ * A skeletal implementation of the parsers which tokenize JSON text by
+ * themselves. This class holds the state machine of the parser, while the
+ * subclasses are responsible for scanning their own kind of input buffer.
+ *
+ * @author leadpony
+ */
+abstract class AbstractBasicJsonParser extends AbstractJsonParser {
+
+    private static final int MAX_SIGNIFICANT_DIGITS = 19;
+    private static final int MAX_EXPLICIT_EXPONENT = 100_000_000;
+
+    private static final int STRING_CHUNK_SIZE = 1024;
+
+    private static final int MAX_POWER_OF_TEN = 18;
+    private static final long[] POWERS_OF_TEN = new long[MAX_POWER_OF_TEN + 1];
+
+    static {
+        long power = 1;
+        for (int i = 0; i <= MAX_POWER_OF_TEN; i++) {
+            POWERS_OF_TEN[i] = power;
+            power *= 10;
+        }
+    }
+
+    private boolean alreadyClosed;
+
+    private Event currentEvent;
+
+    // Current state. This never be {@code null}.
+    private State state;
+    // Stack of states except the current state.
+    private final Deque<State> stateStack = new ArrayDeque<>();
+
+    private boolean readyToNext;
+    private boolean strictSkip;
+
+    protected int readStart;
+    protected int readEnd;
+    protected int readPos;
+
+    protected int valueStart;
+    protected int valueEnd;
+
+    protected long lineNumber;
+
+    /*
+     * The stream offset of the first char in the read buffer.
+     */
+    protected long bufferOffset;
+
+    /*
+     * The stream offset of the first char in the current line.
+     */
+    protected long lineOffset;
+
+    /*
+     * The position in the read buffer of the first char in the current line,
+     * or -1 if the stream offset of the line is already resolved.
+     */
+    protected int lineStartPos = -1;
+
+    /*
+     * If true, the line breaks are counted only when the location is needed.
+     */
+    protected boolean lazyLocation;
+
+    /*
+     * The position in the read buffer up to which the line breaks were
+     * counted lazily.
+     */
+    protected int linesCounted;
+
+    /*
+     * Whether the last char counted lazily was a carriage return.
+     */
+    protected boolean countedCarriageReturn;
+
+    /*
+     * Whether the last char counted lazily was a carriage return at the end
+     * of the read buffer, which is not counted yet.
+     */
+    protected boolean pendingCarriageReturn;
+
+    protected boolean hasFracOrExp;
+
+    /*
+     * The number being parsed is represented as
+     * (negative ? -1 : 1) * significand * 10^(exponentAdjust + explicitExponent),
+     * where the significand holds the first 19 significant digits at most.
+     */
+    private boolean negative;
+    private long significand;
+    private int significantDigits;
+    private int fractionDigits;
+    private int exponentAdjust;
+    private int explicitExponent;
+    private boolean exponentOverflow;
+
+    private JsonLocation location = BasicJsonLocation.INITIAL;
+
+    private SymbolTable symbolTable;
+
+    private int maxBufferedStringLength = Integer.MAX_VALUE;
+
+    /*
+     * The head of the string value streamed from the input, or null if the
+     * current value is in the read buffer.
+     */
+    private String streamedHead;
+    private int streamedHeadPos;
+    // Whether the rest of the streamed string remains in the input.
+    private boolean streaming;
+    // The whole streamed string once built.
+    private String streamedString;
+    private boolean valueReaderCreated;
+
+    protected AbstractBasicJsonParser() {
+        this.lineNumber = 1;
+        this.state = State.INITIAL;
+    }
+
+    /* As a JsonParser */
+
+    @Override
+    public boolean hasNext() {
+        if (readyToNext) {
+            return true;
+        }
+        if (streaming) {
+            skipStreamedString();
+        }
+        this.location = null;
+        readyToNext = state.accepts(peekNonSpaceChar(), this);
+        return readyToNext;
+    }
+
+    @Override
+    public Event next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException(Message.thatNoMoreParserEventsWereFound());
+        }
+        this.readyToNext = false;
+        this.location = null;
+        if (streamedHead != null) {
+            this.streamedHead = null;
+            this.streamedString = null;
+            this.valueReaderCreated = false;
+        }
+        int c = peekNonSpaceChar();
+        Event event = state.process(c, this);
+        this.currentEvent = event;
+        return event;
+    }
+
+    @Override
+    public String getString() {
+        Event event = getCurrentEvent();
+        if (event != Event.KEY_NAME
+                && event != Event.VALUE_STRING
+                && event != Event.VALUE_NUMBER) {
+            throw newIllegalStateException("getString()");
+        }
+        if (streamedHead != null) {
+            return getStreamedString();
+        }
+        if (event == Event.KEY_NAME && symbolTable != null) {
+            return buildKeyName(symbolTable);
+        }
+        return buildString();
+    }
+
+    @Override
+    public Reader getValueReader() {
+        Event event = getCurrentEvent();
+        if (event != Event.KEY_NAME
+                && event != Event.VALUE_STRING
+                && event != Event.VALUE_NUMBER) {
+            throw newIllegalStateException("getValueReader()");
+        }
+        if (streamedHead == null || streamedString != null) {
+            return new StringReader(getString());
+        }
+        if (valueReaderCreated || !streaming) {
+            throw newIllegalStateException("getValueReader()");
+        }
+        this.valueReaderCreated = true;
+        return new StreamedStringReader(streamedHead);
+    }
+
+    @Override
+    public int nextFieldIndex(FieldSet fields) {
+        requireNonNull(fields, "fields");
+        if (next() != Event.KEY_NAME) {
+            return FieldSet.NO_FIELD;
+        }
+        if (fields instanceof FieldSetImpl) {
+            return findKeyName((FieldSetImpl) fields);
+        }
+        return fields.indexOf(getString());
+    }
+
+    @Override
+    public Stream<JsonValue> getArrayStream() {
+        if (getCurrentEvent() != Event.START_ARRAY || !hasWholeInput()) {
+            return super.getArrayStream();
+        }
+        return StreamSupport.stream(new ArraySpliterator(this), false);
+    }
+
+    @Override
+    public void skipArray() {
+        if (streaming) {
+            skipStreamedString();
+        }
+        final int depth = strictSkip ? 0 : countContainersToClose(true);
+        if (depth > 0) {
+            skipContainers(depth);
+            this.currentEvent = Event.END_ARRAY;
+        } else {
+            super.skipArray();
+        }
+    }
+
+    @Override
+    public void skipObject() {
+        if (streaming) {
+            skipStreamedString();
+        }
+        final int depth = strictSkip ? 0 : countContainersToClose(false);
+        if (depth > 0) {
+            skipContainers(depth);
+            this.currentEvent = Event.END_OBJECT;
+        } else {
+            super.skipObject();
+        }
+    }
+
+    @Override
+    public boolean isIntegralNumber() {
+        if (getCurrentEvent() != Event.VALUE_NUMBER) {
+            throw newIllegalStateException("isIntegralNumber()");
+        }
+        if (!hasFracOrExp) {
+            return true;
+        } else if (exponentOverflow) {
+            return buildBigDecimal().scale() == 0;
+        }
+        // The same as the scale of BigDecimal
+        return fractionDigits == explicitExponent;
+    }
+
+    @Override
+    public int getInt() {
+        if (getCurrentEvent() != Event.VALUE_NUMBER) {
+            throw newIllegalStateException("getInt()");
+        }
+        return (int) getIntegralPart();
+    }
+
+    @Override
+    public long getLong() {
+        if (getCurrentEvent() != Event.VALUE_NUMBER) {
+            throw newIllegalStateException("getLong()");
+        }
+        return getIntegralPart();
+    }
+
+    @Override
+    public BigDecimal getBigDecimal() {
+        if (getCurrentEvent() != Event.VALUE_NUMBER) {
+            throw newIllegalStateException("getBigDecimal()");
+        }
+        return getNumberAsBigDecimal();
+    }
+
+    @Override
+    public double getDouble() {
+        if (getCurrentEvent() != Event.VALUE_NUMBER) {
+            throw newIllegalStateException("getDouble()");
+        }
+        if (significand == 0) {
+            // BigDecimal has no negative zero.
+            return 0.0;
+        }
+        if (!exponentOverflow) {
+            final int exponent = exponentAdjust + explicitExponent;
+            double value = DoubleParser.toDouble(significand, exponent, negative);
+            if (significantDigits > MAX_SIGNIFICANT_DIGITS && !Double.isNaN(value)) {
+                // The digits were truncated.
+                double upper = DoubleParser.toDouble(significand + 1, exponent, negative);
+                if (value != upper) {
+                    value = Double.NaN;
+                }
+            }
+            if (!Double.isNaN(value)) {
+                return value;
+            }
+        }
+        return buildBigDecimal().doubleValue();
+    }
+
+    @Override
+    public JsonLocation getLocation() {
+        if (location == null) {
+            if (lazyLocation) {
+                countLines(readPos);
+            }
+            location = new BasicJsonLocation(lineNumber, getColumnNumber(), getStreamOffset());
+        }
+        return location;
+    }
+
+    @Override
+    public void close() {
+        if (alreadyClosed) {
+            return;
+        }
+        alreadyClosed = true;
+        closeInput();
+    }
+
+    /* As a DefaultJsonParser */
+
+    @Override
+    public final Event getCurrentEvent() {
+        return currentEvent;
+    }
+
+    @Override
+    public boolean isInCollection() {
+        return !this.stateStack.isEmpty();
+    }
+
+    @Override
+    public boolean isInArray() {
+        Event event = getCurrentEvent();
+        if (event == Event.START_ARRAY || event == Event.END_ARRAY) {
+            return true;
+        }
+        if (this.state.isInArray()) {
+            return true;
+        }
+        return this.stateStack.stream().anyMatch(State::isInArray);
+    }
+
+    @Override
+    public boolean isInObject() {
+        Event event = getCurrentEvent();
+        if (event == Event.START_OBJECT || event == Event.END_OBJECT) {
+            return true;
+        }
+        if (this.state.isInObject()) {
+            return true;
+        }
+        return this.stateStack.stream().anyMatch(State::isInObject);
+    }
+
+    /* As a AbstractBasicJsonParser */
+
+    /**
+     * Returns the next non-space character without consuming it.
+     *
+     * @return the next non-space character, or -1 if the end of input was reached.
+     */
+    protected abstract int peekNonSpaceChar();
+
+    /**
+     * Returns the next character without consuming it.
+     *
+     * @return the next character, or -1 if the end of input was reached.
+     */
+    protected abstract int peekChar();
+
+    /**
+     * Returns the next character of the number being parsed without consuming
+     * it. The characters of the number must be retained in the buffer.
+     *
+     * @return the next character, or -1 if the end of input was reached.
+     */
+    protected abstract int peekNumberChar();
+
+    /**
+     * Parses a string starting at the current position. If the string is longer
+     * than the specified length and does not fit in the read buffer, the
+     * subclass may call {@link #startStreamingString(String)} and leave the
+     * rest of the string in the input.
+     *
+     * @param maxLength the maximum length of the string to keep in the read
+     *                  buffer.
+     */
+    protected abstract void parseString(int maxLength);
+
+    /**
+     * Reads the characters of the string being streamed from the input.
+     *
+     * @param chars  the array to which the characters will be written.
+     * @param offset the offset of the first character to write.
+     * @param length the maximum number of characters to read, at least 1.
+     * @return the number of characters read, or -1 if the closing quotation
+     *         mark was consumed.
+     * @throws JsonParsingException if the string is malformed.
+     */
+    protected abstract int readStringChars(char[] chars, int offset, int length);
+
+    /**
+     * Builds the current value as a string.
+     *
+     * @return the built string.
+     */
+    protected abstract String buildString();
+
+    /**
+     * Builds a string value from the specified range of the read buffer,
+     * which was the range of the value when it was parsed. This method can be
+     * called after the parser advanced, only if {@link #hasWholeInput()}
+     * returns {@code true}. The read buffer is not shared by this method.
+     *
+     * @param start    the value start when the value was parsed.
+     * @param end      the value end when the value was parsed.
+     * @param unescape {@code true} if the escape sequences are resolved, as
+     *                 {@link #hasRawEscape()} returned.
+     * @return the built string.
+     */
+    protected abstract String buildString(int start, int end, boolean unescape);
+
+    /**
+     * Copies the characters of the current value to the specified array. The
+     * string values are copied without the quotation marks and with the escape
+     * sequences resolved. This method can be called only if the current event
+     * is {@link Event#KEY_NAME}, {@link Event#VALUE_STRING} or
+     * {@link Event#VALUE_NUMBER} and the string is not streamed.
+     *
+     * @param chars  the array which has room for at least
+     *               {@code valueEnd - valueStart} characters after the offset.
+     * @param offset the offset in the array.
+     * @return the number of the characters copied.
+     */
+    protected abstract int copyValueChars(char[] chars, int offset);
+
+    /**
+     * Checks if the current string value has escape sequences which are kept
+     * as they are in the read buffer.
+     *
+     * @return {@code true} if the escape sequences are not resolved yet.
+     */
+    protected boolean hasRawEscape() {
+        return false;
+    }
+
+    /**
+     * Builds the current key name using the specified symbol table.
+     *
+     * @param symbolTable the symbol table to use.
+     * @return the built key name.
+     */
+    protected String buildKeyName(SymbolTable symbolTable) {
+        return buildString();
+    }
+
+    /**
+     * Finds the current key name in the specified set of field names.
+     *
+     * @param fields the set of field names.
+     * @return the index of the key name, or {@link FieldSet#NOT_FOUND}.
+     */
+    protected int findKeyName(FieldSetImpl fields) {
+        return fields.indexOf(buildString());
+    }
+
+    /**
+     * Skips the input until the specified number of containers are closed.
+     * Only the brackets outside of strings are counted and the skipped
+     * values are not validated.
+     *
+     * @param depth the number of the containers to close, at least 1.
+     * @param items the positions of the items following the commas in the
+     *              outermost container will be added to, may be {@code null}.
+     * @throws JsonParsingException if the end of input was reached before
+     *                              the containers were closed.
+     */
+    protected abstract void skipRawContainers(int depth, ArrayItems items);
+
+    /**
+     * Checks if the whole input is in the read buffer, so that any part of it
+     * can be parsed by another parser.
+     *
+     * @return {@code true} if the whole input is in the read buffer.
+     */
+    protected abstract boolean hasWholeInput();
+
+    /**
+     * Creates a parser which reads the specified range of the read buffer in
+     * place. This method can be called only if {@link #hasWholeInput()}
+     * returns {@code true}.
+     *
+     * @param start the position of the first character.
+     * @param end   the position after the last character.
+     * @return the newly created parser.
+     */
+    protected abstract AbstractBasicJsonParser createPartialParser(int start, int end);
+
+    /**
+     * Counts the line breaks in the read buffer up to the specified position.
+     * This method is called only if the lines are counted lazily, and before
+     * the counted chars are discarded from the read buffer.
+     *
+     * @param end the position after the last char to count.
+     */
+    protected abstract void countLines(int end);
+
+    /**
+     * Builds the current value as a decimal number.
+     *
+     * @return the built decimal number.
+     */
+    protected abstract BigDecimal buildBigDecimal();
+
+    /**
+     * Appends the current value to the specified builder without creating a
+     * string. The string values are appended without the quotation marks, and
+     * escaped as configured in the builder. This method can be called only if
+     * the current event is {@link Event#KEY_NAME}, {@link Event#VALUE_STRING}
+     * or {@link Event#VALUE_NUMBER} and the string is not streamed.
+     *
+     * @param builder the builder to which the value will be appended.
+     */
+    protected abstract void appendValue(JsonStringBuilder builder);
+
+    /**
+     * Closes the input and releases the buffers.
+     */
+    protected abstract void closeInput();
+
+    /**
+     * Resets the state of this parser to parse a new input. The subclasses
+     * must set up the read buffer before calling this method.
+     */
+    protected void resetState() {
+        this.alreadyClosed = false;
+        this.currentEvent = null;
+        this.state = State.INITIAL;
+        this.stateStack.clear();
+        this.readyToNext = false;
+        this.lineNumber = 1;
+        this.bufferOffset = 0;
+        this.lineOffset = 0;
+        this.lineStartPos = -1;
+        this.linesCounted = readPos;
+        this.countedCarriageReturn = false;
+        this.pendingCarriageReturn = false;
+        this.location = BasicJsonLocation.INITIAL;
+        this.streamedHead = null;
+        this.streamedString = null;
+        this.streaming = false;
+        this.valueReaderCreated = false;
+    }
+
+    /**
+     * Specifies the symbol table for key names.
+     *
+     * @param symbolTable the symbol table to use.
+     */
+    void setSymbolTable(SymbolTable symbolTable) {
+        this.symbolTable = symbolTable;
+    }
+
+    /**
+     * Specifies whether skipArray() and skipObject() validate the skipped
+     * values.
+     *
+     * @param strictSkip {@code true} to validate the skipped values.
+     */
+    void setStrictSkip(boolean strictSkip) {
+        this.strictSkip = strictSkip;
+    }
+
+    /**
+     * Specifies the maximum length of a string value kept in the read buffer.
+     * The parsers reading the whole input in place never stream string values.
+     *
+     * @param maxLength the maximum length of a string value.
+     */
+    void setMaxBufferedStringLength(int maxLength) {
+        this.maxBufferedStringLength = hasWholeInput() ? Integer.MAX_VALUE : maxLength;
+    }
+
+    /**
+     * Specifies whether the line breaks are counted only when the location is
+     * needed.
+     *
+     * @param lazyLocation {@code true} to count the line breaks lazily.
+     */
+    void setLazyLocation(boolean lazyLocation) {
+        this.lazyLocation = lazyLocation;
+        this.linesCounted = readPos;
+    }
+
+    Event processKey() {
+        consumeChar();
+        return processKey(peekNonSpaceChar());
+    }
+
+    Event processKey(int c) {
+        if (c == '"') {
+            parseString(Integer.MAX_VALUE);
+            return Event.KEY_NAME;
+        } else {
+            throw newUnexpectedCharException(c, '"');
+        }
+    }
+
+    Event processValue() {
+        consumeChar();
+        return processValue(peekNonSpaceChar());
+    }
+
+    Event processValue(int c) {
+        switch (c) {
+        case '[':
+            consumeChar();
+            pushState(State.ARRAY_FIRST_ITEM);
+            return Event.START_ARRAY;
+        case '{':
+            consumeChar();
+            pushState(State.OBJECT_FIRST_KEY);
+            return Event.START_OBJECT;
+        case 't':
+            parseTrue();
+            return Event.VALUE_TRUE;
+        case 'f':
+            parseFalse();
+            return Event.VALUE_FALSE;
+        case 'n':
+            parseNull();
+            return Event.VALUE_NULL;
+        case '"':
+            parseString(maxBufferedStringLength);
+            return Event.VALUE_STRING;
+        case '-':
+        case '0':
+        case '1':
+        case '2':
+        case '3':
+        case '4':
+        case '5':
+        case '6':
+        case '7':
+        case '8':
+        case '9':
+            parseNumber(c);
+            return Event.VALUE_NUMBER;
+        case -1:
+            throw newUnexpectedEndException(ParserEventSet.VALUES);
+        default:
+            throw newUnexpectedCharException(c);
+        }
+    }
+
+    /**
+     * Starts to stream the current string value. The rest of the string after
+     * the specified head remains in the input and is read by
+     * {@link #readStringChars(char[], int, int)} on demand.
+     *
+     * @param head the characters of the string already read.
+     */
+    protected final void startStreamingString(String head) {
+        this.streamedHead = head;
+        this.streamedHeadPos = 0;
+        this.streaming = true;
+    }
+
+    /**
+     * Checks if the current string value is streamed from the input.
+     *
+     * @return {@code true} if the current string value is streamed.
+     */
+    protected final boolean hasStreamedString() {
+        return streamedHead != null;
+    }
+
+    protected final void startNewLine(int readPos) {
+        this.readPos = readPos;
+        this.lineNumber++;
+        this.lineStartPos = readPos;
+    }
+
+    /**
+     * Moves the start of the current line without incrementing the line
+     * number, for a line feed which follows a carriage return.
+     *
+     * @param readPos the position of the first char in the line.
+     */
+    protected final void moveLineStart(int readPos) {
+        this.readPos = readPos;
+        this.lineStartPos = readPos;
+    }
+
+    /**
+     * Resolves the stream offset of the current line which starts in the read
+     * buffer. This must be done before the read buffer is rearranged.
+     */
+    protected final void resolveLineOffset() {
+        if (lineStartPos >= 0) {
+            this.lineOffset = getStreamOffset(lineStartPos);
+            this.lineStartPos = -1;
+        }
+    }
+
+    protected final void consumeChar() {
+        readPos++;
+    }
+
+    protected final void consumeChar(char expected) {
+        int c = peekChar();
+        if (c == expected) {
+            readPos++;
+        } else {
+            throw newUnexpectedCharException(c, expected);
+        }
+    }
+
+    /**
+     * Returns the current column number.
+     *
+     * @return the current column number.
+     */
+    private long getColumnNumber() {
+        resolveLineOffset();
+        return 1L + getStreamOffset() - lineOffset;
+    }
+
+    /**
+     * Returns the current stream offset.
+     *
+     * @return the current stream offset.
+     */
+    private long getStreamOffset() {
+        return getStreamOffset(readPos);
+    }
+
+    /**
+     * Returns the stream offset of the specified position in the read buffer.
+     *
+     * @param pos the position in the read buffer.
+     * @return the stream offset of the position.
+     */
+    protected long getStreamOffset(int pos) {
+        return bufferOffset + (pos - readStart);
+    }
+
+    /**
+     * Scans the rest of the current array and moves to the end of it.
+     *
+     * @return the positions of the items found.
+     */
+    ArrayItems scanArrayItems() {
+        ArrayItems items = new ArrayItems();
+        final boolean first = this.state == State.ARRAY_FIRST_ITEM;
+        if (first) {
+            if (lazyLocation) {
+                countLines(readPos);
+            }
+            resolveLineOffset();
+            items.add(readPos, lineNumber, lineOffset, getStreamOffset(readPos));
+        } else {
+            int c = peekNonSpaceChar();
+            if (c != ',' && c != ']') {
+                throw newUnexpectedCharException(c, State.COMMA_OR_SQURE_BRACKET);
+            }
+        }
+        skipContainers(1, items);
+        if (lazyLocation) {
+            // Counts before the items are parsed, which may overwrite the buffer.
+            countLines(readPos);
+        }
+        this.currentEvent = Event.END_ARRAY;
+        items.close(readPos - 1);
+        if (first && items.size() == 1 && createItemParser(items, 0).peekNonSpaceChar() == ']') {
+            items.markBlank();
+        }
+        return items;
+    }
+
+    /**
+     * Parses an item of the array scanned by this parser.
+     *
+     * @param items the positions of the items.
+     * @param index the index of the item to parse.
+     * @return the parsed item.
+     */
+    JsonValue parseArrayItem(ArrayItems items, int index) {
+        AbstractBasicJsonParser parser = createItemParser(items, index);
+        parser.next();
+        JsonValue value = parser.getValue();
+        int c = parser.peekNonSpaceChar();
+        // The item must be followed by the comma or the closing bracket.
+        if (parser.readPos != items.getEnd(index)) {
+            throw parser.newUnexpectedCharException(c, State.COMMA_OR_SQURE_BRACKET);
+        }
+        return value;
+    }
+
+    /**
+     * Creates a parser of an item. The items may be parsed concurrently, so
+     * this parser must be only read here.
+     *
+     * @param items the positions of the items.
+     * @param index the index of the item to parse.
+     * @return the parser of the item.
+     */
+    private AbstractBasicJsonParser createItemParser(ArrayItems items, int index) {
+        // Includes the delimiter to detect a missing item.
+        AbstractBasicJsonParser parser = createPartialParser(items.getStart(index), items.getEnd(index) + 1);
+        parser.lineNumber = items.getLineNumber(index);
+        parser.lineOffset = items.getLineOffset(index);
+        parser.bufferOffset = items.getStreamOffset(index);
+        parser.symbolTable = this.symbolTable;
+        parser.strictSkip = this.strictSkip;
+        parser.setLazyLocation(this.lazyLocation);
+        return parser;
+    }
+
+    private int readStreamedString(char[] chars, int offset, int length) {
+        final String head = this.streamedHead;
+        if (streamedHeadPos < head.length()) {
+            final int count = Math.min(length, head.length() - streamedHeadPos);
+            head.getChars(streamedHeadPos, streamedHeadPos + count, chars, offset);
+            streamedHeadPos += count;
+            return count;
+        }
+        if (!streaming) {
+            return -1;
+        }
+        this.location = null;
+        final int count = readStringChars(chars, offset, length);
+        if (count < 0) {
+            this.streaming = false;
+        }
+        return count;
+    }
+
+    private String getStreamedString() {
+        if (streamedString == null) {
+            if (valueReaderCreated || !streaming) {
+                throw newIllegalStateException("getString()");
+            }
+            StringBuilder builder = new StringBuilder(streamedHead);
+            this.streamedHeadPos = streamedHead.length();
+            char[] chunk = new char[STRING_CHUNK_SIZE];
+            int charsRead;
+            while ((charsRead = readStreamedString(chunk, 0, chunk.length)) >= 0) {
+                builder.append(chunk, 0, charsRead);
+            }
+            this.streamedString = builder.toString();
+        }
+        return streamedString;
+    }
+
+    private void skipStreamedString() {
+        this.streamedHeadPos = streamedHead.length();
+        char[] chunk = new char[STRING_CHUNK_SIZE];
+        while (readStreamedString(chunk, 0, chunk.length) >= 0) {
+            // Discards the characters.
+        }
+    }
+
+    private void skipContainers(int depth) {
+        skipContainers(depth, null);
+    }
+
+    private void skipContainers(int depth, ArrayItems items) {
+        this.readyToNext = false;
+        this.location = null;
+        skipRawContainers(depth, items);
+        for (int i = 0; i < depth; i++) {
+            setState(stateStack.pop());
+        }
+    }
+
+    /**
+     * Counts the containers to close until the innermost array or object.
+     *
+     * @param array {@code true} to find an array, {@code false} to find an
+     *              object.
+     * @return the number of the containers to close, or 0 if there is no such
+     *         container.
+     */
+    private int countContainersToClose(boolean array) {
+        if (!isContainerState(this.state)) {
+            return 0;
+        }
+        int depth = 1;
+        if (array ? this.state.isInArray() : this.state.isInObject()) {
+            return depth;
+        }
+        for (State outer : this.stateStack) {
+            if (!isContainerState(outer)) {
+                break;
+            }
+            depth++;
+            if (array ? outer.isInArray() : outer.isInObject()) {
+                return depth;
+            }
+        }
+        return 0;
+    }
+
+    private static boolean isContainerState(State state) {
+        return state.isInArray() || state.isInObject();
+    }
+
+    private void parseTrue() {
+        // Consumes 't'
+        consumeChar();
+
+        consumeChar('r');
+        consumeChar('u');
+        consumeChar('e');
+    }
+
+    private void parseFalse() {
+        // Consumes 'f'
+        consumeChar();
+
+        consumeChar('a');
+        consumeChar('l');
+        consumeChar('s');
+        consumeChar('e');
+    }
+
+    private void parseNull() {
+        // Consumes 'n'
+        consumeChar();
+
+        consumeChar('u');
+        consumeChar('l');
+        consumeChar('l');
+    }
+
+    /**
+     * Parses a number starting at the current position.
+     *
+     * @param c the first character of the number.
+     */
+    protected void parseNumber(int c) {
+        hasFracOrExp = false;
+        negative = false;
+        significand = 0;
+        significantDigits = 0;
+        fractionDigits = 0;
+        exponentAdjust = 0;
+        explicitExponent = 0;
+        exponentOverflow = false;
+
+        valueStart = readPos;
+
+        // minus (optional)
+        if (c == '-') {
+            negative = true;
+            consumeChar();
+            c = peekNumberChar();
+        }
+
+        // int
+        if (c == '0') {
+            consumeChar();
+            c = peekNumberChar();
+        } else if ('1' <= c && c <= '9') {
+            do {
+                addDigit(c - '0');
+                consumeChar();
+                c = peekNumberChar();
+            } while ('0' <= c && c <= '9');
+        } else {
+            throw newUnexpectedCharException(c);
+        }
+
+        // frac (optional)
+        if (c == '.') {
+            hasFracOrExp = true;
+            consumeChar();
+            c = peekNumberChar();
+            if (c < '0' || '9' < c) {
+                throw newUnexpectedCharException(c);
+            }
+            do {
+                addFractionDigit(c - '0');
+                consumeChar();
+                c = peekNumberChar();
+            } while ('0' <= c && c <= '9');
+        }
+
+        // exp (optional)
+        if (c == 'e' || c == 'E') {
+            hasFracOrExp = true;
+            consumeChar();
+            c = peekNumberChar();
+            boolean negativeExponent = false;
+            if (c == '-' || c == '+') {
+                negativeExponent = (c == '-');
+                consumeChar();
+                c = peekNumberChar();
+            }
+            if (c < '0' || '9' < c) {
+                throw newUnexpectedCharException(c);
+            }
+            int exponent = 0;
+            do {
+                if (exponent < MAX_EXPLICIT_EXPONENT) {
+                    exponent = exponent * 10 + (c - '0');
+                } else {
+                    exponentOverflow = true;
+                }
+                consumeChar();
+                c = peekNumberChar();
+            } while ('0' <= c && c <= '9');
+            explicitExponent = negativeExponent ? -exponent : exponent;
+        }
+
+        valueEnd = readPos;
+    }
+
+    private void addDigit(int digit) {
+        if (significantDigits < MAX_SIGNIFICANT_DIGITS) {
+            significand = significand * 10 + digit;
+            significantDigits++;
+        } else {
+            // Drops the digit.
+            significantDigits++;
+            exponentAdjust++;
+        }
+    }
+
+    private void addFractionDigit(int digit) {
+        if (fractionDigits++ == Integer.MAX_VALUE) {
+            exponentOverflow = true;
+        }
+        if (significand == 0 && digit == 0) {
+            // Leading zero
+            exponentAdjust--;
+        } else if (significantDigits < MAX_SIGNIFICANT_DIGITS) {
+            significand = significand * 10 + digit;
+            significantDigits++;
+            exponentAdjust--;
+        } else {
+            // Drops the digit.
+            significantDigits++;
+        }
+    }
+
+    /**
+     * Checks if the current number is an integer which fits in a long.
+     *
+     * @return {@code true} if the number is an integer in the range of long.
+     */
+    boolean isLongNumber() {
+        if (hasFracOrExp) {
+            return false;
+        }
+        if (significantDigits < MAX_SIGNIFICANT_DIGITS) {
+            return true;
+        } else if (significantDigits == MAX_SIGNIFICANT_DIGITS) {
+            long max = negative ? Long.MIN_VALUE : Long.MAX_VALUE;
+            return Long.compareUnsigned(significand, max) <= 0;
+        }
+        return false;
+    }
+
+    private boolean isIntNumber() {
+        if (hasFracOrExp || significantDigits > 10) {
+            return false;
+        }
+        long value = negative ? -significand : significand;
+        return Integer.MIN_VALUE <= value && value <= Integer.MAX_VALUE;
+    }
+
+    /**
+     * Returns the integral part of the current number, truncated to a long as
+     * {@link BigDecimal#longValue()} does.
+     *
+     * @return the integral part of the number.
+     */
+    private long getIntegralPart() {
+        if (significand == 0 && !exponentOverflow) {
+            return 0;
+        }
+        if (isLongNumber()) {
+            return negative ? -significand : significand;
+        }
+        if (!exponentOverflow && significantDigits <= MAX_SIGNIFICANT_DIGITS) {
+            final int exponent = exponentAdjust + explicitExponent;
+            if (exponent < 0) {
+                if (exponent < -MAX_POWER_OF_TEN) {
+                    return 0;
+                }
+                long value = Long.divideUnsigned(significand, POWERS_OF_TEN[-exponent]);
+                return negative ? -value : value;
+            } else if (exponent <= MAX_POWER_OF_TEN && significand > 0
+                    && significand <= Long.MAX_VALUE / POWERS_OF_TEN[exponent]) {
+                long value = significand * POWERS_OF_TEN[exponent];
+                return negative ? -value : value;
+            }
+        }
+        return buildBigDecimal().longValue();
+    }
+
+    private BigDecimal getNumberAsBigDecimal() {
+        if (significantDigits < MAX_SIGNIFICANT_DIGITS && !exponentOverflow) {
+            long unscaled = negative ? -significand : significand;
+            return BigDecimal.valueOf(unscaled, fractionDigits - explicitExponent);
+        }
+        return buildBigDecimal();
+    }
+
+    @Override
+    boolean addNumber(NumberArrayBuilder numbers) {
+        if (!hasFracOrExp) {
+            return isLongNumber() && numbers.addLong(negative ? -significand : significand);
+        } else if (significantDigits < MAX_SIGNIFICANT_DIGITS && !exponentOverflow) {
+            long unscaled = negative ? -significand : significand;
+            return numbers.addDecimal(unscaled, fractionDigits - explicitExponent);
+        }
+        return false;
+    }
+
+    @Override
+    protected JsonNumber getValueAsNumber() {
+        if (hasFracOrExp) {
+            return JsonValues.valueOf(getNumberAsBigDecimal());
+        } else if (isIntNumber()) {
+            return JsonValues.valueOf((int) getIntegralPart());
+        } else if (isLongNumber()) {
+            return JsonValues.valueOf(getIntegralPart());
+        } else {
+            BigInteger value = new BigInteger(buildString());
+            return JsonValues.valueOf(value);
+        }
+    }
+
+    void pushState(State state) {
+        stateStack.push(this.state);
+        setState(state);
+    }
+
+    /**
+     * Pops current state.
+     */
+    void popState() {
+        // Consumes closing bracket which triggered this method.
+        consumeChar();
+        setState(stateStack.pop());
+    }
+
+    void setState(State state) {
+        this.state = state;
+    }
+
+    JsonParsingException newUnexpectedCharException(int actual) {
+        if (actual < 0) {
+            return newUnexpectedEndException();
+        }
+        JsonLocation location = getLocation();
+        String message = Message.thatUnexpectedCharWasFound(location, (char) actual);
+        return new JsonParsingException(message, location);
+    }
+
+    JsonParsingException newUnexpectedCharException(int actual, Object expected) {
+        if (actual < 0) {
+            return newUnexpectedEndException(expected);
+        }
+        JsonLocation location = getLocation();
+        String message = Message.thatUnexpectedCharWasFoundFor(
+                location, (char) actual, expected);
+        return new JsonParsingException(message, location);
+    }
+
+    JsonParsingException newUnexpectedEndException() {
+        JsonLocation location = getLocation();
+        String message = Message.thatUnexpectedEndOfInputWasReached(location);
+        return new JsonParsingException(message, location);
+    }
+
+    /**
+     * A reader of the string value streamed from the input. The reader reaches
+     * its end when the parser advances to the next state.
+     *
+     * @author leadpony
+     */
+    private final class StreamedStringReader extends Reader {
+
+        private final String head;
+
+        StreamedStringReader(String head) {
+            this.head = head;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) {
+            if (off < 0 || len < 0 || len > cbuf.length - off) {
+                throw new IndexOutOfBoundsException();
+            } else if (len == 0) {
+                return 0;
+            } else if (head != streamedHead) {
+                return -1;
+            }
+            return readStreamedString(cbuf, off, len);
+        }
+
+        @Override
+        public void close() {
+            // Does not close the parser.
+        }
+    }
+
+    /**
+     * Parser state.
+     *
+     * @author leadpony
+     */
+    private enum State {
+        INITIAL() {
+            @Override
+            boolean accepts(int c, AbstractBasicJsonParser parser) {
+                return c >= 0;
+            }
+
+            @Override
+            Event process(int c, AbstractBasicJsonParser parser) {
+                parser.setState(FINISHED);
+                return parser.processValue(c);
+            }
+        },
+
+        FINISHED() {
+            @Override
+            boolean accepts(int c, AbstractBasicJsonParser parser) {
+                if (c >= 0) {
+                    throw parser.newUnexpectedCharException(c);
+                } else {
+                    return false;
+                }
+            }
+
+            @Override
+            Event process(int c, AbstractBasicJsonParser parser) {
+                throw parser.newUnexpectedCharException(c);
+            }
+        },
+
+        ARRAY_FIRST_ITEM() {
+            @Override
+            Event process(int c, AbstractBasicJsonParser parser) {
+                if (c == ']') {
+                    parser.popState();
+                    return Event.END_ARRAY;
+                }
+                parser.setState(ARRAY_ITEM);
+                return parser.processValue(c);
+            }
+
+            @Override
+            boolean isInArray() {
+                return true;
+            }
+        },
+
+        ARRAY_ITEM() {
+            @Override
+            Event process(int c, AbstractBasicJsonParser parser) {
+                if (c == ']') {
+                    parser.popState();
+                    return Event.END_ARRAY;
+                }
+                if (c == ',') {
+                    return parser.processValue();
+                } else {
+                    throw parser.newUnexpectedCharException(c, COMMA_OR_SQURE_BRACKET);
+                }
+            }
+
+            @Override
+            boolean isInArray() {
+                return true;
+            }
+        },
+
+        OBJECT_FIRST_KEY() {
+            @Override
+            Event process(int c, AbstractBasicJsonParser parser) {
+                if (c == '}') {
+                    parser.popState();
+                    return Event.END_OBJECT;
+                }
+                parser.setState(OBJECT_VALUE);
+                return parser.processKey(c);
+            }
+
+            @Override
+            boolean isInObject() {
+                return true;
+            }
+        },
+
+        OBJECT_KEY() {
+            @Override
+            Event process(int c, AbstractBasicJsonParser parser) {
+                if (c == '}') {
+                    parser.popState();
+                    return Event.END_OBJECT;
+                }
+                if (c != ',') {
+                    throw parser.newUnexpectedCharException(c, COLON_OR_CURLY_BRACKET);
+                }
+                parser.setState(OBJECT_VALUE);
+                return parser.processKey();
+            }
+
+            @Override
+            boolean isInObject() {
+                return true;
+            }
+        },
+
+        OBJECT_VALUE() {
+            @Override
+            Event process(int c, AbstractBasicJsonParser parser) {
+                if (c != ':') {
+                    throw parser.newUnexpectedCharException(c, JsonChar.COLON);
+                }
+                parser.setState(OBJECT_KEY);
+                return parser.processValue();
+            }
+
+            @Override
+            boolean isInObject() {
+                return true;
+            }
+        };
+
+        private static final Set<JsonChar> COLON_OR_CURLY_BRACKET = JsonChar.of(
+                JsonChar.COLON, JsonChar.CLOSING_CURLY_BRACKET);
+
+        private static final Set<JsonChar> COMMA_OR_SQURE_BRACKET = JsonChar.of(
+                JsonChar.COMMA, JsonChar.CLOSING_SQURE_BRACKET);
+
+        boolean accepts(int c, AbstractBasicJsonParser parser) {
+            if (c >= 0) {
+                return true;
+            } else {
+                throw parser.newUnexpectedEndException();
+            }
+        }
+
+        boolean isInArray() {
+            return false;
+        }
+
+        boolean isInObject() {
+            return false;
+        }
+
+        abstract Event process(int c, AbstractBasicJsonParser parser);
+    }
+}
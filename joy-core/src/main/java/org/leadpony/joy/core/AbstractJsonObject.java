@@ -0,0 +1,243 @@
+/*
+ * Copyright 2019-2020 the Joy Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.joy.core;
+
+import static org.leadpony.joy.core.Preconditions.requireNonNull;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import jakarta.json.JsonArray;
+import jakarta.json.JsonNumber;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonString;
+import jakarta.json.JsonValue;
+
+/**
+ * A skeletal implementation of {@link JsonObject}. The properties are
+ * accessed by their indices, and the subclasses provide {@link #size()},
+ * {@link #getName(int)}, {@link #getValueAt(int)} and {@link #indexOf(Object)}.
+ *
+ * @author leadpony
+ */
+abstract class AbstractJsonObject extends AbstractMap<String, JsonValue> implements JsonObject {
+
+    /* As a JsonValue */
+
+    @Override
+    public ValueType getValueType() {
+        return ValueType.OBJECT;
+    }
+
+    @Override
+    public JsonObject asJsonObject() {
+        return this;
+    }
+
+    /* As a JsonStructure */
+
+    @Override
+    public JsonValue getValue(String jsonPointer) {
+        requireNonNull(jsonPointer, "jsonPointer");
+        return JsonPointerImpl.parse(jsonPointer).getValue(this);
+    }
+
+    /* As a JsonObject */
+
+    @Override
+    public JsonArray getJsonArray(String name) {
+        return (JsonArray) get(name);
+    }
+
+    @Override
+    public JsonObject getJsonObject(String name) {
+        return (JsonObject) get(name);
+    }
+
+    @Override
+    public JsonNumber getJsonNumber(String name) {
+        return (JsonNumber) get(name);
+    }
+
+    @Override
+    public JsonString getJsonString(String name) {
+        return (JsonString) get(name);
+    }
+
+    @Override
+    public String getString(String name) {
+        return getJsonString(name).getString();
+    }
+
+    @Override
+    public String getString(String name, String defaultValue) {
+        JsonValue value = get(name);
+        if (value != null && value.getValueType() == ValueType.STRING) {
+            return ((JsonString) value).getString();
+        } else {
+            return defaultValue;
+        }
+    }
+
+    @Override
+    public int getInt(String name) {
+        return getJsonNumber(name).intValue();
+    }
+
+    @Override
+    public int getInt(String name, int defaultValue) {
+        JsonValue value = get(name);
+        if (value != null && value.getValueType() == ValueType.NUMBER) {
+            return ((JsonNumber) value).intValue();
+        } else {
+            return defaultValue;
+        }
+    }
+
+    @Override
+    public boolean getBoolean(String name) {
+        JsonValue value = get(name);
+        if (value == JsonValue.TRUE) {
+            return true;
+        } else if (value == JsonValue.FALSE) {
+            return false;
+        } else {
+            throw new ClassCastException();
+        }
+    }
+
+    @Override
+    public boolean getBoolean(String name, boolean defaultValue) {
+        JsonValue value = get(name);
+        if (value == JsonValue.TRUE) {
+            return true;
+        } else if (value == JsonValue.FALSE) {
+            return false;
+        } else {
+            return defaultValue;
+        }
+    }
+
+    @Override
+    public boolean isNull(String name) {
+        return get(name) == JsonValue.NULL;
+    }
+
+    /* As a Map */
+
+    @Override
+    public Set<Entry<String, JsonValue>> entrySet() {
+        return new EntrySet();
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        final int size = size();
+        for (int i = 0; i < size; i++) {
+            if (getValueAt(i).equals(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public JsonValue get(Object key) {
+        int index = indexOf(key);
+        return (index >= 0) ? getValueAt(index) : null;
+    }
+
+    @Override
+    public String toString() {
+        try (SimpleJsonGenerator g = new SimpleJsonGenerator()) {
+            g.write(this);
+            return g.toString();
+        }
+    }
+
+    /**
+     * Returns the name of the property at the specified index.
+     *
+     * @param index the index of the property.
+     * @return the name of the property.
+     */
+    abstract String getName(int index);
+
+    /**
+     * Returns the value of the property at the specified index.
+     *
+     * @param index the index of the property.
+     * @return the value of the property.
+     */
+    abstract JsonValue getValueAt(int index);
+
+    /**
+     * Finds the index of the property of the specified name.
+     *
+     * @param key the name of the property.
+     * @return the index of the property, or -1 if not found.
+     */
+    abstract int indexOf(Object key);
+
+    private JsonValue get(String name) {
+        requireNonNull(name, "name");
+        return get((Object) name);
+    }
+
+    /**
+     * The view of the properties as a set of entries.
+     *
+     * @author leadpony
+     */
+    private final class EntrySet extends AbstractSet<Entry<String, JsonValue>> {
+
+        @Override
+        public Iterator<Entry<String, JsonValue>> iterator() {
+            return new Iterator<Entry<String, JsonValue>>() {
+
+                private int index;
+
+                @Override
+                public boolean hasNext() {
+                    return index < size();
+                }
+
+                @Override
+                public Entry<String, JsonValue> next() {
+                    if (index >= size()) {
+                        throw new NoSuchElementException();
+                    }
+                    Entry<String, JsonValue> entry = new SimpleImmutableEntry<>(getName(index), getValueAt(index));
+                    index++;
+                    return entry;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return AbstractJsonObject.this.size();
+        }
+    }
+}
@@ -29,9 +29,10 @@ import jakarta.json.JsonObjectBuilder;
 import jakarta.json.JsonString;
 import jakarta.json.JsonValue;
 import jakarta.json.stream.JsonLocation;
-import jakarta.json.stream.JsonParser;
 import jakarta.json.stream.JsonParsingException;
 
+import org.leadpony.joy.api.JsonParser;
+
 /**
  * A skeletal implementation of {@link JsonParser} providing default implementation.
  *
@@ -155,6 +156,11 @@ public abstract class AbstractJsonParser implements JsonParser {
         }
     }
 
+    @Override
+    public Event currentEvent() {
+        return getCurrentEvent();
+    }
+
     @Override
     public void close() {
     }
@@ -180,12 +186,39 @@ public abstract class AbstractJsonParser implements JsonParser {
     }
 
     /**
-     * Returns the current value as a JSON array.
+     * Returns the current value as a JSON array. An array of numbers is built
+     * as {@link org.leadpony.joy.api.JsonNumberArray} if possible.
      *
      * @return the JSON array.
      */
     protected final JsonArray getValueAsArray() {
-        JsonArrayBuilder builder = new JsonArrayBuilderImpl();
+        NumberArrayBuilder numbers = new NumberArrayBuilder();
+        while (hasNext()) {
+            Event event = next();
+            if (event == Event.END_ARRAY) {
+                return numbers.isEmpty() ? JsonValue.EMPTY_JSON_ARRAY : numbers.build();
+            }
+            if (event != Event.VALUE_NUMBER || !addNumber(numbers)) {
+                JsonArrayBuilder builder = new JsonArrayBuilderImpl();
+                numbers.copyTo(builder);
+                builder.add(getValue());
+                return getValueAsArray(builder);
+            }
+        }
+        throw newUnexpectedEndException(ParserEventSet.VALUES_OR_END_ARRAY);
+    }
+
+    /**
+     * Adds the current number to the specified builder.
+     *
+     * @param numbers the builder of the array.
+     * @return {@code true} if the number was added.
+     */
+    boolean addNumber(NumberArrayBuilder numbers) {
+        return numbers.add(getValue());
+    }
+
+    private JsonArray getValueAsArray(JsonArrayBuilder builder) {
         while (hasNext()) {
             Event event = next();
             if (event == Event.END_ARRAY) {
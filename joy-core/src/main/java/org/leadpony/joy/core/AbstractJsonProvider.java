@@ -19,12 +19,10 @@ import static org.leadpony.joy.core.Preconditions.requireNonNull;
 
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.Writer;
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
@@ -52,6 +50,8 @@ import jakarta.json.stream.JsonGeneratorFactory;
 import jakarta.json.stream.JsonParser;
 import jakarta.json.stream.JsonParserFactory;
 
+import org.leadpony.joy.core.StreamReaders.DetectedEncoding;
+
 /**
  * A skeletal implementation of {@link JsonProvider}.
  *
@@ -60,6 +60,7 @@ import jakarta.json.stream.JsonParserFactory;
 public abstract class AbstractJsonProvider extends JsonProvider {
 
     private final CharBufferFactory bufferFactory = new PooledCharBufferFactory();
+    private final ByteBufferFactory byteBufferFactory = new PooledByteBufferFactory();
 
     /**
      * Constructs this provider.
@@ -76,31 +77,35 @@ public abstract class AbstractJsonProvider extends JsonProvider {
     @Override
     public JsonParser createParser(InputStream in) {
         requireNonNull(in, "in");
-        Reader reader = createStreamReader(in);
+        DetectedEncoding encoding = StreamReaders.detectEncoding(in);
+        if (encoding.isUtf8()) {
+            return new Utf8JsonParser(in, encoding.getLeadingBytes(), byteBufferFactory);
+        }
+        Reader reader = StreamReaders.createStreamReader(in, encoding);
         return new BasicJsonParser(reader, bufferFactory);
     }
 
     @Override
     public JsonParserFactory createParserFactory(Map<String, ?> config) {
-        return new JsonParserFactoryImpl(getConfigOrEmpty(config), bufferFactory);
+        return new JsonParserFactoryImpl(getConfigOrEmpty(config), bufferFactory, byteBufferFactory);
     }
 
     @Override
     public JsonGenerator createGenerator(Writer writer) {
         requireNonNull(writer, "writer");
-        return new CompactJsonGenerator(writer, bufferFactory);
+        return new CompactJsonGenerator(writer, bufferFactory, byteBufferFactory);
     }
 
     @Override
     public JsonGenerator createGenerator(OutputStream out) {
         requireNonNull(out, "out");
-        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
-        return new CompactJsonGenerator(writer, bufferFactory);
+        Writer writer = new Utf8StreamWriter(out, byteBufferFactory);
+        return new CompactJsonGenerator(writer, bufferFactory, byteBufferFactory);
     }
 
     @Override
     public JsonGeneratorFactory createGeneratorFactory(Map<String, ?> config) {
-        return new JsonGeneratorFactoryImpl(getConfigOrEmpty(config), bufferFactory);
+        return new JsonGeneratorFactoryImpl(getConfigOrEmpty(config), bufferFactory, byteBufferFactory);
     }
 
     @Override
@@ -118,21 +123,21 @@ public abstract class AbstractJsonProvider extends JsonProvider {
     @Override
     public JsonWriter createWriter(Writer writer) {
         requireNonNull(writer, "writer");
-        JsonGenerator generator = new CompactJsonGenerator(writer, bufferFactory);
+        JsonGenerator generator = new CompactJsonGenerator(writer, bufferFactory, byteBufferFactory);
         return new JsonWriterImpl(generator);
     }
 
     @Override
     public JsonWriter createWriter(OutputStream out) {
         requireNonNull(out, "out");
-        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
-        JsonGenerator generator = new CompactJsonGenerator(writer, bufferFactory);
+        Writer writer = new Utf8StreamWriter(out, byteBufferFactory);
+        JsonGenerator generator = new CompactJsonGenerator(writer, bufferFactory, byteBufferFactory);
         return new JsonWriterImpl(generator);
     }
 
     @Override
     public JsonWriterFactory createWriterFactory(Map<String, ?> config) {
-        return new JsonWriterFactoryImpl(getConfigOrEmpty(config), bufferFactory);
+        return new JsonWriterFactoryImpl(getConfigOrEmpty(config), bufferFactory, byteBufferFactory);
     }
 
     @Override
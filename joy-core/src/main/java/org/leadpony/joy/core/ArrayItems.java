@@ -0,0 +1,118 @@
+/*
+ * Copyright 2019-2020 the Joy Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.joy.core;
+
+import java.util.Arrays;
+
+/**
+ * The positions of the items in an array found by scanning the read buffer.
+ *
+ * <p>
+ * Each item starts at its recorded position and ends at the comma or the
+ * closing bracket following it. The line number, the line offset and the
+ * stream offset at the start of each item are also kept for reporting
+ * locations, so that the items can be parsed without the scanning parser.
+ * </p>
+ *
+ * @author leadpony
+ */
+final class ArrayItems {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] starts = new int[INITIAL_CAPACITY];
+    private long[] lineNumbers = new long[INITIAL_CAPACITY];
+    private long[] lineOffsets = new long[INITIAL_CAPACITY];
+    private long[] streamOffsets = new long[INITIAL_CAPACITY];
+    private int size;
+    private int end;
+    private boolean blank;
+
+    /**
+     * Returns the number of the items.
+     *
+     * @return the number of the items.
+     */
+    int size() {
+        return (size == 1 && blank) ? 0 : size;
+    }
+
+    int getStart(int index) {
+        return starts[index];
+    }
+
+    /**
+     * Returns the position of the comma or the closing bracket following the
+     * item.
+     *
+     * @param index the index of the item.
+     * @return the position of the delimiter.
+     */
+    int getEnd(int index) {
+        return (index + 1 < size) ? starts[index + 1] - 1 : end;
+    }
+
+    long getLineNumber(int index) {
+        return lineNumbers[index];
+    }
+
+    long getLineOffset(int index) {
+        return lineOffsets[index];
+    }
+
+    long getStreamOffset(int index) {
+        return streamOffsets[index];
+    }
+
+    /**
+     * Adds an item starting at the specified position.
+     *
+     * @param start        the position of the first character of the item.
+     * @param lineNumber   the line number at the start.
+     * @param lineOffset   the stream offset of the line at the start.
+     * @param streamOffset the stream offset of the start.
+     */
+    void add(int start, long lineNumber, long lineOffset, long streamOffset) {
+        if (size == starts.length) {
+            int newLength = size * 2;
+            starts = Arrays.copyOf(starts, newLength);
+            lineNumbers = Arrays.copyOf(lineNumbers, newLength);
+            lineOffsets = Arrays.copyOf(lineOffsets, newLength);
+            streamOffsets = Arrays.copyOf(streamOffsets, newLength);
+        }
+        starts[size] = start;
+        lineNumbers[size] = lineNumber;
+        lineOffsets[size] = lineOffset;
+        streamOffsets[size] = streamOffset;
+        size++;
+    }
+
+    /**
+     * Specifies the position of the closing bracket.
+     *
+     * @param end the position of the closing bracket.
+     */
+    void close(int end) {
+        this.end = end;
+    }
+
+    /**
+     * Marks the only item as blank, which means the array is empty.
+     */
+    void markBlank() {
+        this.blank = true;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2019-2020 the Joy Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.joy.core;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+import jakarta.json.JsonValue;
+import jakarta.json.stream.JsonParser.Event;
+
+/**
+ * A {@link Spliterator} over the items of an array, which can be split when
+ * the whole input is available to the parser.
+ *
+ * <p>
+ * The items are read by the parser one by one until this spliterator is split
+ * for the first time. Then the rest of the array is scanned for the
+ * boundaries of the items, and each item is parsed by its own parser reading
+ * the same buffer in place.
+ * </p>
+ *
+ * @author leadpony
+ */
+final class ArraySpliterator implements Spliterator<JsonValue> {
+
+    private static final int SCANNED_CHARACTERISTICS = Spliterator.ORDERED
+            | Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.NONNULL;
+
+    private final AbstractBasicJsonParser parser;
+    private ArrayItems items;
+    private int index;
+    private int fence;
+    private boolean finished;
+
+    ArraySpliterator(AbstractBasicJsonParser parser) {
+        this.parser = parser;
+    }
+
+    private ArraySpliterator(AbstractBasicJsonParser parser, ArrayItems items, int index, int fence) {
+        this.parser = parser;
+        this.items = items;
+        this.index = index;
+        this.fence = fence;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super JsonValue> action) {
+        if (items != null) {
+            if (index >= fence) {
+                return false;
+            }
+            action.accept(parser.parseArrayItem(items, index++));
+            return true;
+        }
+        if (!finished && parser.hasNext() && parser.next() != Event.END_ARRAY) {
+            action.accept(parser.getValue());
+            return true;
+        }
+        this.finished = true;
+        return false;
+    }
+
+    @Override
+    public Spliterator<JsonValue> trySplit() {
+        if (items == null) {
+            if (finished) {
+                return null;
+            }
+            this.finished = true;
+            this.items = parser.scanArrayItems();
+            this.fence = items.size();
+        }
+        final int mid = (index + fence) >>> 1;
+        if (mid <= index) {
+            return null;
+        }
+        Spliterator<JsonValue> prefix = new ArraySpliterator(parser, items, index, mid);
+        this.index = mid;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return (items != null) ? fence - index : Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return (items != null) ? SCANNED_CHARACTERISTICS : Spliterator.ORDERED;
+    }
+}
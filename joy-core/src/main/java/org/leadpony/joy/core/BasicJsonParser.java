@@ -18,166 +18,75 @@ package org.leadpony.joy.core;
 import java.io.IOException;
 import java.io.Reader;
 import java.math.BigDecimal;
-import java.math.BigInteger;
-import java.util.ArrayDeque;
-import java.util.Deque;
-import java.util.NoSuchElementException;
-import java.util.Set;
 
-import jakarta.json.JsonNumber;
 import jakarta.json.JsonString;
-import jakarta.json.stream.JsonLocation;
-import jakarta.json.stream.JsonParsingException;
 
 /**
- * An implementation of {@link JsonParser}.
+ * An implementation of {@link JsonParser} which reads characters.
  *
  * @author leadpony
  */
-class BasicJsonParser extends AbstractJsonParser {
+class BasicJsonParser extends AbstractBasicJsonParser {
 
-    private final Reader reader;
-    private boolean alreadyClosed;
+    private Reader reader;
 
     private final CharBufferFactory bufferFactory;
 
-    private Event currentEvent;
-
-    // Current state. This never be {@code null}.
-    private State state;
-    // Stack of states except the current state.
-    private final Deque<State> stateStack = new ArrayDeque<>();
-
-    private boolean readyToNext;
-
     private boolean eoi;
 
     private char[] readBuffer;
-    private int readStart;
-    private int readEnd;
-    private int readPos;
-
-    private int valueStart;
-    private int valueEnd;
-
-    private long lineNumber;
-
-    /*
-     * The stream offset of the first char in the read buffer.
-     */
-    private long bufferOffset;
-
-    /*
-     * The stream offset of the first char in the current line.
-     */
-    private long lineOffset;
-
-    private boolean hasFracOrExp;
 
-    private JsonLocation location = BasicJsonLocation.INITIAL;
+    // Whether a string is being unescaped in place.
+    private boolean unescaping;
 
     BasicJsonParser(Reader reader, CharBufferFactory bufferFactory) {
         this.reader = reader;
         this.bufferFactory = bufferFactory;
-
-        this.lineNumber = 1;
         this.readBuffer = bufferFactory.createBuffer();
-
-        this.state = State.INITIAL;
-    }
-
-    /* As a JsonParser */
-
-    @Override
-    public boolean hasNext() {
-        if (readyToNext) {
-            return true;
-        }
-        this.location = null;
-        readyToNext = state.accepts(peekNonSpaceChar(), this);
-        return readyToNext;
-    }
-
-    @Override
-    public Event next() {
-        if (!hasNext()) {
-            throw new NoSuchElementException(Message.thatNoMoreParserEventsWereFound());
-        }
-        this.readyToNext = false;
-        this.location = null;
-        int c = peekNonSpaceChar();
-        Event event = state.process(c, this);
-        this.currentEvent = event;
-        return event;
-    }
-
-    @Override
-    public String getString() {
-        Event event = getCurrentEvent();
-        if (event != Event.KEY_NAME
-                && event != Event.VALUE_STRING
-                && event != Event.VALUE_NUMBER) {
-            throw newIllegalStateException("getString()");
-        }
-        return buildString();
     }
 
-    @Override
-    public boolean isIntegralNumber() {
-        if (getCurrentEvent() != Event.VALUE_NUMBER) {
-            throw newIllegalStateException("isIntegralNumber()");
-        }
-        return !hasFracOrExp || getBigDecimal().scale() == 0;
-    }
-
-    @Override
-    public int getInt() {
-        if (getCurrentEvent() != Event.VALUE_NUMBER) {
-            throw newIllegalStateException("getInt()");
-        }
-        if (canGetIntStrictly()) {
-            return getStrictInt();
-        } else {
-            return getBigDecimal().intValue();
-        }
-    }
-
-    @Override
-    public long getLong() {
-        if (getCurrentEvent() != Event.VALUE_NUMBER) {
-            throw newIllegalStateException("getLong()");
-        }
-        if (canGetLongStrictly()) {
-            return getStrictLong();
-        } else {
-            return getBigDecimal().longValue();
-        }
+    /**
+     * Constructs this parser which reads the specified characters in place.
+     * Note that the characters may be overwritten while parsing.
+     *
+     * @param chars  the characters to read.
+     * @param offset the offset of the first character to read.
+     * @param length the number of characters to read.
+     */
+    BasicJsonParser(char[] chars, int offset, int length) {
+        this.reader = null;
+        this.bufferFactory = null;
+        this.readBuffer = chars;
+        this.readStart = offset;
+        this.readPos = offset;
+        this.readEnd = offset + length;
+        this.eoi = true;
     }
 
-    @Override
-    public BigDecimal getBigDecimal() {
-        if (getCurrentEvent() != Event.VALUE_NUMBER) {
-            throw newIllegalStateException("getBigDecimal()");
-        }
-        return buildBigDecimal();
+    /**
+     * Resets this parser to read the specified reader from the start. The
+     * buffer created for this parser is reused.
+     *
+     * @param reader the reader to read.
+     */
+    void reset(Reader reader) {
+        this.reader = reader;
+        this.eoi = false;
+        this.readStart = 0;
+        this.readPos = 0;
+        this.readEnd = 0;
+        this.unescaping = false;
+        resetState();
     }
 
-    @Override
-    public JsonLocation getLocation() {
-        if (location == null) {
-            location = new BasicJsonLocation(lineNumber, getColumnNumber(), getStreamOffset());
-        }
-        return location;
-    }
+    /* As a AbstractBasicJsonParser */
 
     @Override
-    public void close() {
-        if (alreadyClosed) {
+    protected void closeInput() {
+        if (reader == null) {
             return;
         }
 
-        alreadyClosed = true;
-
         bufferFactory.releaseBuffer(readBuffer);
 
         try {
@@ -187,106 +96,8 @@ class BasicJsonParser extends AbstractJsonParser {
         }
     }
 
-    /* As a DefaultJsonParser */
-
-    @Override
-    public final Event getCurrentEvent() {
-        return currentEvent;
-    }
-
-    @Override
-    public boolean isInCollection() {
-        return !this.stateStack.isEmpty();
-    }
-
-    @Override
-    public boolean isInArray() {
-        Event event = getCurrentEvent();
-        if (event == Event.START_ARRAY || event == Event.END_ARRAY) {
-            return true;
-        }
-        if (this.state.isInArray()) {
-            return true;
-        }
-        return this.stateStack.stream().anyMatch(State::isInArray);
-    }
-
     @Override
-    public boolean isInObject() {
-        Event event = getCurrentEvent();
-        if (event == Event.START_OBJECT || event == Event.END_OBJECT) {
-            return true;
-        }
-        if (this.state.isInObject()) {
-            return true;
-        }
-        return this.stateStack.stream().anyMatch(State::isInObject);
-    }
-
-    /* As a BasicJsonParser */
-
-    Event processKey() {
-        consumeChar();
-        return processKey(peekNonSpaceChar());
-    }
-
-    Event processKey(int c) {
-        if (c == '"') {
-            parseString();
-            return Event.KEY_NAME;
-        } else {
-            throw newUnexpectedCharException(c, '"');
-        }
-    }
-
-    Event processValue() {
-        consumeChar();
-        return processValue(peekNonSpaceChar());
-    }
-
-    Event processValue(int c) {
-        switch (c) {
-        case '[':
-            consumeChar();
-            pushState(State.ARRAY_FIRST_ITEM);
-            return Event.START_ARRAY;
-        case '{':
-            consumeChar();
-            pushState(State.OBJECT_FIRST_KEY);
-            return Event.START_OBJECT;
-        case 't':
-            parseTrue();
-            return Event.VALUE_TRUE;
-        case 'f':
-            parseFalse();
-            return Event.VALUE_FALSE;
-        case 'n':
-            parseNull();
-            return Event.VALUE_NULL;
-        case '"':
-            parseString();
-            return Event.VALUE_STRING;
-        case '-':
-        case '0':
-        case '1':
-        case '2':
-        case '3':
-        case '4':
-        case '5':
-        case '6':
-        case '7':
-        case '8':
-        case '9':
-            parseNumber(c);
-            return Event.VALUE_NUMBER;
-        case -1:
-            throw newUnexpectedEndException(ParserEventSet.VALUES);
-        default:
-            throw newUnexpectedCharException(c);
-        }
-    }
-
-    private int peekNonSpaceChar() {
+    protected int peekNonSpaceChar() {
         final char[] buffer = this.readBuffer;
         for (;;) {
             int readPos = this.readPos;
@@ -296,7 +107,7 @@ class BasicJsonParser extends AbstractJsonParser {
                 if (c > 0x20) {
                     this.readPos = readPos;
                     return c;
-                } else if (c == 0x20 || c == '\t') {
+                } else if (c == 0x20 || c == '\t' || (lazyLocation && (c == '\n' || c == '\r'))) {
                     readPos++;
                 } else if (c == '\n') {
                     startNewLine(++readPos);
@@ -325,13 +136,8 @@ class BasicJsonParser extends AbstractJsonParser {
         }
     }
 
-    private void startNewLine(int readPos) {
-        this.readPos = readPos;
-        this.lineNumber++;
-        this.lineOffset = getStreamOffset();
-    }
-
-    private int peekChar() {
+    @Override
+    protected int peekChar() {
         if (readPos >= readEnd) {
             if (!fillReadBuffer(0)) {
                 return -1;
@@ -349,17 +155,14 @@ class BasicJsonParser extends AbstractJsonParser {
         return this.readBuffer[this.readPos];
     }
 
-    private void consumeChar() {
-        readPos++;
-    }
-
-    private void consumeChar(char expected) {
-        int c = peekChar();
-        if (c == expected) {
-            readPos++;
-        } else {
-            throw newUnexpectedCharException(c, expected);
+    @Override
+    protected int peekNumberChar() {
+        if (this.readPos >= this.readEnd) {
+            if (!fillReadBufferRetainingValue(this.readPos)) {
+                return -1;
+            }
         }
+        return this.readBuffer[this.readPos];
     }
 
     /**
@@ -370,8 +173,13 @@ class BasicJsonParser extends AbstractJsonParser {
      */
     private boolean fillReadBuffer(int newStart) {
         if (eoi) {
+            this.readPos = this.readEnd;
             return false;
         }
+        if (lazyLocation) {
+            countLines(readEnd);
+        }
+        resolveLineOffset();
         try {
             int charsToRead = readBuffer.length - newStart;
             int charsRead = this.reader.read(readBuffer, newStart, charsToRead);
@@ -384,6 +192,7 @@ class BasicJsonParser extends AbstractJsonParser {
             this.readStart = newStart;
             this.readEnd = newStart + charsRead;
             this.readPos = newStart;
+            this.linesCounted = newStart;
             return true;
         } catch (IOException e) {
             throw newJsonException(Message.thatIOErrorOccurredWhileParserWasReading(), e);
@@ -391,6 +200,15 @@ class BasicJsonParser extends AbstractJsonParser {
     }
 
     private boolean fillReadBufferRetainingValue(int valueEnd) {
+        if (eoi) {
+            this.readPos = this.readEnd;
+            return false;
+        }
+        if (lazyLocation) {
+            // Counts before the buffer is rearranged.
+            countLines(readEnd);
+        }
+        resolveLineOffset();
         final int valueLen = valueEnd - this.valueStart;
         if (valueLen > readBuffer.length / 2) {
             extendReadBuffer(this.valueStart, valueLen);
@@ -398,6 +216,13 @@ class BasicJsonParser extends AbstractJsonParser {
             System.arraycopy(readBuffer, this.valueStart, readBuffer, 0, valueLen);
         }
         if (!fillReadBuffer(valueLen)) {
+            // The value was already moved to the head of the buffer.
+            final int shift = this.valueStart;
+            this.readStart -= shift;
+            this.readEnd -= shift;
+            this.readPos -= shift;
+            this.linesCounted -= shift;
+            this.valueStart = 0;
             return false;
         }
         this.valueStart = 0;
@@ -412,53 +237,8 @@ class BasicJsonParser extends AbstractJsonParser {
         this.readBuffer = newBuffer;
     }
 
-    /**
-     * Returns the current column number.
-     *
-     * @return the current column number.
-     */
-    private long getColumnNumber() {
-        return 1L + getStreamOffset() - lineOffset;
-    }
-
-    /**
-     * Returns the current stream offset.
-     *
-     * @return the current stream offset.
-     */
-    private long getStreamOffset() {
-        return bufferOffset + (readPos - readStart);
-    }
-
-    private void parseTrue() {
-        // Consumes 't'
-        consumeChar();
-
-        consumeChar('r');
-        consumeChar('u');
-        consumeChar('e');
-    }
-
-    private void parseFalse() {
-        // Consumes 'f'
-        consumeChar();
-
-        consumeChar('a');
-        consumeChar('l');
-        consumeChar('s');
-        consumeChar('e');
-    }
-
-    private void parseNull() {
-        // Consumes 'n'
-        consumeChar();
-
-        consumeChar('u');
-        consumeChar('l');
-        consumeChar('l');
-    }
-
-    private void parseString() {
+    @Override
+    protected void parseString(int maxLength) {
         // Consumes the opening quotation mark
         this.valueStart = ++this.readPos;
 
@@ -477,7 +257,7 @@ class BasicJsonParser extends AbstractJsonParser {
                 } else if (c == '\\') {
                     this.readPos = readPos;
                     this.valueEnd = readPos;
-                    parseEscapedString();
+                    parseEscapedString(maxLength);
                     return;
                 } else if (c >= 0x20) {
                     readPos++;
@@ -487,19 +267,40 @@ class BasicJsonParser extends AbstractJsonParser {
                 }
             }
 
+            if (readPos - this.valueStart >= maxLength) {
+                // The rest of the long string is read on demand.
+                this.readPos = readPos;
+                startStreamingString(new String(buffer, this.valueStart, readPos - this.valueStart));
+                return;
+            }
+
             if (!fillReadBufferRetainingValue(readPos)) {
                 throw newUnexpectedEndException();
             }
         }
     }
 
-    private void parseEscapedString() {
+    private void parseEscapedString(int maxLength) {
+        if (lazyLocation) {
+            // Counts before the string is unescaped in place.
+            countLines(this.valueStart);
+            this.unescaping = true;
+        }
+
         char unescaped = unescape();
         this.readBuffer[this.valueEnd++] = unescaped;
 
-        int c;
-        while (((c = peekValueChar()) != '"')) {
-            if (c == '\\') {
+        for (;;) {
+            if (this.readPos >= this.readEnd && this.valueEnd - this.valueStart >= maxLength) {
+                // The rest of the long string is read on demand.
+                endUnescaping();
+                startStreamingString(new String(this.readBuffer, this.valueStart, this.valueEnd - this.valueStart));
+                return;
+            }
+            int c = peekValueChar();
+            if (c == '"') {
+                break;
+            } else if (c == '\\') {
                 unescaped = unescape();
                 this.readBuffer[this.valueEnd++] = unescaped;
             } else if (c >= 0x20) {
@@ -512,6 +313,55 @@ class BasicJsonParser extends AbstractJsonParser {
 
         // Consumes the last quotation mark.
         consumeChar();
+        endUnescaping();
+    }
+
+    private void endUnescaping() {
+        if (lazyLocation) {
+            // The string contains no line breaks.
+            this.unescaping = false;
+            this.linesCounted = this.readPos;
+            this.countedCarriageReturn = false;
+        }
+    }
+
+    @Override
+    protected int readStringChars(char[] chars, int offset, int length) {
+        int count = 0;
+        while (count < length) {
+            final int c = peekChar();
+            if (c == '"') {
+                if (count > 0) {
+                    break;
+                }
+                // Consumes the closing quotation mark
+                consumeChar();
+                return -1;
+            } else if (c == '\\') {
+                // Nothing is retained while unescaping.
+                this.valueStart = this.readPos;
+                this.valueEnd = this.readPos;
+                chars[offset + count++] = unescape();
+            } else if (c >= 0x20) {
+                final char[] buffer = this.readBuffer;
+                final int end = Math.min(this.readEnd, this.readPos + length - count);
+                int readPos = this.readPos;
+                while (readPos < end) {
+                    final char d = buffer[readPos];
+                    if (d == '"' || d == '\\' || d < 0x20) {
+                        break;
+                    }
+                    chars[offset + count++] = d;
+                    readPos++;
+                }
+                this.readPos = readPos;
+            } else if (c < 0) {
+                throw newUnexpectedEndException();
+            } else {
+                throw newUnexpectedCharException(c);
+            }
+        }
+        return count;
     }
 
     private char unescape() {
@@ -581,366 +431,164 @@ class BasicJsonParser extends AbstractJsonParser {
         }
     }
 
-    private void parseNumber(int c) {
-        hasFracOrExp = false;
-
-        resetValueBuffer(readPos);
-
-        // minus (optional)
-        if (c == '-') {
-            consumeChar();
-            c = peekValueChar();
-        }
-
-        // int
-        if (c == '0') {
-            consumeChar();
-            c = peekValueChar();
-        } else if ('1' <= c && c <= '9') {
-            consumeChar();
-            c = peekValueChar();
-            while ('0' <= c && c <= '9') {
-                consumeChar();
-                c = peekValueChar();
-            }
-        } else {
-            throw newUnexpectedCharException(c);
-        }
-
-        // frac (optional)
-        if (c == '.') {
-            hasFracOrExp = true;
-            consumeChar();
-            c = peekValueChar();
-            if ('0' <= c && c <= '9') {
-                consumeChar();
-                c = peekValueChar();
-            } else {
-                throw newUnexpectedCharException(c);
-            }
-            while ('0' <= c && c <= '9') {
-                consumeChar();
-                c = peekValueChar();
-            }
-        }
-
-        // exp (optional)
-        if (c == 'e' || c == 'E') {
-            hasFracOrExp = true;
-            consumeChar();
-            c = peekValueChar();
-            if (c == '-' || c == '+') {
-                consumeChar();
-                c = peekValueChar();
-            }
-            if ('0' <= c && c <= '9') {
-                consumeChar();
-                c = peekValueChar();
-            } else {
-                throw newUnexpectedCharException(c);
+    @Override
+    protected void skipRawContainers(int depth, ArrayItems items) {
+        boolean inString = false;
+        boolean escaped = false;
+        boolean afterCarriageReturn = false;
+        for (;;) {
+            final char[] buffer = this.readBuffer;
+            final int readEnd = this.readEnd;
+            int readPos = this.readPos;
+            while (readPos < readEnd) {
+                final int c = buffer[readPos++];
+                if (inString) {
+                    if (escaped) {
+                        escaped = false;
+                    } else if (c == '\\') {
+                        escaped = true;
+                    } else if (c == '"') {
+                        inString = false;
+                    }
+                } else if (c == '"') {
+                    inString = true;
+                } else if (c == '[' || c == '{') {
+                    depth++;
+                } else if (c == ']' || c == '}') {
+                    if (--depth == 0) {
+                        this.readPos = readPos;
+                        return;
+                    }
+                } else if (c == ',') {
+                    if (depth == 1 && items != null) {
+                        if (lazyLocation) {
+                            countLines(readPos);
+                        }
+                        resolveLineOffset();
+                        items.add(readPos, lineNumber, lineOffset, getStreamOffset(readPos));
+                    }
+                } else if (c == '\n' && !lazyLocation) {
+                    if (afterCarriageReturn) {
+                        moveLineStart(readPos);
+                    } else {
+                        startNewLine(readPos);
+                    }
+                } else if (c == '\r' && !lazyLocation) {
+                    startNewLine(readPos);
+                    afterCarriageReturn = true;
+                    continue;
+                }
+                afterCarriageReturn = false;
             }
-            while ('0' <= c && c <= '9') {
-                consumeChar();
-                c = peekValueChar();
+            this.readPos = readPos;
+            if (!fillReadBuffer(0)) {
+                throw newUnexpectedEndException();
             }
         }
-
-        valueEnd = readPos;
-    }
-
-    private void resetValueBuffer(int start) {
-        valueStart = start;
-        valueEnd = readEnd;
-    }
-
-    private String buildString() {
-        return new String(readBuffer, valueStart, valueEnd - valueStart);
-    }
-
-    private BigDecimal buildBigDecimal() {
-        return new BigDecimal(readBuffer, valueStart, valueEnd - valueStart);
     }
 
-    private boolean canGetIntStrictly() {
-        if (hasFracOrExp) {
-            return false;
+    @Override
+    protected void countLines(int end) {
+        if (unescaping) {
+            return;
         }
-        final int length = valueEnd - valueStart;
-        if (readBuffer[valueStart] == '-') {
-            if (length <= 10) {
-                return true;
-            } else if (length == 11) {
-                return buildString().compareTo(MIN_INT_AS_STRING) <= 0;
-            }
-        } else {
-            if (length <= 9) {
-                return true;
-            } else if (length == 10) {
-                return buildString().compareTo(MAX_INT_AS_STRING) <= 0;
+        final char[] buffer = this.readBuffer;
+        boolean afterCarriageReturn = this.countedCarriageReturn;
+        long lines = 0;
+        int lineStart = -1;
+        int i = this.linesCounted;
+        if (pendingCarriageReturn && i < readEnd) {
+            pendingCarriageReturn = false;
+            lines++;
+            lineStart = i;
+        }
+        for (; i < end; i++) {
+            final char c = buffer[i];
+            if (c == '\n') {
+                if (!afterCarriageReturn) {
+                    lines++;
+                }
+                lineStart = i + 1;
+                afterCarriageReturn = false;
+            } else if (c == '\r') {
+                if (i + 1 < readEnd) {
+                    lines++;
+                    lineStart = i + 1;
+                } else {
+                    // Counted only if followed by any char.
+                    pendingCarriageReturn = true;
+                }
+                afterCarriageReturn = true;
+            } else {
+                afterCarriageReturn = false;
             }
         }
-        return false;
-    }
-
-    private boolean canGetLongStrictly() {
-        if (hasFracOrExp) {
-            return false;
-        }
-        final int length = valueEnd - valueStart;
-        if (readBuffer[valueStart] == '-') {
-            if (length <= 19) {
-                return true;
-            } else if (length == 20) {
-                return buildString().compareTo(MIN_LONG_AS_STRING) <= 0;
-            }
-        } else {
-            if (length <= 18) {
-                return true;
-            } else if (length == 19) {
-                return buildString().compareTo(MAX_LONG_AS_STRING) <= 0;
-            }
+        if (lineStart >= 0) {
+            this.lineNumber += lines;
+            this.lineStartPos = lineStart;
         }
-        return false;
+        this.linesCounted = i;
+        this.countedCarriageReturn = afterCarriageReturn;
     }
 
-    private int getStrictInt() {
-        int i = valueStart;
-        final boolean minus = readBuffer[i] == '-';
-        if (minus) {
-            i++;
-        }
-        int value = 0;
-        while (i < valueEnd) {
-            char c = readBuffer[i++];
-            value = value * 10 + (c - '0');
-        }
-        return minus ? -value : value;
+    @Override
+    protected boolean hasWholeInput() {
+        return reader == null;
     }
 
-    private long getStrictLong() {
-        int i = valueStart;
-        final boolean minus = readBuffer[i] == '-';
-        if (minus) {
-            i++;
-        }
-        long value = 0;
-        while (i < valueEnd) {
-            char c = readBuffer[i++];
-            value = value * 10 + (c - '0');
-        }
-        return minus ? -value : value;
+    @Override
+    protected AbstractBasicJsonParser createPartialParser(int start, int end) {
+        return new BasicJsonParser(readBuffer, start, end - start);
     }
 
     @Override
-    protected JsonString getValueAsString() {
-        return JsonValues.valueOf(readBuffer, valueStart, valueEnd - valueStart);
+    protected String buildString() {
+        return new String(readBuffer, valueStart, valueEnd - valueStart);
     }
 
     @Override
-    protected JsonNumber getValueAsNumber() {
-        if (hasFracOrExp) {
-            BigDecimal value = buildBigDecimal();
-            return JsonValues.valueOf(value);
-        } else if (canGetIntStrictly()) {
-            return JsonValues.valueOf(getStrictInt());
-        } else if (canGetLongStrictly()) {
-            return JsonValues.valueOf(getStrictLong());
-        } else {
-            BigInteger value = new BigInteger(buildString());
-            return JsonValues.valueOf(value);
-        }
+    protected int copyValueChars(char[] chars, int offset) {
+        final int length = valueEnd - valueStart;
+        System.arraycopy(readBuffer, valueStart, chars, offset, length);
+        return length;
     }
 
-    void pushState(State state) {
-        stateStack.push(this.state);
-        setState(state);
+    @Override
+    protected String buildString(int start, int end, boolean unescape) {
+        // The escape sequences were already resolved in place.
+        return new String(readBuffer, start, end - start);
     }
 
-    /**
-     * Pops current state.
-     */
-    void popState() {
-        // Consumes closing bracket which triggered this method.
-        consumeChar();
-        setState(stateStack.pop());
+    @Override
+    protected String buildKeyName(SymbolTable symbolTable) {
+        return symbolTable.getSymbol(readBuffer, valueStart, valueEnd - valueStart);
     }
 
-    void setState(State state) {
-        this.state = state;
+    @Override
+    protected int findKeyName(FieldSetImpl fields) {
+        return fields.indexOf(readBuffer, valueStart, valueEnd - valueStart);
     }
 
-    JsonParsingException newUnexpectedCharException(int actual) {
-        if (actual < 0) {
-            return newUnexpectedEndException();
-        }
-        JsonLocation location = getLocation();
-        String message = Message.thatUnexpectedCharWasFound(location, (char) actual);
-        return new JsonParsingException(message, location);
+    @Override
+    protected BigDecimal buildBigDecimal() {
+        return new BigDecimal(readBuffer, valueStart, valueEnd - valueStart);
     }
 
-    JsonParsingException newUnexpectedCharException(int actual, Object expected) {
-        if (actual < 0) {
-            return newUnexpectedEndException(expected);
+    @Override
+    protected void appendValue(JsonStringBuilder builder) {
+        if (getCurrentEvent() == Event.VALUE_NUMBER) {
+            builder.appendChars(readBuffer, valueStart, valueEnd);
+        } else {
+            // The escape sequences were already resolved in the buffer.
+            builder.append(readBuffer, valueStart, valueEnd);
         }
-        JsonLocation location = getLocation();
-        String message = Message.thatUnexpectedCharWasFoundFor(
-                location, (char) actual, expected);
-        return new JsonParsingException(message, location);
-    }
-
-    JsonParsingException newUnexpectedEndException() {
-        JsonLocation location = getLocation();
-        String message = Message.thatUnexpectedEndOfInputWasReached(location);
-        return new JsonParsingException(message, location);
     }
 
-    /**
-     * Parser state.
-     *
-     * @author leadpony
-     */
-    private enum State {
-        INITIAL() {
-            @Override
-            boolean accepts(int c, BasicJsonParser parser) {
-                return c >= 0;
-            }
-
-            @Override
-            Event process(int c, BasicJsonParser parser) {
-                parser.setState(FINISHED);
-                return parser.processValue(c);
-            }
-        },
-
-        FINISHED() {
-            @Override
-            boolean accepts(int c, BasicJsonParser parser) {
-                if (c >= 0) {
-                    throw parser.newUnexpectedCharException(c);
-                } else {
-                    return false;
-                }
-            }
-
-            @Override
-            Event process(int c, BasicJsonParser parser) {
-                throw parser.newUnexpectedCharException(c);
-            }
-        },
-
-        ARRAY_FIRST_ITEM() {
-            @Override
-            Event process(int c, BasicJsonParser parser) {
-                if (c == ']') {
-                    parser.popState();
-                    return Event.END_ARRAY;
-                }
-                parser.setState(ARRAY_ITEM);
-                return parser.processValue(c);
-            }
-
-            @Override
-            boolean isInArray() {
-                return true;
-            }
-        },
-
-        ARRAY_ITEM() {
-            @Override
-            Event process(int c, BasicJsonParser parser) {
-                if (c == ']') {
-                    parser.popState();
-                    return Event.END_ARRAY;
-                }
-                if (c == ',') {
-                    return parser.processValue();
-                } else {
-                    throw parser.newUnexpectedCharException(c, COMMA_OR_SQURE_BRACKET);
-                }
-            }
-
-            @Override
-            boolean isInArray() {
-                return true;
-            }
-        },
-
-        OBJECT_FIRST_KEY() {
-            @Override
-            Event process(int c, BasicJsonParser parser) {
-                if (c == '}') {
-                    parser.popState();
-                    return Event.END_OBJECT;
-                }
-                parser.setState(OBJECT_VALUE);
-                return parser.processKey(c);
-            }
-
-            @Override
-            boolean isInObject() {
-                return true;
-            }
-        },
-
-        OBJECT_KEY() {
-            @Override
-            Event process(int c, BasicJsonParser parser) {
-                if (c == '}') {
-                    parser.popState();
-                    return Event.END_OBJECT;
-                }
-                if (c != ',') {
-                    throw parser.newUnexpectedCharException(c, COLON_OR_CURLY_BRACKET);
-                }
-                parser.setState(OBJECT_VALUE);
-                return parser.processKey();
-            }
-
-            @Override
-            boolean isInObject() {
-                return true;
-            }
-        },
-
-        OBJECT_VALUE() {
-            @Override
-            Event process(int c, BasicJsonParser parser) {
-                if (c != ':') {
-                    throw parser.newUnexpectedCharException(c, JsonChar.COLON);
-                }
-                parser.setState(OBJECT_KEY);
-                return parser.processValue();
-            }
-
-            @Override
-            boolean isInObject() {
-                return true;
-            }
-        };
-
-        private static final Set<JsonChar> COLON_OR_CURLY_BRACKET = JsonChar.of(
-                JsonChar.COLON, JsonChar.CLOSING_CURLY_BRACKET);
-
-        private static final Set<JsonChar> COMMA_OR_SQURE_BRACKET = JsonChar.of(
-                JsonChar.COMMA, JsonChar.CLOSING_SQURE_BRACKET);
-
-        boolean accepts(int c, BasicJsonParser parser) {
-            if (c >= 0) {
-                return true;
-            } else {
-                throw parser.newUnexpectedEndException();
-            }
-        }
-
-        boolean isInArray() {
-            return false;
-        }
-
-        boolean isInObject() {
-            return false;
+    @Override
+    protected JsonString getValueAsString() {
+        if (hasStreamedString()) {
+            return JsonValues.valueOf(getString());
         }
-
-        abstract Event process(int c, BasicJsonParser parser);
+        return JsonValues.valueOf(readBuffer, valueStart, valueEnd - valueStart);
     }
 }
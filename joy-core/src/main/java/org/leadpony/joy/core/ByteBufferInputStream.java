@@ -0,0 +1,67 @@
+/*
+ * Copyright 2019-2020 the Joy Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.joy.core;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * An input stream which reads the remaining bytes of a byte buffer. This is
+ * used for the buffers which do not expose their backing arrays, such as
+ * direct buffers. The bytes are transferred in bulk.
+ *
+ * @author leadpony
+ */
+class ByteBufferInputStream extends InputStream {
+
+    private final ByteBuffer buffer;
+
+    /**
+     * Constructs this stream.
+     *
+     * @param buffer the buffer to read, which will be consumed by this stream.
+     */
+    ByteBufferInputStream(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    @Override
+    public int read() {
+        if (!buffer.hasRemaining()) {
+            return -1;
+        }
+        return buffer.get() & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+        if (len == 0) {
+            return 0;
+        }
+        int remaining = buffer.remaining();
+        if (remaining == 0) {
+            return -1;
+        }
+        int bytesToRead = Math.min(len, remaining);
+        buffer.get(b, off, bytesToRead);
+        return bytesToRead;
+    }
+
+    @Override
+    public int available() {
+        return buffer.remaining();
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2019-2020 the Joy Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.joy.core;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+import org.leadpony.joy.api.BufferOverflowHandler;
+
+/**
+ * An output stream which writes the bytes into a byte buffer, and asks the
+ * handler for the next buffer when the current one is full. Closing this
+ * stream does nothing.
+ *
+ * @author leadpony
+ */
+final class ByteBufferOutputStream extends OutputStream {
+
+    private ByteBuffer buffer;
+    private final BufferOverflowHandler handler;
+
+    /**
+     * Constructs this stream.
+     *
+     * @param buffer  the buffer to write first.
+     * @param handler the handler called when the buffer is full.
+     */
+    ByteBufferOutputStream(ByteBuffer buffer, BufferOverflowHandler handler) {
+        this.buffer = buffer;
+        this.handler = handler;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (!buffer.hasRemaining()) {
+            overflow();
+        }
+        buffer.put((byte) b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            if (!buffer.hasRemaining()) {
+                overflow();
+            }
+            int bytesToPut = Math.min(len, buffer.remaining());
+            buffer.put(b, off, bytesToPut);
+            off += bytesToPut;
+            len -= bytesToPut;
+        }
+    }
+
+    private void overflow() throws IOException {
+        ByteBuffer next = handler.handleOverflow(buffer);
+        if (next == null || !next.hasRemaining()) {
+            throw new IOException(Message.thatBufferHasNoSpaceRemaining());
+        }
+        this.buffer = next;
+    }
+}
@@ -15,24 +15,60 @@
  */
 package org.leadpony.joy.core;
 
-import java.io.BufferedWriter;
+import static org.leadpony.joy.core.Preconditions.requireNonNull;
+
 import java.io.IOException;
-import java.io.StringWriter;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import org.leadpony.joy.api.ReusableJsonGenerator;
 
 /**
  * @author leadpony
  */
-class CompactJsonGenerator extends SimpleJsonGenerator {
+class CompactJsonGenerator extends SimpleJsonGenerator implements ReusableJsonGenerator {
 
-    private final Writer writer;
+    private Writer writer;
     private final CharBufferFactory bufferFactory;
+    private final ByteBufferFactory byteBufferFactory;
     private boolean alreadyClosed;
 
-    CompactJsonGenerator(Writer writer, CharBufferFactory bufferFactory) {
+    CompactJsonGenerator(Writer writer, CharBufferFactory bufferFactory, ByteBufferFactory byteBufferFactory) {
         super(bufferFactory.createBuffer());
-        this.writer = decorateWriter(writer);
+        this.writer = writer;
         this.bufferFactory = bufferFactory;
+        this.byteBufferFactory = byteBufferFactory;
+    }
+
+    @Override
+    public void reset(Writer writer) {
+        requireNonNull(writer, "writer");
+        resetOutput(writer);
+    }
+
+    @Override
+    public void reset(OutputStream out) {
+        requireNonNull(out, "out");
+        if (writer instanceof Utf8StreamWriter) {
+            ((Utf8StreamWriter) writer).reset(out);
+            resetOutput(writer);
+        } else {
+            resetOutput(new Utf8StreamWriter(out, byteBufferFactory));
+        }
+    }
+
+    @Override
+    public void reset(OutputStream out, Charset charset) {
+        requireNonNull(out, "out");
+        requireNonNull(charset, "charset");
+        if (charset.equals(StandardCharsets.UTF_8)) {
+            reset(out);
+        } else {
+            resetOutput(new OutputStreamWriter(out, charset));
+        }
     }
 
     @Override
@@ -74,18 +110,19 @@ class CompactJsonGenerator extends SimpleJsonGenerator {
         }
     }
 
+    private void resetOutput(Writer writer) {
+        if (alreadyClosed) {
+            this.writeBuffer = bufferFactory.createBuffer();
+            this.alreadyClosed = false;
+        }
+        this.writer = writer;
+        resetState();
+    }
+
     private void flushBuffer() throws IOException {
         if (writePos > 0) {
             writer.write(writeBuffer, 0, writePos);
             writePos = 0;
         }
     }
-
-    private static Writer decorateWriter(Writer writer) {
-        if (writer instanceof StringWriter) {
-            return writer;
-        } else {
-            return new BufferedWriter(writer);
-        }
-    }
 }
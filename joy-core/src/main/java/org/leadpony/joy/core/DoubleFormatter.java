@@ -0,0 +1,302 @@
+/*
+ * Copyright 2019-2020 the Joy Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.joy.core;
+
+import java.math.BigInteger;
+
+/**
+ * A converter from doubles to the shortest decimal strings.
+ *
+ * <p>
+ * This class implements the Schubfach algorithm by Raffaello Giulietti,
+ * described in "The Schubfach way to render doubles". The digits are the
+ * shortest ones which are converted back to the same double, and the closest
+ * to the double if there are two or more candidates. The digits are formatted
+ * in the same way as {@link Double#toString(double)}, without creating any
+ * objects. The result is the same as {@link Double#toString(double)} of Java
+ * 19 and later, while older versions may write more digits than needed.
+ * </p>
+ *
+ * @author leadpony
+ */
+final class DoubleFormatter {
+
+    /**
+     * The maximum number of characters written for a double, as in
+     * {@code -2.2250738585072014E-308}.
+     */
+    static final int MAX_LENGTH = 24;
+
+    private static final int PRECISION = 53;
+    private static final int MIN_EXPONENT = -1074;
+    private static final long HIDDEN_BIT = 1L << (PRECISION - 1);
+    private static final long SIGNIFICAND_MASK = HIDDEN_BIT - 1;
+    private static final int BIASED_EXPONENT_MASK = 0x7ff;
+    // The subnormal significands which have too few digits.
+    private static final long TINY_SIGNIFICAND = 3;
+    private static final long MASK_63 = (1L << 63) - 1;
+
+    private static final int MIN_K = -324;
+    private static final int MAX_K = 292;
+
+    /*
+     * The 126-bit approximations g of 10^-k, where 10^-k = b 2^r with
+     * 2^125 <= b < 2^126 and g = floor(b) + 1. The high and the low 63 bits
+     * are stored alternately.
+     */
+    private static final long[] POWERS_OF_TEN = computePowersOfTen();
+
+    /**
+     * Writes the shortest decimal string of the specified double.
+     *
+     * @param value  the double to write.
+     * @param buffer the buffer to which the characters will be written, which
+     *               must have room for {@link #MAX_LENGTH} characters.
+     * @param pos    the position in the buffer to start writing.
+     * @return the position next to the last character written.
+     */
+    static int format(double value, char[] buffer, int pos) {
+        final long bits = Double.doubleToRawLongBits(value);
+        final long t = bits & SIGNIFICAND_MASK;
+        final int bq = (int) (bits >>> (PRECISION - 1)) & BIASED_EXPONENT_MASK;
+        if (bq == BIASED_EXPONENT_MASK) {
+            return writeString(Double.toString(value), buffer, pos);
+        }
+        if (bits < 0) {
+            buffer[pos++] = '-';
+        }
+        if (bq != 0) {
+            final int mq = -MIN_EXPONENT + 1 - bq;
+            final long c = HIDDEN_BIT | t;
+            if (0 < mq && mq < PRECISION) {
+                final long f = c >> mq;
+                if (f << mq == c) {
+                    // The double is an integer.
+                    return writeDecimal(f, 0, buffer, pos);
+                }
+            }
+            return toDecimal(-mq, c, 0, buffer, pos);
+        }
+        if (t != 0) {
+            if (t < TINY_SIGNIFICAND) {
+                return toDecimal(MIN_EXPONENT, 10 * t, -1, buffer, pos);
+            }
+            return toDecimal(MIN_EXPONENT, t, 0, buffer, pos);
+        }
+        return writeString("0.0", buffer, pos);
+    }
+
+    /**
+     * Finds the shortest decimal of the double {@code c 2^q}.
+     */
+    private static int toDecimal(int q, long c, int dk, char[] buffer, int pos) {
+        final int out = (int) c & 0x1;
+        final long cb = c << 2;
+        final long cbr = cb + 2;
+        final long cbl;
+        final int k;
+        if (c != HIDDEN_BIT || q == MIN_EXPONENT) {
+            cbl = cb - 2;
+            k = floorLog10Pow2(q);
+        } else {
+            // The lower neighbor is closer at the boundary of binades.
+            cbl = cb - 1;
+            k = floorLog10ThreeQuartersPow2(q);
+        }
+        final int h = q + floorLog2Pow10(-k) + 2;
+
+        final int index = (k - MIN_K) * 2;
+        final long g1 = POWERS_OF_TEN[index];
+        final long g0 = POWERS_OF_TEN[index + 1];
+
+        final long vb = roundToOdd(g1, g0, cb << h);
+        final long vbl = roundToOdd(g1, g0, cbl << h);
+        final long vbr = roundToOdd(g1, g0, cbr << h);
+
+        final long s = vb >> 2;
+        if (s >= 100) {
+            // sp10 = floor(s / 10) * 10
+            final long sp10 = 10 * multiplyHigh(s, 115_292_150_460_684_698L << 4);
+            final long tp10 = sp10 + 10;
+            final boolean upin = vbl + out <= sp10 << 2;
+            final boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) {
+                return writeDecimal(upin ? sp10 : tp10, k + dk, buffer, pos);
+            }
+        }
+
+        final long t = s + 1;
+        final boolean uin = vbl + out <= s << 2;
+        final boolean win = (t << 2) + out <= vbr;
+        if (uin != win) {
+            return writeDecimal(uin ? s : t, k + dk, buffer, pos);
+        }
+        // Both are in the rounding interval, the closer one is chosen.
+        final long cmp = vb - ((s + t) << 1);
+        final long f = (cmp < 0 || (cmp == 0 && (s & 0x1) == 0)) ? s : t;
+        return writeDecimal(f, k + dk, buffer, pos);
+    }
+
+    /**
+     * Writes the decimal {@code f 10^e} in the format of
+     * {@link Double#toString(double)}.
+     */
+    private static int writeDecimal(long f, int e, char[] buffer, int pos) {
+        while (f % 10 == 0) {
+            f /= 10;
+            e++;
+        }
+        final int length = countDigits(f);
+        // The decimal is 0.d1d2...dn 10^point.
+        final int point = length + e;
+        if (0 < point && point <= 7) {
+            if (length <= point) {
+                writeDigits(f, buffer, pos + length);
+                pos += length;
+                for (int i = length; i < point; i++) {
+                    buffer[pos++] = '0';
+                }
+                buffer[pos++] = '.';
+                buffer[pos++] = '0';
+            } else {
+                writeDigits(f, buffer, pos + length + 1);
+                System.arraycopy(buffer, pos + 1, buffer, pos, point);
+                buffer[pos + point] = '.';
+                pos += length + 1;
+            }
+        } else if (-3 < point && point <= 0) {
+            buffer[pos++] = '0';
+            buffer[pos++] = '.';
+            for (int i = point; i < 0; i++) {
+                buffer[pos++] = '0';
+            }
+            pos += length;
+            writeDigits(f, buffer, pos);
+        } else {
+            writeDigits(f, buffer, pos + length + 1);
+            buffer[pos] = buffer[pos + 1];
+            buffer[pos + 1] = '.';
+            if (length == 1) {
+                buffer[pos + 2] = '0';
+                pos += 3;
+            } else {
+                pos += length + 1;
+            }
+            buffer[pos++] = 'E';
+            int exponent = point - 1;
+            if (exponent < 0) {
+                buffer[pos++] = '-';
+                exponent = -exponent;
+            }
+            pos += countDigits(exponent);
+            writeDigits(exponent, buffer, pos);
+        }
+        return pos;
+    }
+
+    /**
+     * Writes the digits of the specified positive number, ending at the
+     * specified position.
+     */
+    private static void writeDigits(long value, char[] buffer, int end) {
+        do {
+            long q = value / 10;
+            buffer[--end] = (char) ('0' + (value - q * 10));
+            value = q;
+        } while (value > 0);
+    }
+
+    private static int countDigits(long value) {
+        int digits = 1;
+        while (value >= 10) {
+            value /= 10;
+            digits++;
+        }
+        return digits;
+    }
+
+    private static int writeString(String string, char[] buffer, int pos) {
+        final int length = string.length();
+        string.getChars(0, length, buffer, pos);
+        return pos + length;
+    }
+
+    /**
+     * Returns {@code floor(g cp / 2^127)}, with the lowest bit set if the
+     * result is not exact.
+     */
+    private static long roundToOdd(long g1, long g0, long cp) {
+        final long x1 = multiplyHigh(g0, cp);
+        final long y0 = g1 * cp;
+        final long y1 = multiplyHigh(g1, cp);
+        final long z = (y0 >>> 1) + x1;
+        final long vbp = y1 + (z >>> 63);
+        return vbp | (((z & MASK_63) + MASK_63) >>> 63);
+    }
+
+    // floor(q log10(2))
+    private static int floorLog10Pow2(int q) {
+        return (int) (q * 661_971_961_083L >> 41);
+    }
+
+    // floor(log10(3/4 2^q))
+    private static int floorLog10ThreeQuartersPow2(int q) {
+        return (int) (q * 661_971_961_083L - 274_743_187_321L >> 41);
+    }
+
+    // floor(e log2(10))
+    private static int floorLog2Pow10(int e) {
+        return (int) (e * 913_124_641_741L >> 38);
+    }
+
+    /**
+     * Returns the high 64 bits of the product of two non-negative numbers.
+     */
+    private static long multiplyHigh(long x, long y) {
+        final long x1 = x >>> 32;
+        final long x2 = x & 0xffffffffL;
+        final long y1 = y >>> 32;
+        final long y2 = y & 0xffffffffL;
+        final long z2 = x2 * y2;
+        final long t = x1 * y2 + (z2 >>> 32);
+        final long z1 = (t & 0xffffffffL) + x2 * y1;
+        return x1 * y1 + (t >>> 32) + (z1 >>> 32);
+    }
+
+    private static long[] computePowersOfTen() {
+        final long[] table = new long[(MAX_K - MIN_K + 1) * 2];
+        final BigInteger mask = BigInteger.ONE.shiftLeft(63).subtract(BigInteger.ONE);
+        for (int k = MIN_K; k <= MAX_K; k++) {
+            BigInteger g;
+            if (k <= 0) {
+                BigInteger power = BigInteger.TEN.pow(-k);
+                int shift = power.bitLength() - 126;
+                g = (shift > 0) ? power.shiftRight(shift) : power.shiftLeft(-shift);
+            } else {
+                BigInteger power = BigInteger.TEN.pow(k);
+                g = BigInteger.ONE.shiftLeft(power.bitLength() + 125).divide(power);
+            }
+            g = g.add(BigInteger.ONE);
+            int index = (k - MIN_K) * 2;
+            table[index] = g.shiftRight(63).longValue();
+            table[index + 1] = g.and(mask).longValue();
+        }
+        return table;
+    }
+
+    private DoubleFormatter() {
+    }
+}
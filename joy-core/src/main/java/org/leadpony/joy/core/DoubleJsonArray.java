@@ -0,0 +1,87 @@
+/*
+ * Copyright 2019-2020 the Joy Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.joy.core;
+
+import java.math.BigDecimal;
+
+import jakarta.json.JsonValue;
+
+import org.leadpony.joy.api.JsonNumberArray;
+
+/**
+ * A JSON array of numbers holding {@code double} values. Each number is
+ * exactly the shortest decimal representation of the double value, with the
+ * same scale.
+ *
+ * @author leadpony
+ */
+final class DoubleJsonArray extends AbstractJsonArray implements JsonNumberArray {
+
+    private final double[] values;
+
+    DoubleJsonArray(double[] values) {
+        this.values = values;
+    }
+
+    /* As a JsonNumberArray */
+
+    @Override
+    public int[] toIntArray() {
+        int[] result = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = decimalValue(values[i]).intValue();
+        }
+        return result;
+    }
+
+    @Override
+    public long[] toLongArray() {
+        long[] result = new long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = decimalValue(values[i]).longValue();
+        }
+        return result;
+    }
+
+    @Override
+    public double[] toDoubleArray() {
+        return values.clone();
+    }
+
+    /* As a List */
+
+    @Override
+    public JsonValue get(int index) {
+        return JsonValues.valueOf(decimalValue(values[index]));
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * Returns the shortest decimal representation of the specified value.
+     *
+     * @param value the finite value to convert.
+     * @return the decimal number of the value.
+     */
+    static BigDecimal decimalValue(double value) {
+        char[] chars = new char[DoubleFormatter.MAX_LENGTH];
+        int length = DoubleFormatter.format(value, chars, 0);
+        return new BigDecimal(chars, 0, length);
+    }
+}
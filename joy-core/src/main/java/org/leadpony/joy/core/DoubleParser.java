@@ -0,0 +1,179 @@
+/*
+ * Copyright 2019-2020 the Joy Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.joy.core;
+
+import java.math.BigInteger;
+
+/**
+ * A converter from decimal numbers to the nearest doubles.
+ *
+ * <p>
+ * This class implements the algorithm by Daniel Lemire and Michael Eisel,
+ * described in "Number Parsing at a Gigabyte per Second". The conversion may
+ * fail for a few ambiguous inputs, in which case the caller should use a
+ * slower but exact method.
+ * </p>
+ *
+ * @author leadpony
+ */
+final class DoubleParser {
+
+    private static final double[] SMALL_POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private static final int MIN_EXPONENT = -348;
+    private static final int MAX_EXPONENT = 347;
+
+    /*
+     * The 128-bit mantissas of the powers of ten, rounded down. The high and
+     * the low 64 bits are stored alternately.
+     */
+    private static final long[] POWERS_OF_TEN = computePowersOfTen();
+
+    private static final long MAX_EXACT_SIGNIFICAND = 1L << 53;
+
+    private static final int EXPONENT_BIAS = 1023;
+
+    /**
+     * Converts the number {@code significand * 10^exponent} to the nearest
+     * double.
+     *
+     * @param significand the significand, interpreted as an unsigned value.
+     * @param exponent    the decimal exponent.
+     * @param negative    {@code true} if the number is negative.
+     * @return the nearest double, or {@code NaN} if the conversion failed.
+     */
+    static double toDouble(long significand, int exponent, boolean negative) {
+        if (significand == 0) {
+            return negative ? -0.0 : 0.0;
+        }
+        if (significand >= 0 && significand <= MAX_EXACT_SIGNIFICAND
+                && exponent >= -22 && exponent <= 22) {
+            // Both the significand and the power of ten are exact.
+            double value = significand;
+            if (exponent < 0) {
+                value /= SMALL_POWERS_OF_TEN[-exponent];
+            } else {
+                value *= SMALL_POWERS_OF_TEN[exponent];
+            }
+            return negative ? -value : value;
+        }
+        return computeDouble(significand, exponent, negative);
+    }
+
+    private static double computeDouble(long significand, int exponent, boolean negative) {
+        if (exponent < MIN_EXPONENT || exponent > MAX_EXPONENT) {
+            return Double.NaN;
+        }
+
+        // Normalization
+        final int leadingZeros = Long.numberOfLeadingZeros(significand);
+        significand <<= leadingZeros;
+        long exponent2 = ((217706 * exponent) >> 16) + 64 + EXPONENT_BIAS - leadingZeros;
+
+        // Multiplication
+        final int index = (exponent - MIN_EXPONENT) * 2;
+        final long powerHigh = POWERS_OF_TEN[index];
+        final long powerLow = POWERS_OF_TEN[index + 1];
+        long high = unsignedMultiplyHigh(significand, powerHigh);
+        long low = significand * powerHigh;
+
+        // Wider approximation
+        if ((high & 0x1ff) == 0x1ff && Long.compareUnsigned(low + significand, significand) < 0) {
+            long high2 = unsignedMultiplyHigh(significand, powerLow);
+            long low2 = significand * powerLow;
+            long mergedHigh = high;
+            long mergedLow = low + high2;
+            if (Long.compareUnsigned(mergedLow, low) < 0) {
+                mergedHigh++;
+            }
+            if ((mergedHigh & 0x1ff) == 0x1ff && mergedLow + 1 == 0
+                    && Long.compareUnsigned(low2 + significand, significand) < 0) {
+                return Double.NaN;
+            }
+            high = mergedHigh;
+            low = mergedLow;
+        }
+
+        // Shifting to 54 bits
+        final long msb = high >>> 63;
+        long mantissa = high >>> (msb + 9);
+        exponent2 -= 1 ^ msb;
+
+        // Half-way ambiguity
+        if (low == 0 && (high & 0x1ff) == 0 && (mantissa & 3) == 1) {
+            return Double.NaN;
+        }
+
+        // From 54 to 53 bits
+        mantissa += mantissa & 1;
+        mantissa >>>= 1;
+        if ((mantissa >>> 53) > 0) {
+            mantissa >>>= 1;
+            exponent2++;
+        }
+
+        // Subnormal, infinity and NaN are not handled here.
+        if (Long.compareUnsigned(exponent2 - 1, 0x7ff - 1) >= 0) {
+            return Double.NaN;
+        }
+
+        long bits = (exponent2 << 52) | (mantissa & 0x000fffffffffffffL);
+        if (negative) {
+            bits |= 0x8000000000000000L;
+        }
+        return Double.longBitsToDouble(bits);
+    }
+
+    private static long unsignedMultiplyHigh(long x, long y) {
+        final long x1 = x >> 32;
+        final long x2 = x & 0xffffffffL;
+        final long y1 = y >> 32;
+        final long y2 = y & 0xffffffffL;
+        final long z2 = x2 * y2;
+        final long t = x1 * y2 + (z2 >>> 32);
+        long z1 = t & 0xffffffffL;
+        final long z0 = t >> 32;
+        z1 += x2 * y1;
+        final long signedHigh = x1 * y1 + z0 + (z1 >> 32);
+        return signedHigh + ((x >> 63) & y) + ((y >> 63) & x);
+    }
+
+    private static long[] computePowersOfTen() {
+        final long[] table = new long[(MAX_EXPONENT - MIN_EXPONENT + 1) * 2];
+        final BigInteger mask = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+        for (int exponent = MIN_EXPONENT; exponent <= MAX_EXPONENT; exponent++) {
+            BigInteger mantissa;
+            if (exponent >= 0) {
+                BigInteger power = BigInteger.TEN.pow(exponent);
+                int shift = power.bitLength() - 128;
+                mantissa = (shift > 0) ? power.shiftRight(shift) : power.shiftLeft(-shift);
+            } else {
+                BigInteger power = BigInteger.TEN.pow(-exponent);
+                mantissa = BigInteger.ONE.shiftLeft(power.bitLength() + 127).divide(power);
+            }
+            int index = (exponent - MIN_EXPONENT) * 2;
+            table[index] = mantissa.shiftRight(64).longValue();
+            table[index + 1] = mantissa.and(mask).longValue();
+        }
+        return table;
+    }
+
+    private DoubleParser() {
+    }
+}
@@ -42,4 +42,31 @@ interface ExtendedJsonPointer extends JsonPointer {
      * @throws NullPointerException if {@code other} is {@code null}.
      */
     boolean startsWith(ExtendedJsonPointer other);
+
+    /**
+     * Returns the number of the reference tokens in this pointer.
+     *
+     * @return the number of the reference tokens.
+     */
+    int getTokenCount();
+
+    /**
+     * Returns the unescaped reference token at the specified position.
+     *
+     * @param position the position of the reference token.
+     * @return the reference token as a property key.
+     * @throws IndexOutOfBoundsException if the position is out of range.
+     */
+    String getToken(int position);
+
+    /**
+     * Returns the array index referred by the reference token at the specified
+     * position.
+     *
+     * @param position the position of the reference token.
+     * @return the array index, or -1 if the reference token is not an array
+     *         index.
+     * @throws IndexOutOfBoundsException if the position is out of range.
+     */
+    int getIndex(int position);
 }
@@ -0,0 +1,403 @@
+/*
+ * Copyright 2019-2020 the Joy Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.joy.core;
+
+import static org.leadpony.joy.core.Preconditions.requireNonNull;
+
+import java.nio.ByteBuffer;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+import jakarta.json.JsonArray;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonValue;
+
+import org.leadpony.joy.api.JsonFeedParser;
+
+/**
+ * An implementation of {@link JsonFeedParser}.
+ *
+ * <p>
+ * The fed bytes are appended to the buffer of the UTF-8 parser, which reads
+ * them in place. Before each event, the bytes after the current position are
+ * scanned until the tokens of the next event are found complete, so the
+ * parser never reaches the end of the buffer in the middle of a token. The
+ * scanning state is kept between the chunks, and the bytes once scanned are
+ * not scanned again.
+ * </p>
+ *
+ * <p>
+ * The methods reading the rest of an array or an object first check that its
+ * closing bracket was already fed, so they never stop in the middle of the
+ * value for lack of input.
+ * </p>
+ *
+ * @author leadpony
+ */
+final class FeedJsonParser extends Utf8JsonParser implements JsonFeedParser {
+
+    private static final int INITIAL_BUFFER_SIZE = 8192;
+
+    private static final int NONE = 0;
+    private static final int STRING = 1;
+    private static final int ESCAPE = 2;
+    private static final int UNICODE_ESCAPE = 3;
+    private static final int NUMBER = 4;
+    private static final int LITERAL = 5;
+
+    private boolean endOfInput;
+
+    /*
+     * The state of the scanning.
+     */
+    private int scanPos;
+    // The start of the first token, or the end of the spaces scanned.
+    private int scanMark;
+    private int scanMode;
+    // The number of bytes remaining in the current literal or escape.
+    private int remaining;
+    private int tokens;
+    private boolean separatorFirst;
+
+    FeedJsonParser() {
+        super(new byte[INITIAL_BUFFER_SIZE], 0, 0);
+    }
+
+    /* As a JsonFeedParser */
+
+    @Override
+    public void feed(ByteBuffer input) {
+        requireNonNull(input, "input");
+        if (endOfInput) {
+            throw new IllegalStateException(Message.thatEndOfInputHasBeenAlreadyFed());
+        }
+        final int length = input.remaining();
+        ensureCapacity(length);
+        input.get(readBuffer, readEnd, length);
+        readEnd += length;
+    }
+
+    @Override
+    public void endOfInput() {
+        this.endOfInput = true;
+    }
+
+    @Override
+    public boolean needsMoreInput() {
+        return !endOfInput && !scanNextEvent();
+    }
+
+    /* As a JsonParser */
+
+    @Override
+    public boolean hasNext() {
+        if (!endOfInput && !scanNextEvent()) {
+            return false;
+        }
+        return super.hasNext();
+    }
+
+    @Override
+    public Event next() {
+        if (!endOfInput && !scanNextEvent()) {
+            throw new NoSuchElementException(Message.thatParserNeedsMoreInput());
+        }
+        return super.next();
+    }
+
+    @Override
+    public JsonValue getValue() {
+        Event event = getCurrentEvent();
+        if (event == Event.START_ARRAY || event == Event.START_OBJECT) {
+            requireRestOfContainer("getValue()");
+        }
+        return super.getValue();
+    }
+
+    @Override
+    public JsonArray getArray() {
+        if (getCurrentEvent() == Event.START_ARRAY) {
+            requireRestOfContainer("getArray()");
+        }
+        return super.getArray();
+    }
+
+    @Override
+    public JsonObject getObject() {
+        if (getCurrentEvent() == Event.START_OBJECT) {
+            requireRestOfContainer("getObject()");
+        }
+        return super.getObject();
+    }
+
+    @Override
+    public Stream<JsonValue> getArrayStream() {
+        if (getCurrentEvent() == Event.START_ARRAY) {
+            requireRestOfContainer("getArrayStream()");
+        }
+        return super.getArrayStream();
+    }
+
+    @Override
+    public Stream<Entry<String, JsonValue>> getObjectStream() {
+        if (getCurrentEvent() == Event.START_OBJECT) {
+            requireRestOfContainer("getObjectStream()");
+        }
+        return super.getObjectStream();
+    }
+
+    @Override
+    public void skipArray() {
+        if (isInArray()) {
+            requireRestOfContainer("skipArray()");
+        }
+        super.skipArray();
+    }
+
+    @Override
+    public void skipObject() {
+        if (isInObject()) {
+            requireRestOfContainer("skipObject()");
+        }
+        super.skipObject();
+    }
+
+    /* As a AbstractBasicJsonParser */
+
+    @Override
+    protected boolean hasWholeInput() {
+        return false;
+    }
+
+    /**
+     * Scans the bytes until the tokens of the next event are found.
+     *
+     * @return {@code true} if the next event can be produced.
+     */
+    private boolean scanNextEvent() {
+        if (readPos > scanMark) {
+            // The tokens scanned were consumed by the parser.
+            resetScan();
+        }
+        final byte[] buffer = this.readBuffer;
+        final int readEnd = this.readEnd;
+        int pos = this.scanPos;
+        while (pos < readEnd && !isNextEventScanned()) {
+            final int c = buffer[pos];
+            switch (scanMode) {
+            case NONE:
+                pos++;
+                if (c == ' ' || c == '\t' || c == '\n' || c == '\r') {
+                    if (tokens == 0) {
+                        scanMark = pos;
+                    }
+                } else if (c == '"') {
+                    scanMode = STRING;
+                } else if (c == '-' || (c >= '0' && c <= '9')) {
+                    scanMode = NUMBER;
+                } else if (c == 't' || c == 'n') {
+                    startLiteral(3);
+                } else if (c == 'f') {
+                    startLiteral(4);
+                } else if (c == ',' || c == ':') {
+                    endToken(true);
+                } else {
+                    // Structural or unexpected characters
+                    endUnexpectedToken(c);
+                }
+                break;
+            case STRING:
+                pos++;
+                if (c == '"' || (c >= 0 && c < 0x20)) {
+                    endToken(false);
+                } else if (c == '\\') {
+                    scanMode = ESCAPE;
+                }
+                break;
+            case ESCAPE:
+                pos++;
+                if (c == 'u') {
+                    scanMode = UNICODE_ESCAPE;
+                    remaining = 4;
+                } else {
+                    scanMode = STRING;
+                }
+                break;
+            case UNICODE_ESCAPE:
+                pos++;
+                if (isHexadecimal(c)) {
+                    if (--remaining == 0) {
+                        scanMode = STRING;
+                    }
+                } else {
+                    // The parser will report the error.
+                    endUnexpectedToken(c);
+                }
+                break;
+            case NUMBER:
+                if (isNumberChar(c)) {
+                    pos++;
+                } else if (c < 0) {
+                    // The parser may report the error in the middle of the number.
+                    pos++;
+                    endUnexpectedToken(c);
+                } else {
+                    // The terminating character is scanned again.
+                    endToken(false);
+                }
+                break;
+            case LITERAL:
+                pos++;
+                // Unexpected characters must be complete to be reported.
+                remaining = Math.max(remaining - 1, countTrailingBytes(c));
+                if (remaining == 0) {
+                    endToken(false);
+                }
+                break;
+            default:
+                throw new IllegalStateException();
+            }
+        }
+        this.scanPos = pos;
+        return isNextEventScanned();
+    }
+
+    /**
+     * Checks that the closing bracket of the current array or object was
+     * already fed.
+     *
+     * @param method the name of the method called.
+     * @throws IllegalStateException if more input is needed.
+     */
+    private void requireRestOfContainer(String method) {
+        if (endOfInput) {
+            return;
+        }
+        final byte[] buffer = this.readBuffer;
+        boolean inString = false;
+        boolean escaped = false;
+        int depth = 1;
+        for (int i = readPos; i < readEnd; i++) {
+            final int c = buffer[i];
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (c == '\\') {
+                    escaped = true;
+                } else if (c == '"') {
+                    inString = false;
+                }
+            } else if (c == '"') {
+                inString = true;
+            } else if (c == '[' || c == '{') {
+                depth++;
+            } else if ((c == ']' || c == '}') && --depth == 0) {
+                return;
+            }
+        }
+        throw new IllegalStateException(Message.thatWholeValueHasNotBeenFed(method));
+    }
+
+    private boolean isNextEventScanned() {
+        return tokens >= 2 || (tokens == 1 && !separatorFirst);
+    }
+
+    private void resetScan() {
+        this.scanPos = readPos;
+        this.scanMark = readPos;
+        this.scanMode = NONE;
+        this.tokens = 0;
+        this.separatorFirst = false;
+    }
+
+    private void startLiteral(int length) {
+        scanMode = LITERAL;
+        remaining = length;
+    }
+
+    private void endToken(boolean separator) {
+        if (tokens++ == 0) {
+            separatorFirst = separator;
+        }
+        scanMode = NONE;
+    }
+
+    private void endUnexpectedToken(int c) {
+        final int trailing = countTrailingBytes(c);
+        if (trailing > 0) {
+            startLiteral(trailing);
+        } else {
+            endToken(false);
+        }
+    }
+
+    /**
+     * Makes room for the bytes to be fed, discarding the bytes already
+     * consumed.
+     *
+     * @param length the number of bytes to be fed.
+     */
+    private void ensureCapacity(int length) {
+        if (readBuffer.length - readEnd >= length) {
+            return;
+        }
+        if (readPos > scanMark) {
+            resetScan();
+        }
+        int keep = readPos;
+        if (hasValue()) {
+            keep = Math.min(keep, valueStart);
+        }
+        if (lazyLocation) {
+            countLines(keep);
+        }
+        resolveLineOffset();
+        final long keptOffset = getStreamOffset(keep);
+        final int kept = readEnd - keep;
+        byte[] buffer = readBuffer;
+        if (kept + length > buffer.length) {
+            buffer = new byte[Math.max(buffer.length * 2, kept + length)];
+        }
+        System.arraycopy(readBuffer, keep, buffer, 0, kept);
+        this.readBuffer = buffer;
+
+        this.bufferOffset = keptOffset;
+        this.readStart = 0;
+        this.readPos -= keep;
+        this.readEnd = kept;
+        this.valueStart -= keep;
+        this.valueEnd -= keep;
+        this.scanPos -= keep;
+        this.scanMark -= keep;
+        this.linesCounted -= keep;
+        this.charsCounted = 0;
+        this.extraBytes = 0;
+    }
+
+    private boolean hasValue() {
+        Event event = getCurrentEvent();
+        return event == Event.KEY_NAME || event == Event.VALUE_STRING || event == Event.VALUE_NUMBER;
+    }
+
+    private static boolean isHexadecimal(int c) {
+        return (c >= '0' && c <= '9') || (c >= 'A' && c <= 'F') || (c >= 'a' && c <= 'f');
+    }
+
+    private static boolean isNumberChar(int c) {
+        return (c >= '0' && c <= '9') || c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-';
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2019-2020 the Joy Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.joy.core;
+
+import static org.leadpony.joy.core.Preconditions.requireNonNull;
+
+import java.nio.charset.StandardCharsets;
+
+import org.leadpony.joy.api.FieldSet;
+
+/**
+ * A {@link FieldSet} which can match the field names against characters or
+ * UTF-8 encoded bytes in place.
+ *
+ * @author leadpony
+ */
+final class FieldSetImpl implements FieldSet {
+
+    private final String[] names;
+    private final byte[][] encodedNames;
+
+    /*
+     * Open addressing tables holding the index of each name plus one. The
+     * first is keyed by the hash of the characters, the second by the hash of
+     * the UTF-8 bytes.
+     */
+    private final int[] charTable;
+    private final int[] byteTable;
+    private final int mask;
+
+    FieldSetImpl(String... names) {
+        requireNonNull(names, "names");
+        this.names = names.clone();
+        this.encodedNames = new byte[names.length][];
+
+        int tableSize = 2;
+        while (tableSize < names.length * 2) {
+            tableSize <<= 1;
+        }
+        this.charTable = new int[tableSize];
+        this.byteTable = new int[tableSize];
+        this.mask = tableSize - 1;
+
+        for (int i = 0; i < this.names.length; i++) {
+            String name = this.names[i];
+            requireNonNull(name, "names[" + i + "]");
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            this.encodedNames[i] = bytes;
+            if (indexOf(name) == NOT_FOUND) {
+                put(charTable, name.hashCode(), i);
+                put(byteTable, hash(bytes, 0, bytes.length), i);
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return names.length;
+    }
+
+    @Override
+    public String getName(int index) {
+        return names[index];
+    }
+
+    @Override
+    public int indexOf(String name) {
+        if (name == null) {
+            return NOT_FOUND;
+        }
+        int slot = slotOf(name.hashCode());
+        int entry;
+        while ((entry = charTable[slot]) != 0) {
+            if (names[entry - 1].equals(name)) {
+                return entry - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * Returns the index of the name equal to the specified characters.
+     *
+     * @param chars  the array of characters.
+     * @param offset the offset of the first character.
+     * @param length the number of characters.
+     * @return the index of the name, or {@link #NOT_FOUND}.
+     */
+    int indexOf(char[] chars, int offset, int length) {
+        final int end = offset + length;
+        int hash = 0;
+        for (int i = offset; i < end; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        int slot = slotOf(hash);
+        int entry;
+        while ((entry = charTable[slot]) != 0) {
+            if (matches(names[entry - 1], chars, offset, length)) {
+                return entry - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * Returns the index of the name equal to the specified UTF-8 bytes.
+     *
+     * @param bytes  the array of bytes.
+     * @param offset the offset of the first byte.
+     * @param length the number of bytes.
+     * @return the index of the name, or {@link #NOT_FOUND}.
+     */
+    int indexOf(byte[] bytes, int offset, int length) {
+        int slot = slotOf(hash(bytes, offset, length));
+        int entry;
+        while ((entry = byteTable[slot]) != 0) {
+            if (matches(encodedNames[entry - 1], bytes, offset, length)) {
+                return entry - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return NOT_FOUND;
+    }
+
+    private void put(int[] table, int hash, int index) {
+        int slot = slotOf(hash);
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = index + 1;
+    }
+
+    private int slotOf(int hash) {
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private static int hash(byte[] bytes, int offset, int length) {
+        final int end = offset + length;
+        int hash = 0;
+        for (int i = offset; i < end; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+        return hash;
+    }
+
+    private static boolean matches(String name, char[] chars, int offset, int length) {
+        if (name.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (name.charAt(i) != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matches(byte[] name, byte[] bytes, int offset, int length) {
+        if (name.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (name[i] != bytes[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,360 @@
+/*
+ * Copyright 2019-2020 the Joy Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.joy.core;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import jakarta.json.JsonNumber;
+import jakarta.json.JsonString;
+import jakarta.json.stream.JsonLocation;
+
+import org.leadpony.joy.api.FieldSet;
+import org.leadpony.joy.api.JsonParser;
+
+/**
+ * A JSON parser which emits only the values selected by JSON pointers.
+ *
+ * <p>
+ * The selected values are emitted together with the enclosing arrays, objects
+ * and key names, so the events always form a well-formed JSON document. Any
+ * other values are skipped by the underlying parser without producing
+ * events.
+ * </p>
+ *
+ * @author leadpony
+ */
+final class FilteredJsonParser extends AbstractJsonParser {
+
+    private static final Frame MATCHED_ARRAY = new Frame(null, true);
+    private static final Frame MATCHED_OBJECT = new Frame(null, false);
+
+    private final JsonParser parser;
+    private final PointerNode root;
+
+    private boolean started;
+    // Frames of the containers which were emitted and not closed yet.
+    private final Deque<Frame> frames = new ArrayDeque<>();
+
+    private Event currentEvent;
+    // The key name matched with a pointer, or null if read by the underlying parser.
+    private String keyName;
+    // The value event already read from the underlying parser.
+    private Event pendingEvent;
+    private PointerNode pendingNode;
+
+    FilteredJsonParser(JsonParser parser, List<ExtendedJsonPointer> pointers) {
+        this.parser = parser;
+        this.root = new PointerNode();
+        for (ExtendedJsonPointer pointer : pointers) {
+            this.root.add(pointer, 0);
+        }
+        this.root.prepare();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (pendingEvent != null || !frames.isEmpty()) {
+            return true;
+        }
+        if (!started) {
+            started = true;
+            if (parser.hasNext()) {
+                Event event = parser.next();
+                if (root.isTerminal() || isStart(event)) {
+                    this.pendingEvent = event;
+                    this.pendingNode = root;
+                    return true;
+                }
+            }
+        }
+        return parser.hasNext();
+    }
+
+    @Override
+    public Event next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException(Message.thatNoMoreParserEventsWereFound());
+        }
+        this.keyName = null;
+        Event event;
+        if (pendingEvent != null) {
+            event = pendingEvent;
+            this.pendingEvent = null;
+            enterValue(event, pendingNode);
+        } else {
+            Frame frame = frames.peek();
+            if (frame.node == null) {
+                event = parser.next();
+                enterValue(event, null);
+            } else if (frame.array) {
+                event = nextArrayItem(frame);
+            } else {
+                event = nextObjectKey(frame);
+            }
+        }
+        this.currentEvent = event;
+        return event;
+    }
+
+    @Override
+    public String getString() {
+        if (keyName != null) {
+            return keyName;
+        }
+        return parser.getString();
+    }
+
+    @Override
+    public Reader getValueReader() {
+        if (keyName != null) {
+            return new StringReader(keyName);
+        }
+        return parser.getValueReader();
+    }
+
+    @Override
+    public boolean isIntegralNumber() {
+        return parser.isIntegralNumber();
+    }
+
+    @Override
+    public int getInt() {
+        return parser.getInt();
+    }
+
+    @Override
+    public long getLong() {
+        return parser.getLong();
+    }
+
+    @Override
+    public BigDecimal getBigDecimal() {
+        return parser.getBigDecimal();
+    }
+
+    @Override
+    public double getDouble() {
+        return parser.getDouble();
+    }
+
+    @Override
+    public JsonLocation getLocation() {
+        return parser.getLocation();
+    }
+
+    @Override
+    public void close() {
+        parser.close();
+    }
+
+    /* As a AbstractJsonParser */
+
+    @Override
+    protected Event getCurrentEvent() {
+        return currentEvent;
+    }
+
+    @Override
+    protected boolean isInArray() {
+        Event event = getCurrentEvent();
+        if (event == Event.START_ARRAY || event == Event.END_ARRAY) {
+            return true;
+        }
+        return frames.stream().anyMatch(frame -> frame.array);
+    }
+
+    @Override
+    protected boolean isInObject() {
+        Event event = getCurrentEvent();
+        if (event == Event.START_OBJECT || event == Event.END_OBJECT) {
+            return true;
+        }
+        return frames.stream().anyMatch(frame -> !frame.array);
+    }
+
+    @Override
+    protected JsonString getValueAsString() {
+        if (keyName != null) {
+            return JsonValues.valueOf(keyName);
+        }
+        return (JsonString) parser.getValue();
+    }
+
+    @Override
+    protected JsonNumber getValueAsNumber() {
+        return (JsonNumber) parser.getValue();
+    }
+
+    /**
+     * Enters the value of the specified event.
+     *
+     * @param event the event which starts the value.
+     * @param node  the node matched with the value, or {@code null} if the
+     *              value is in a selected value.
+     */
+    private void enterValue(Event event, PointerNode node) {
+        switch (event) {
+        case START_ARRAY:
+            frames.push((node == null || node.isTerminal()) ? MATCHED_ARRAY : new Frame(node, true));
+            break;
+        case START_OBJECT:
+            frames.push((node == null || node.isTerminal()) ? MATCHED_OBJECT : new Frame(node, false));
+            break;
+        case END_ARRAY:
+        case END_OBJECT:
+            frames.pop();
+            break;
+        default:
+            break;
+        }
+    }
+
+    private Event nextArrayItem(Frame frame) {
+        for (;;) {
+            Event event = parser.next();
+            if (event == Event.END_ARRAY) {
+                frames.pop();
+                return event;
+            }
+            PointerNode child = frame.node.getItemChild(frame.index++);
+            if (child != null && (child.isTerminal() || isStart(event))) {
+                enterValue(event, child);
+                return event;
+            }
+            skipValue(event);
+        }
+    }
+
+    private Event nextObjectKey(Frame frame) {
+        final PointerNode node = frame.node;
+        for (;;) {
+            int index = parser.nextFieldIndex(node.getFieldSet());
+            if (index == FieldSet.NO_FIELD) {
+                frames.pop();
+                return Event.END_OBJECT;
+            }
+            Event event = parser.next();
+            if (index != FieldSet.NOT_FOUND) {
+                PointerNode child = node.getChild(index);
+                if (child.isTerminal() || isStart(event)) {
+                    this.keyName = node.getFieldSet().getName(index);
+                    this.pendingEvent = event;
+                    this.pendingNode = child;
+                    return Event.KEY_NAME;
+                }
+            }
+            skipValue(event);
+        }
+    }
+
+    private void skipValue(Event event) {
+        if (event == Event.START_ARRAY) {
+            parser.skipArray();
+        } else if (event == Event.START_OBJECT) {
+            parser.skipObject();
+        }
+    }
+
+    private static boolean isStart(Event event) {
+        return event == Event.START_ARRAY || event == Event.START_OBJECT;
+    }
+
+    /**
+     * A container emitted by this parser.
+     *
+     * @author leadpony
+     */
+    private static class Frame {
+
+        // The node matched with this container, or null if selected entirely.
+        final PointerNode node;
+        final boolean array;
+        int index;
+
+        Frame(PointerNode node, boolean array) {
+            this.node = node;
+            this.array = array;
+        }
+    }
+
+    /**
+     * A node of the tree built from the reference tokens of the pointers.
+     *
+     * @author leadpony
+     */
+    private static class PointerNode {
+
+        private boolean terminal;
+        private final List<String> keys = new ArrayList<>();
+        private final List<Integer> indices = new ArrayList<>();
+        private final List<PointerNode> children = new ArrayList<>();
+        private FieldSet fieldSet;
+
+        void add(ExtendedJsonPointer pointer, int position) {
+            if (position == pointer.getTokenCount()) {
+                this.terminal = true;
+                return;
+            }
+            String key = pointer.getToken(position);
+            int index = keys.indexOf(key);
+            PointerNode child;
+            if (index < 0) {
+                child = new PointerNode();
+                keys.add(key);
+                indices.add(pointer.getIndex(position));
+                children.add(child);
+            } else {
+                child = children.get(index);
+            }
+            child.add(pointer, position + 1);
+        }
+
+        void prepare() {
+            this.fieldSet = new FieldSetImpl(keys.toArray(new String[0]));
+            for (PointerNode child : children) {
+                child.prepare();
+            }
+        }
+
+        boolean isTerminal() {
+            return terminal;
+        }
+
+        FieldSet getFieldSet() {
+            return fieldSet;
+        }
+
+        PointerNode getChild(int index) {
+            return children.get(index);
+        }
+
+        PointerNode getItemChild(int index) {
+            for (int i = 0; i < children.size(); i++) {
+                if (indices.get(i) == index) {
+                    return children.get(i);
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2019-2020 the Joy Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.joy.core;
+
+import jakarta.json.JsonValue;
+
+import org.leadpony.joy.api.JsonNumberArray;
+
+/**
+ * A JSON array of numbers holding {@code int} values.
+ *
+ * @author leadpony
+ */
+final class IntJsonArray extends AbstractJsonArray implements JsonNumberArray {
+
+    private final int[] values;
+
+    IntJsonArray(int[] values) {
+        this.values = values;
+    }
+
+    /* As a JsonNumberArray */
+
+    @Override
+    public int[] toIntArray() {
+        return values.clone();
+    }
+
+    @Override
+    public long[] toLongArray() {
+        long[] result = new long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = values[i];
+        }
+        return result;
+    }
+
+    @Override
+    public double[] toDoubleArray() {
+        double[] result = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = values[i];
+        }
+        return result;
+    }
+
+    /* As a List */
+
+    @Override
+    public JsonValue get(int index) {
+        return JsonValues.valueOf(values[index]);
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+}
@@ -15,15 +15,9 @@
  */
 package org.leadpony.joy.core;
 
-import static org.leadpony.joy.core.Preconditions.requireNonNull;
-
-import java.util.AbstractList;
 import java.util.List;
 
 import jakarta.json.JsonArray;
-import jakarta.json.JsonNumber;
-import jakarta.json.JsonObject;
-import jakarta.json.JsonString;
 import jakarta.json.JsonValue;
 
 /**
@@ -31,7 +25,7 @@ import jakarta.json.JsonValue;
  *
  * @author leadpony
  */
-class JsonArrayImpl extends AbstractList<JsonValue> implements JsonArray {
+class JsonArrayImpl extends AbstractJsonArray {
 
     private final List<JsonValue> items;
 
@@ -39,111 +33,14 @@ class JsonArrayImpl extends AbstractList<JsonValue> implements JsonArray {
         this.items = items;
     }
 
-    /* As a JsonValue */
-
-    @Override
-    public ValueType getValueType() {
-        return ValueType.ARRAY;
-    }
-
-    @Override
-    public JsonArray asJsonArray() {
-        return this;
-    }
-
-    /* As a JsonStructure */
-
-    @Override
-    public JsonValue getValue(String jsonPointer) {
-        requireNonNull(jsonPointer, "jsonPointer");
-        return JsonPointerImpl.parse(jsonPointer).getValue(this);
-    }
-
     /* As a JsonArray */
 
-    @Override
-    public JsonObject getJsonObject(int index) {
-        return (JsonObject) get(index);
-    }
-
-    @Override
-    public JsonArray getJsonArray(int index) {
-        return (JsonArray) get(index);
-    }
-
-    @Override
-    public JsonNumber getJsonNumber(int index) {
-        return (JsonNumber) get(index);
-    }
-
-    @Override
-    public JsonString getJsonString(int index) {
-        return (JsonString) get(index);
-    }
-
     @SuppressWarnings("unchecked")
     @Override
     public <T extends JsonValue> List<T> getValuesAs(Class<T> clazz) {
         return (List<T>) items;
     }
 
-    @Override
-    public String getString(int index) {
-        return getJsonString(index).getString();
-    }
-
-    @Override
-    public String getString(int index, String defaultValue) {
-        JsonValue value = get(index);
-        if (value.getValueType() == ValueType.STRING) {
-            return ((JsonString) value).getString();
-        } else {
-            return defaultValue;
-        }
-    }
-
-    @Override
-    public int getInt(int index) {
-        return getJsonNumber(index).intValue();
-    }
-
-    @Override
-    public int getInt(int index, int defaultValue) {
-        JsonValue value = get(index);
-        if (value.getValueType() == ValueType.NUMBER) {
-            return ((JsonNumber) value).intValue();
-        } else {
-            return defaultValue;
-        }
-    }
-
-    @Override
-    public boolean getBoolean(int index) {
-        JsonValue value = get(index);
-        if (value == JsonValue.TRUE) {
-            return true;
-        } else if (value == JsonValue.FALSE) {
-            return false;
-        }
-        throw new ClassCastException();
-    }
-
-    @Override
-    public boolean getBoolean(int index, boolean defaultValue) {
-        JsonValue value = get(index);
-        if (value == JsonValue.TRUE) {
-            return true;
-        } else if (value == JsonValue.FALSE) {
-            return false;
-        }
-        return defaultValue;
-    }
-
-    @Override
-    public boolean isNull(int index) {
-        return get(index) == JsonValue.NULL;
-    }
-
     /* As a List */
 
     @Override
@@ -155,12 +52,4 @@ class JsonArrayImpl extends AbstractList<JsonValue> implements JsonArray {
     public int size() {
         return items.size();
     }
-
-    @Override
-    public String toString() {
-        try (SimpleJsonGenerator g = new SimpleJsonGenerator()) {
-            g.write(this);
-            return g.toString();
-        }
-    }
 }
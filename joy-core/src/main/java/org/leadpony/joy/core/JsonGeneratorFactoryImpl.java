@@ -20,13 +20,18 @@ import static org.leadpony.joy.core.Preconditions.requireNonNull;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
-import jakarta.json.stream.JsonGeneratorFactory;
-
+import org.leadpony.joy.api.BufferOverflowHandler;
 import org.leadpony.joy.api.JsonGenerator;
+import org.leadpony.joy.api.JsonGeneratorFactory;
+import org.leadpony.joy.api.ReusableJsonGenerator;
+import org.leadpony.joy.api.SerializedName;
 
 /**
  * An implementation of {@link JsonGeneratorFactory}.
@@ -38,19 +43,43 @@ class JsonGeneratorFactoryImpl extends ConfigurableFactory implements JsonGenera
     private static final String[] SUPPORTED_PROPERTIES = {
         JsonGenerator.PRETTY_PRINTING,
         JsonGenerator.INDENTATION_SIZE,
-        JsonGenerator.TAB_INDENTATION
+        JsonGenerator.TAB_INDENTATION,
+        JsonGenerator.ESCAPE_NON_ASCII,
+        JsonGenerator.ESCAPE_LINE_SEPARATORS
     };
 
     private static final int DEFAULT_INDENTATION_SIZE = 4;
 
+    // The output of the reusable generators until they are reset.
+    private static final Writer NO_OUTPUT = new Writer() {
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            throw new IllegalStateException(Message.thatGeneratorHasNoOutput());
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
     private final boolean prettyPrinting;
     private final char indentationChar;
     private final int indentationSize;
+    private final boolean escapeNonAscii;
+    private final boolean escapeLineSeparators;
     private final CharBufferFactory bufferFactory;
+    private final ByteBufferFactory byteBufferFactory;
 
-    JsonGeneratorFactoryImpl(Map<String, ?> config, CharBufferFactory bufferFactory) {
+    JsonGeneratorFactoryImpl(Map<String, ?> config,
+            CharBufferFactory bufferFactory, ByteBufferFactory byteBufferFactory) {
         super(config, SUPPORTED_PROPERTIES);
         this.bufferFactory = bufferFactory;
+        this.byteBufferFactory = byteBufferFactory;
         this.prettyPrinting = containsProperty(JsonGenerator.PRETTY_PRINTING);
         if (containsProperty(JsonGenerator.TAB_INDENTATION)) {
             this.indentationChar = '\t';
@@ -59,6 +88,8 @@ class JsonGeneratorFactoryImpl extends ConfigurableFactory implements JsonGenera
             this.indentationChar = ' ';
             this.indentationSize = getPropertyValue(JsonGenerator.INDENTATION_SIZE, DEFAULT_INDENTATION_SIZE);
         }
+        this.escapeNonAscii = getPropertyValue(JsonGenerator.ESCAPE_NON_ASCII, false);
+        this.escapeLineSeparators = getPropertyValue(JsonGenerator.ESCAPE_LINE_SEPARATORS, false);
     }
 
     @Override
@@ -70,23 +101,69 @@ class JsonGeneratorFactoryImpl extends ConfigurableFactory implements JsonGenera
     @Override
     public JsonGenerator createGenerator(OutputStream out) {
         requireNonNull(out, "out");
-        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
-        return createConfiguredGenerator(writer);
+        return createConfiguredGenerator(new Utf8StreamWriter(out, byteBufferFactory));
     }
 
     @Override
     public JsonGenerator createGenerator(OutputStream out, Charset charset) {
         requireNonNull(out, "out");
         requireNonNull(charset, "charset");
-        Writer writer = new OutputStreamWriter(out, charset);
-        return createConfiguredGenerator(writer);
+        return createConfiguredGenerator(createStreamWriter(out, charset));
+    }
+
+    @Override
+    public JsonGenerator createGenerator(ByteBuffer buffer, BufferOverflowHandler handler) {
+        requireNonNull(buffer, "buffer");
+        requireNonNull(handler, "handler");
+        OutputStream out = new ByteBufferOutputStream(buffer, handler);
+        return createConfiguredGenerator(new Utf8StreamWriter(out, byteBufferFactory));
+    }
+
+    @Override
+    public JsonGenerator createGenerator(WritableByteChannel channel) {
+        requireNonNull(channel, "channel");
+        OutputStream out = Channels.newOutputStream(channel);
+        return createConfiguredGenerator(new Utf8StreamWriter(out, byteBufferFactory));
+    }
+
+    @Override
+    public SerializedName serializedName(String name) {
+        requireNonNull(name, "name");
+        JsonStringBuilder builder = new JsonStringBuilder();
+        builder.setEscaping(escapeNonAscii, escapeLineSeparators);
+        builder.append('"').append(name).append('"');
+        return new SerializedNameImpl(name, builder.toString().toCharArray());
+    }
+
+    @Override
+    public ReusableJsonGenerator createReusableGenerator() {
+        return createConfiguredGenerator(NO_OUTPUT);
+    }
+
+    /**
+     * Creates a writer which encodes the characters into the specified
+     * output stream. UTF-8 is encoded without a charset encoder.
+     *
+     * @param out     the output stream to write.
+     * @param charset the encoding of the output.
+     * @return newly created writer.
+     */
+    private Writer createStreamWriter(OutputStream out, Charset charset) {
+        if (charset.equals(StandardCharsets.UTF_8)) {
+            return new Utf8StreamWriter(out, byteBufferFactory);
+        }
+        return new OutputStreamWriter(out, charset);
     }
 
-    private JsonGenerator createConfiguredGenerator(Writer writer) {
+    private CompactJsonGenerator createConfiguredGenerator(Writer writer) {
+        CompactJsonGenerator generator;
         if (prettyPrinting) {
-            return new PrettyJsonGenerator(writer, bufferFactory, indentationChar, indentationSize);
+            generator = new PrettyJsonGenerator(writer, bufferFactory, byteBufferFactory,
+                    indentationChar, indentationSize);
         } else {
-            return new CompactJsonGenerator(writer, bufferFactory);
+            generator = new CompactJsonGenerator(writer, bufferFactory, byteBufferFactory);
         }
+        generator.setEscaping(escapeNonAscii, escapeLineSeparators);
+        return generator;
     }
 }
@@ -19,8 +19,7 @@ import static org.leadpony.joy.core.Preconditions.requireNonNull;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.util.Collections;
-import java.util.LinkedHashMap;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.Optional;
 
@@ -36,30 +35,39 @@ import jakarta.json.JsonValue;
  */
 class JsonObjectBuilderImpl implements JsonObjectBuilder {
 
-    private Map<String, JsonValue> properties;
+    private static final int INITIAL_CAPACITY = 8;
+
+    private String[] names;
+    private JsonValue[] values;
+    private int[] table;
+    private int size;
 
     JsonObjectBuilderImpl() {
     }
 
     JsonObjectBuilderImpl(JsonObject object) {
-        this.properties = new LinkedHashMap<>(object);
+        if (object instanceof JsonObjectImpl) {
+            ((JsonObjectImpl) object).copyTo(this);
+        } else {
+            for (Map.Entry<String, JsonValue> entry : object.entrySet()) {
+                put(entry.getKey(), entry.getValue());
+            }
+        }
     }
 
     JsonObjectBuilderImpl(Map<String, ?> map) {
-        Map<String, JsonValue> properties = new LinkedHashMap<>();
         for (Map.Entry<String, ?> entry : map.entrySet()) {
             final String key = entry.getKey();
             final Object value = entry.getValue();
             if (value instanceof Optional) {
                 Optional<?> optional = (Optional<?>) value;
                 if (optional.isPresent()) {
-                    properties.put(key, JsonValues.valueOf(optional.get()));
+                    put(key, JsonValues.valueOf(optional.get()));
                 }
             } else {
-                properties.put(key, JsonValues.valueOf(value));
+                put(key, JsonValues.valueOf(value));
             }
         }
-        this.properties = properties;
     }
 
     @Override
@@ -137,36 +145,64 @@ class JsonObjectBuilderImpl implements JsonObjectBuilder {
     @Override
     public JsonObjectBuilder addAll(JsonObjectBuilder builder) {
         requireNonNull(builder, "builder");
-        requireProperties().putAll(builder.build());
+        for (Map.Entry<String, JsonValue> entry : builder.build().entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
         return this;
     }
 
     @Override
     public JsonObjectBuilder remove(String name) {
         requireNonNull(name, "name");
-        requireProperties().remove(name);
+        int index = JsonObjectImpl.indexOf(names, table, size, name);
+        if (index >= 0) {
+            int moved = size - index - 1;
+            System.arraycopy(names, index + 1, names, index, moved);
+            System.arraycopy(values, index + 1, values, index, moved);
+            names[--size] = null;
+            values[size] = null;
+            if (table != null) {
+                table = (size > JsonObjectImpl.MAX_LINEAR_SIZE) ? JsonObjectImpl.createTable(names, size) : null;
+            }
+        }
         return this;
     }
 
     @Override
     public JsonObject build() {
-        if (properties == null) {
+        if (size == 0) {
             return JsonValue.EMPTY_JSON_OBJECT;
         }
-        JsonObject object = new JsonObjectImpl(Collections.unmodifiableMap(properties));
-        properties = null;
+        JsonObject object = new JsonObjectImpl(
+                Arrays.copyOf(names, size), Arrays.copyOf(values, size), table);
+        names = null;
+        values = null;
+        table = null;
+        size = 0;
         return object;
     }
 
-    private Map<String, JsonValue> requireProperties() {
-        if (properties == null) {
-            properties = new LinkedHashMap<>();
+    final JsonObjectBuilder put(String name, JsonValue value) {
+        int index = JsonObjectImpl.indexOf(names, table, size, name);
+        if (index >= 0) {
+            values[index] = value;
+            return this;
+        }
+        if (names == null) {
+            names = new String[INITIAL_CAPACITY];
+            values = new JsonValue[INITIAL_CAPACITY];
+        } else if (size == names.length) {
+            names = Arrays.copyOf(names, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        names[size] = name;
+        values[size] = value;
+        index = size++;
+        if (table != null && size * 2 <= table.length) {
+            JsonObjectImpl.addToTable(table, name, index);
+        } else if (size > JsonObjectImpl.MAX_LINEAR_SIZE) {
+            table = JsonObjectImpl.createTable(names, size);
         }
-        return properties;
-    }
-
-    private JsonObjectBuilder put(String name, JsonValue value) {
-        requireProperties().put(name, value);
         return this;
     }
 }
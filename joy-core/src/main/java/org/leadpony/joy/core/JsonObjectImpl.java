@@ -15,169 +15,141 @@
  */
 package org.leadpony.joy.core;
 
-import static org.leadpony.joy.core.Preconditions.requireNonNull;
-
-import java.util.AbstractMap;
-import java.util.Map;
-import java.util.Set;
-
-import jakarta.json.JsonArray;
-import jakarta.json.JsonNumber;
 import jakarta.json.JsonObject;
-import jakarta.json.JsonString;
 import jakarta.json.JsonValue;
 
 /**
- * An implementation of {@link JsonObject}.
+ * An implementation of {@link JsonObject}. The names and the values of the
+ * properties are kept in two arrays in the order of insertion. The names are
+ * searched linearly in a small object, and through a hash table of the
+ * indices in a larger one.
  *
  * @author leadpony
  */
-class JsonObjectImpl extends AbstractMap<String, JsonValue> implements JsonObject {
-
-    private final Map<String, JsonValue> properties;
-
-    JsonObjectImpl(Map<String, JsonValue> properties) {
-        this.properties = properties;
-    }
-
-    /* As a JsonValue */
-
-    @Override
-    public ValueType getValueType() {
-        return ValueType.OBJECT;
-    }
+class JsonObjectImpl extends AbstractJsonObject {
 
-    @Override
-    public JsonObject asJsonObject() {
-        return this;
-    }
+    // The maximum number of properties searched without a hash table.
+    static final int MAX_LINEAR_SIZE = 8;
 
-    /* As a JsonStructure */
+    private final String[] names;
+    private final JsonValue[] values;
+    private final int[] table;
 
-    @Override
-    public JsonValue getValue(String jsonPointer) {
-        requireNonNull(jsonPointer, "jsonPointer");
-        return JsonPointerImpl.parse(jsonPointer).getValue(this);
+    /**
+     * Constructs this object.
+     *
+     * @param names  the names of the properties, which must be unique.
+     * @param values the values of the properties.
+     * @param table  the hash table created by {@link #createTable(String[], int)},
+     *               or {@code null} if the object is small.
+     */
+    JsonObjectImpl(String[] names, JsonValue[] values, int[] table) {
+        this.names = names;
+        this.values = values;
+        this.table = table;
     }
 
-    /* As a JsonObject */
-
-    @Override
-    public JsonArray getJsonArray(String name) {
-        return (JsonArray) get(name);
-    }
+    /* As a Map */
 
     @Override
-    public JsonObject getJsonObject(String name) {
-        return (JsonObject) get(name);
+    public int size() {
+        return names.length;
     }
 
     @Override
-    public JsonNumber getJsonNumber(String name) {
-        return (JsonNumber) get(name);
+    String getName(int index) {
+        return names[index];
     }
 
     @Override
-    public JsonString getJsonString(String name) {
-        return (JsonString) get(name);
+    JsonValue getValueAt(int index) {
+        return values[index];
     }
 
     @Override
-    public String getString(String name) {
-        return getJsonString(name).getString();
+    int indexOf(Object key) {
+        return indexOf(names, table, names.length, key);
     }
 
-    @Override
-    public String getString(String name, String defaultValue) {
-        JsonValue value = get(name);
-        if (value != null && value.getValueType() == ValueType.STRING) {
-            return ((JsonString) value).getString();
-        } else {
-            return defaultValue;
+    /**
+     * Copies the properties of this object to the specified builder.
+     *
+     * @param builder the builder to which the properties are added.
+     */
+    void copyTo(JsonObjectBuilderImpl builder) {
+        for (int i = 0; i < names.length; i++) {
+            builder.put(names[i], values[i]);
         }
     }
 
-    @Override
-    public int getInt(String name) {
-        return getJsonNumber(name).intValue();
-    }
-
-    @Override
-    public int getInt(String name, int defaultValue) {
-        JsonValue value = get(name);
-        if (value != null && value.getValueType() == ValueType.NUMBER) {
-            return ((JsonNumber) value).intValue();
-        } else {
-            return defaultValue;
+    /**
+     * Creates a hash table of the indices of the specified names. The table
+     * has at least twice as many slots as the names, and each slot holds the
+     * index plus one, or zero if it is empty.
+     *
+     * @param names the names of the properties.
+     * @param size  the number of the names.
+     * @return the newly created hash table.
+     */
+    static int[] createTable(String[] names, int size) {
+        int[] table = new int[Integer.highestOneBit(size) << 2];
+        for (int i = 0; i < size; i++) {
+            addToTable(table, names[i], i);
         }
-    }
-
-    @Override
-    public boolean getBoolean(String name) {
-        JsonValue value = get(name);
-        if (value == JsonValue.TRUE) {
-            return true;
-        } else if (value == JsonValue.FALSE) {
-            return false;
-        } else {
-            throw new ClassCastException();
+        return table;
+    }
+
+    /**
+     * Adds the index of a name to the hash table.
+     *
+     * @param table the hash table.
+     * @param name  the name of the property.
+     * @param index the index of the property.
+     */
+    static void addToTable(int[] table, String name, int index) {
+        final int mask = table.length - 1;
+        int slot = hash(name) & mask;
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
         }
-    }
-
-    @Override
-    public boolean getBoolean(String name, boolean defaultValue) {
-        JsonValue value = get(name);
-        if (value == JsonValue.TRUE) {
-            return true;
-        } else if (value == JsonValue.FALSE) {
-            return false;
-        } else {
-            return defaultValue;
+        table[slot] = index + 1;
+    }
+
+    /**
+     * Finds the index of the specified name.
+     *
+     * @param names the names of the properties.
+     * @param table the hash table of the names, or {@code null}.
+     * @param size  the number of the names.
+     * @param key   the name to find.
+     * @return the index of the name, or -1 if not found.
+     */
+    static int indexOf(String[] names, int[] table, int size, Object key) {
+        if (!(key instanceof String)) {
+            return -1;
         }
-    }
-
-    @Override
-    public boolean isNull(String name) {
-        return get(name) == JsonValue.NULL;
-    }
-
-    /* As a Map */
-
-    @Override
-    public Set<Entry<String, JsonValue>> entrySet() {
-        return properties.entrySet();
-    }
-
-    @Override
-    public int size() {
-        return properties.size();
-    }
-
-    @Override
-    public boolean containsValue(Object value) {
-        return properties.containsValue(value);
-    }
-
-    @Override
-    public boolean containsKey(Object key) {
-        return properties.containsKey(key);
-    }
-
-    @Override
-    public JsonValue get(Object key) {
-        return properties.get(key);
-    }
-
-    @Override
-    public String toString() {
-        try (SimpleJsonGenerator g = new SimpleJsonGenerator()) {
-            g.write(this);
-            return g.toString();
+        if (table == null) {
+            for (int i = 0; i < size; i++) {
+                if (key.equals(names[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        final int mask = table.length - 1;
+        int slot = hash((String) key) & mask;
+        int entry;
+        while ((entry = table[slot]) != 0) {
+            if (key.equals(names[entry - 1])) {
+                return entry - 1;
+            }
+            slot = (slot + 1) & mask;
         }
+        return -1;
     }
 
-    private JsonValue get(String name) {
-        requireNonNull(name, "name");
-        return properties.get(name);
+    private static int hash(String name) {
+        int h = name.hashCode();
+        return h ^ (h >>> 16);
     }
 }
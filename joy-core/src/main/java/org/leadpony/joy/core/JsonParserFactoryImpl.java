@@ -16,48 +16,221 @@
 package org.leadpony.joy.core;
 
 import static org.leadpony.joy.core.Preconditions.requireNonNull;
+import static org.leadpony.joy.core.Preconditions.requireValidRange;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
-import jakarta.json.stream.JsonParser;
-import jakarta.json.stream.JsonParserFactory;
+import jakarta.json.JsonException;
+
+import org.leadpony.joy.api.FieldSet;
+import org.leadpony.joy.api.JsonFeedParser;
+import org.leadpony.joy.api.JsonParser;
+import org.leadpony.joy.api.JsonParserFactory;
+import org.leadpony.joy.api.ReusableJsonParser;
+import org.leadpony.joy.core.StreamReaders.DetectedEncoding;
 
 /**
  * An implementation of {@link JsonParserFactory}.
  *
  * @author leadpony
  */
-class JsonParserFactoryImpl extends AbstractJsonParserFactory {
+class JsonParserFactoryImpl extends AbstractJsonParserFactory implements JsonParserFactory {
+
+    private static final String[] SUPPORTED_PROPERTIES = {
+        JsonParser.KEY_NAME_CACHE_SIZE,
+        JsonParser.STRICT_SKIP,
+        JsonParser.LAZY_LOCATION,
+        JsonParser.MAX_BUFFERED_STRING_LENGTH
+    };
+
+    private static final byte[] NO_BYTES = {};
 
     private final CharBufferFactory bufferFactory;
+    private final ByteBufferFactory byteBufferFactory;
+    private final SymbolTable symbolTable;
+    private final boolean strictSkip;
+    private final boolean lazyLocation;
+    private final int maxBufferedStringLength;
 
-    JsonParserFactoryImpl(Map<String, ?> config, CharBufferFactory bufferFactory) {
-        super(config);
+    JsonParserFactoryImpl(Map<String, ?> config,
+            CharBufferFactory bufferFactory, ByteBufferFactory byteBufferFactory) {
+        super(config, SUPPORTED_PROPERTIES);
         this.bufferFactory = bufferFactory;
+        this.byteBufferFactory = byteBufferFactory;
+        int cacheSize = getPropertyValue(JsonParser.KEY_NAME_CACHE_SIZE, 0);
+        this.symbolTable = (cacheSize > 0) ? new SymbolTable(cacheSize) : null;
+        this.strictSkip = getPropertyValue(JsonParser.STRICT_SKIP, false);
+        this.lazyLocation = getPropertyValue(JsonParser.LAZY_LOCATION, false);
+        int maxLength = getPropertyValue(JsonParser.MAX_BUFFERED_STRING_LENGTH, 0);
+        this.maxBufferedStringLength = (maxLength > 0) ? maxLength : Integer.MAX_VALUE;
     }
 
     @Override
     public JsonParser createParser(Reader reader) {
         requireNonNull(reader, "reader");
-        return new BasicJsonParser(reader, bufferFactory);
+        return configure(new BasicJsonParser(reader, bufferFactory));
     }
 
     @Override
     public JsonParser createParser(InputStream in) {
         requireNonNull(in, "in");
-        Reader reader = createStreamReader(in);
-        return new BasicJsonParser(reader, bufferFactory);
+        DetectedEncoding encoding = StreamReaders.detectEncoding(in);
+        if (encoding.isUtf8()) {
+            return configure(new Utf8JsonParser(in, encoding.getLeadingBytes(), byteBufferFactory));
+        }
+        Reader reader = StreamReaders.createStreamReader(in, encoding);
+        return configure(new BasicJsonParser(reader, bufferFactory));
     }
 
     @Override
     public JsonParser createParser(InputStream in, Charset charset) {
         requireNonNull(in, "in");
         requireNonNull(charset, "charset");
+        if (StandardCharsets.UTF_8.equals(charset)) {
+            return configure(new Utf8JsonParser(in, NO_BYTES, byteBufferFactory));
+        }
         Reader reader = new InputStreamReader(in, charset);
-        return new BasicJsonParser(reader, bufferFactory);
+        return configure(new BasicJsonParser(reader, bufferFactory));
+    }
+
+    @Override
+    public JsonParser createParser(byte[] bytes, int offset, int length) {
+        requireNonNull(bytes, "bytes");
+        requireValidRange(offset, length, bytes.length);
+        if (StreamReaders.isUtf8WithoutBom(bytes, offset, length)) {
+            return configure(new Utf8JsonParser(bytes, offset, length));
+        }
+        ByteArrayInputStream in = new ByteArrayInputStream(bytes, offset, length);
+        DetectedEncoding encoding = StreamReaders.detectEncoding(in);
+        if (encoding.isUtf8()) {
+            // Skips the byte order mark only.
+            int start = offset + length - in.available() - encoding.getLeadingBytes().length;
+            return configure(new Utf8JsonParser(bytes, start, offset + length - start));
+        }
+        Reader reader = StreamReaders.createStreamReader(in, encoding);
+        return configure(new BasicJsonParser(reader, bufferFactory));
+    }
+
+    @Override
+    public JsonParser createParser(ByteBuffer buffer) {
+        requireNonNull(buffer, "buffer");
+        if (buffer.hasArray()) {
+            return createParser(buffer.array(),
+                    buffer.arrayOffset() + buffer.position(),
+                    buffer.remaining());
+        }
+        return createParser(new ByteBufferInputStream(buffer.duplicate()));
+    }
+
+    @Override
+    public JsonParser createParser(CharSequence chars) {
+        requireNonNull(chars, "chars");
+        char[] array = toCharArray(chars);
+        return configure(new BasicJsonParser(array, 0, array.length));
+    }
+
+    @Override
+    public JsonParser createParser(Path path) {
+        requireNonNull(path, "path");
+        return createParser(path, MappedFileInputStream.DEFAULT_WINDOW_SIZE);
+    }
+
+    @Override
+    public JsonFeedParser createFeedParser() {
+        return configure(new FeedJsonParser());
+    }
+
+    @Override
+    public ReusableJsonParser createReusableParser() {
+        return new ReusableJsonParserImpl(this, bufferFactory, byteBufferFactory);
+    }
+
+    @Override
+    public JsonParser createFilteredParser(InputStream in, String... pointers) {
+        requireNonNull(in, "in");
+        List<ExtendedJsonPointer> parsed = parsePointers(pointers);
+        return new FilteredJsonParser(createParser(in), parsed);
+    }
+
+    @Override
+    public JsonParser createFilteredParser(Reader reader, String... pointers) {
+        requireNonNull(reader, "reader");
+        List<ExtendedJsonPointer> parsed = parsePointers(pointers);
+        return new FilteredJsonParser(createParser(reader), parsed);
+    }
+
+    @Override
+    public FieldSet fieldSet(String... names) {
+        return new FieldSetImpl(names);
+    }
+
+    private static List<ExtendedJsonPointer> parsePointers(String... pointers) {
+        requireNonNull(pointers, "pointers");
+        List<ExtendedJsonPointer> parsed = new ArrayList<>(pointers.length);
+        for (String pointer : pointers) {
+            requireNonNull(pointer, "pointer");
+            parsed.add(JsonPointerImpl.parse(pointer));
+        }
+        return parsed;
+    }
+
+    /**
+     * Copies the chars of the specified sequence into a new array at once.
+     */
+    private static char[] toCharArray(CharSequence chars) {
+        char[] array = new char[chars.length()];
+        if (chars instanceof String) {
+            ((String) chars).getChars(0, array.length, array, 0);
+        } else if (chars instanceof StringBuilder) {
+            ((StringBuilder) chars).getChars(0, array.length, array, 0);
+        } else {
+            CharBuffer.wrap(chars).get(array);
+        }
+        return array;
+    }
+
+    /**
+     * Creates a parser which reads the specified file through mapped windows
+     * of the specified size.
+     *
+     * @param path       the path of the file to read.
+     * @param windowSize the size of a mapped window, in bytes.
+     * @return newly created parser.
+     */
+    JsonParser createParser(Path path, int windowSize) {
+        InputStream in;
+        try {
+            in = new MappedFileInputStream(path, windowSize);
+        } catch (IOException e) {
+            throw new JsonException(Message.thatIOErrorOccurredWhileParserWasOpening(path), e);
+        }
+        return createParser(in);
+    }
+
+    /**
+     * Configures the specified parser with the properties of this factory.
+     *
+     * @param <T>    the type of the parser.
+     * @param parser the parser to configure.
+     * @return the configured parser.
+     */
+    <T extends AbstractBasicJsonParser> T configure(T parser) {
+        parser.setSymbolTable(symbolTable);
+        parser.setStrictSkip(strictSkip);
+        parser.setLazyLocation(lazyLocation);
+        parser.setMaxBufferedStringLength(maxBufferedStringLength);
+        return parser;
     }
 }
@@ -128,6 +128,21 @@ final class JsonPointerImpl implements ExtendedJsonPointer {
         return startsWith((JsonPointerImpl) other);
     }
 
+    @Override
+    public int getTokenCount() {
+        return tokens.size();
+    }
+
+    @Override
+    public String getToken(int position) {
+        return tokens.get(position).toString();
+    }
+
+    @Override
+    public int getIndex(int position) {
+        return tokens.get(position).getIndex();
+    }
+
     /* As a Object */
 
     @Override
@@ -446,6 +461,21 @@ final class JsonPointerImpl implements ExtendedJsonPointer {
             return other.isEmpty();
         }
 
+        @Override
+        public int getTokenCount() {
+            return 0;
+        }
+
+        @Override
+        public String getToken(int position) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        @Override
+        public int getIndex(int position) {
+            throw new IndexOutOfBoundsException();
+        }
+
         @Override
         public int hashCode() {
             return HASH_CODE;
@@ -477,6 +507,10 @@ final class JsonPointerImpl implements ExtendedJsonPointer {
         Token ZERO_INDEX = new IndexToken("0");
         Token HYPHEN = new HyphenToken();
 
+        default int getIndex() {
+            return -1;
+        }
+
         default JsonValue get(JsonStructure target) {
             if (target.getValueType() == ValueType.ARRAY) {
                 return get(target.asJsonArray());
@@ -607,6 +641,11 @@ final class JsonPointerImpl implements ExtendedJsonPointer {
             this.index = Integer.parseInt(token);
         }
 
+        @Override
+        public int getIndex() {
+            return index;
+        }
+
         @Override
         public JsonValue get(JsonArray target) {
             JsonArray array = target.asJsonArray();
@@ -15,16 +15,24 @@
  */
 package org.leadpony.joy.core;
 
+import static org.leadpony.joy.core.Preconditions.requireNonNull;
+
+import java.io.Closeable;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Map;
 
-import jakarta.json.JsonReader;
+import jakarta.json.JsonException;
 import jakarta.json.JsonReaderFactory;
 import jakarta.json.stream.JsonParser;
 import jakarta.json.stream.JsonParserFactory;
 
+import org.leadpony.joy.api.JsonReader;
+
 /**
  * An implementation of {@link JsonReaderFactory}.
  *
@@ -32,32 +40,117 @@ import jakarta.json.stream.JsonParserFactory;
  */
 class JsonReaderFactoryImpl extends ConfigurableFactory implements JsonReaderFactory {
 
+    private static final String[] SUPPORTED_PROPERTIES = {
+        JsonReader.LAZY_VALUES,
+        JsonReader.COMPACT_VALUES
+    };
+
+    private static final int INITIAL_INPUT_SIZE = 8192;
+
     private final JsonParserFactory parserFactory;
+    private final boolean lazyValues;
+    private final boolean compactValues;
 
     JsonReaderFactoryImpl(Map<String, ?> config, JsonParserFactory parserFactory) {
-        super(config);
+        super(config, SUPPORTED_PROPERTIES);
         this.parserFactory = parserFactory;
+        // Only the parsers created by Joy can read the values in other ways.
+        boolean supported = parserFactory instanceof JsonParserFactoryImpl;
+        this.lazyValues = supported && getPropertyValue(JsonReader.LAZY_VALUES, false);
+        this.compactValues = supported && !lazyValues && getPropertyValue(JsonReader.COMPACT_VALUES, false);
     }
 
     @Override
     public JsonReader createReader(Reader reader) {
+        if (lazyValues) {
+            requireNonNull(reader, "reader");
+            char[] chars = readAll(reader);
+            return createLazyReader(new BasicJsonParser(chars, 0, chars.length), reader);
+        }
         JsonParser parser = getParserFactory().createParser(reader);
-        return new JsonReaderImpl(parser);
+        return createReader(parser);
     }
 
     @Override
     public JsonReader createReader(InputStream in) {
+        if (lazyValues) {
+            requireNonNull(in, "in");
+            byte[] bytes = readAll(in);
+            JsonParser parser = ((JsonParserFactoryImpl) parserFactory).createParser(bytes, 0, bytes.length);
+            return createLazyReader((AbstractBasicJsonParser) parser, in);
+        }
         JsonParser parser = getParserFactory().createParser(in);
-        return new JsonReaderImpl(parser);
+        return createReader(parser);
     }
 
     @Override
     public JsonReader createReader(InputStream in, Charset charset) {
+        if (lazyValues) {
+            requireNonNull(in, "in");
+            requireNonNull(charset, "charset");
+            byte[] bytes = readAll(in);
+            if (StandardCharsets.UTF_8.equals(charset)) {
+                return createLazyReader(new Utf8JsonParser(bytes, 0, bytes.length), in);
+            }
+            char[] chars = new String(bytes, charset).toCharArray();
+            return createLazyReader(new BasicJsonParser(chars, 0, chars.length), in);
+        }
         JsonParser parser = getParserFactory().createParser(in, charset);
-        return new JsonReaderImpl(parser);
+        return createReader(parser);
     }
 
     private JsonParserFactory getParserFactory() {
         return parserFactory;
     }
+
+    private JsonReader createReader(JsonParser parser) {
+        if (compactValues) {
+            return new JsonReaderImpl(parser, null, TapeDocument::read);
+        }
+        return new JsonReaderImpl(parser);
+    }
+
+    private JsonReader createLazyReader(AbstractBasicJsonParser parser, Closeable input) {
+        ((JsonParserFactoryImpl) parserFactory).configure(parser);
+        // No string values need to be streamed from the input read in advance.
+        parser.setMaxBufferedStringLength(Integer.MAX_VALUE);
+        if (parser.hasWholeInput()) {
+            return new JsonReaderImpl(parser, input, StructuralIndex::read);
+        }
+        return new JsonReaderImpl(parser, input, null);
+    }
+
+    private static char[] readAll(Reader reader) {
+        char[] chars = new char[INITIAL_INPUT_SIZE];
+        int length = 0;
+        try {
+            int charsRead;
+            while ((charsRead = reader.read(chars, length, chars.length - length)) >= 0) {
+                length += charsRead;
+                if (length == chars.length) {
+                    chars = Arrays.copyOf(chars, length * 2);
+                }
+            }
+        } catch (IOException e) {
+            throw new JsonException(Message.thatIOErrorOccurredWhileParserWasReading(), e);
+        }
+        return Arrays.copyOf(chars, length);
+    }
+
+    private static byte[] readAll(InputStream in) {
+        byte[] bytes = new byte[INITIAL_INPUT_SIZE];
+        int length = 0;
+        try {
+            int bytesRead;
+            while ((bytesRead = in.read(bytes, length, bytes.length - length)) >= 0) {
+                length += bytesRead;
+                if (length == bytes.length) {
+                    bytes = Arrays.copyOf(bytes, length * 2);
+                }
+            }
+        } catch (IOException e) {
+            throw new JsonException(Message.thatIOErrorOccurredWhileParserWasReading(), e);
+        }
+        return Arrays.copyOf(bytes, length);
+    }
 }
@@ -15,11 +15,14 @@
  */
 package org.leadpony.joy.core;
 
+import java.io.Closeable;
+import java.io.IOException;
 import java.util.Set;
+import java.util.function.Function;
 
 import jakarta.json.JsonArray;
+import jakarta.json.JsonException;
 import jakarta.json.JsonObject;
-import jakarta.json.JsonReader;
 import jakarta.json.JsonStructure;
 import jakarta.json.JsonValue;
 import jakarta.json.stream.JsonLocation;
@@ -27,6 +30,8 @@ import jakarta.json.stream.JsonParser;
 import jakarta.json.stream.JsonParser.Event;
 import jakarta.json.stream.JsonParsingException;
 
+import org.leadpony.joy.api.JsonReader;
+
 /**
  * An implementation of {@link JsonReader}.
  *
@@ -35,11 +40,30 @@ import jakarta.json.stream.JsonParsingException;
 class JsonReaderImpl implements JsonReader {
 
     private final JsonParser parser;
+    private final Closeable input;
+    // The function which reads the values instead of the parser.
+    private final Function<AbstractBasicJsonParser, JsonValue> valueReader;
     private boolean alreadyRead;
     private boolean alreadyClosed;
 
     JsonReaderImpl(JsonParser parser) {
+        this(parser, null, null);
+    }
+
+    /**
+     * Constructs this reader which reads the values with the specified
+     * function.
+     *
+     * @param parser      the parser to read.
+     * @param input       the original input to be closed with this reader, or
+     *                    {@code null} if the parser closes the input.
+     * @param valueReader the function which reads the current value of the
+     *                    parser, or {@code null} if the parser reads the values.
+     */
+    JsonReaderImpl(JsonParser parser, Closeable input, Function<AbstractBasicJsonParser, JsonValue> valueReader) {
         this.parser = parser;
+        this.input = input;
+        this.valueReader = valueReader;
     }
 
     @Override
@@ -50,9 +74,9 @@ class JsonReaderImpl implements JsonReader {
             Event event = parser.next();
             switch (event) {
             case START_ARRAY:
-                return parser.getArray();
+                return getArray();
             case START_OBJECT:
-                return parser.getObject();
+                return getObject();
             default:
                 break;
             }
@@ -67,7 +91,7 @@ class JsonReaderImpl implements JsonReader {
         if (parser.hasNext()) {
             Event event = parser.next();
             if (event == Event.START_ARRAY) {
-                return parser.getArray();
+                return getArray();
             }
         }
         throw newUnexpectedEndException(ParserEventSet.START_ARRAY);
@@ -80,7 +104,7 @@ class JsonReaderImpl implements JsonReader {
         if (parser.hasNext()) {
             Event event = parser.next();
             if (event == Event.START_OBJECT) {
-                return parser.getObject();
+                return getObject();
             }
         }
         throw newUnexpectedEndException(ParserEventSet.START_OBJECT);
@@ -92,7 +116,7 @@ class JsonReaderImpl implements JsonReader {
         alreadyRead = true;
         if (parser.hasNext()) {
             parser.next();
-            return parser.getValue();
+            return (valueReader != null) ? readValueOfParser() : parser.getValue();
         }
         throw newUnexpectedEndException(
                 ParserEventSet.VALUES);
@@ -105,6 +129,25 @@ class JsonReaderImpl implements JsonReader {
         }
         alreadyClosed = true;
         parser.close();
+        if (input != null) {
+            try {
+                input.close();
+            } catch (IOException e) {
+                throw new JsonException(Message.thatIOErrorOccurredWhileParserWasClosing(), e);
+            }
+        }
+    }
+
+    private JsonArray getArray() {
+        return (valueReader != null) ? (JsonArray) readValueOfParser() : parser.getArray();
+    }
+
+    private JsonObject getObject() {
+        return (valueReader != null) ? (JsonObject) readValueOfParser() : parser.getObject();
+    }
+
+    private JsonValue readValueOfParser() {
+        return valueReader.apply((AbstractBasicJsonParser) parser);
     }
 
     private void checkState() {
@@ -24,9 +24,38 @@ import java.util.Arrays;
  */
 class JsonStringBuilder {
 
+    private static final String MIN_LONG_VALUE = String.valueOf(Long.MIN_VALUE);
+    // The length of the longest long value, with the minus sign.
+    private static final int MAX_LONG_LENGTH = MIN_LONG_VALUE.length();
+
+    /*
+     * Doubles are written in the same way as Double.toString() of the running
+     * Java, which writes the shortest digits since Java 19.
+     */
+    private static final boolean SHORTEST_DOUBLES = getJavaVersion() >= 19;
+
+    /*
+     * The characters following a backslash for the ASCII characters to be
+     * escaped, or 0 for the characters written as they are.
+     */
+    private static final char[] ESCAPES = createEscapes();
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private static final char LINE_SEPARATOR = '\u2028';
+    private static final char PARAGRAPH_SEPARATOR = '\u2029';
+    private static final int NO_ESCAPE_THRESHOLD = 0x10000;
+
+    // The bounds of the number of characters copied at once.
+    private static final int MIN_RUN_LENGTH = 16;
+    private static final int MAX_RUN_LENGTH = 8192;
+
     protected char[] writeBuffer;
     protected int writePos;
 
+    // The lowest non-ASCII character which may be escaped.
+    private int escapeThreshold = NO_ESCAPE_THRESHOLD;
+    private boolean escapeNonAscii;
+
     protected JsonStringBuilder() {
         this(new char[16]);
     }
@@ -35,34 +64,99 @@ class JsonStringBuilder {
         this.writeBuffer = buffer;
     }
 
+    /**
+     * Specifies which non-ASCII characters are escaped in addition to the
+     * characters which must be escaped.
+     *
+     * @param nonAscii       {@code true} if all non-ASCII characters are
+     *                       escaped.
+     * @param lineSeparators {@code true} if U+2028 and U+2029 are escaped.
+     */
+    final void setEscaping(boolean nonAscii, boolean lineSeparators) {
+        this.escapeNonAscii = nonAscii;
+        if (nonAscii) {
+            this.escapeThreshold = 0x80;
+        } else if (lineSeparators) {
+            this.escapeThreshold = LINE_SEPARATOR;
+        } else {
+            this.escapeThreshold = NO_ESCAPE_THRESHOLD;
+        }
+    }
+
     final JsonStringBuilder append(String string) {
         final int end = string.length();
-        int last = 0;
-        for (int i = 0; i < end; i++) {
-            char c = string.charAt(i);
-            if (c < 0x20 || c == '"' || c == '\\') {
-                if (last < i) {
-                    appendString(string, last, i);
-                }
-                switch (c) {
-                case '"':
-                    append('\\').append('"');
-                    break;
-                case '\\':
-                    append('\\').append('\\');
-                    break;
-                default:
-                    appendString(JsonChar.escape(c));
+        final int escapeThreshold = this.escapeThreshold;
+        final boolean escapeNonAscii = this.escapeNonAscii;
+        int i = 0;
+        int runLength = MIN_RUN_LENGTH;
+        while (i < end) {
+            if (writePos >= writeBuffer.length) {
+                refreshBuffer(writePos);
+            }
+            final char[] writeBuffer = this.writeBuffer;
+            final int start = this.writePos;
+            // Copies a run of characters at once and then finds the first one to be escaped.
+            final int length = Math.min(Math.min(end - i, writeBuffer.length - start), runLength);
+            string.getChars(i, i + length, writeBuffer, start);
+            final int limit = start + length;
+            int pos = start;
+            while (pos < limit) {
+                char c = writeBuffer[pos];
+                if (c < 0x80 ? ESCAPES[c] != 0
+                        : c >= escapeThreshold && (escapeNonAscii || c <= PARAGRAPH_SEPARATOR)) {
                     break;
                 }
-                last = i + 1;
+                pos++;
+            }
+            i += pos - start;
+            this.writePos = pos;
+            if (pos < limit) {
+                appendEscaped(string.charAt(i++));
+                // The characters copied after the escaped one are wasted.
+                runLength = MIN_RUN_LENGTH;
+            } else if (runLength < MAX_RUN_LENGTH) {
+                runLength <<= 1;
             }
         }
+        return this;
+    }
+
+    /**
+     * Checks if only the characters which must be escaped are escaped.
+     *
+     * @return {@code true} if no other characters are escaped.
+     */
+    final boolean escapesOnlyRequired() {
+        return escapeThreshold == NO_ESCAPE_THRESHOLD;
+    }
 
-        if (last < end) {
-            appendString(string, last, end);
+    final JsonStringBuilder append(char[] chars, int start, int end) {
+        final int escapeThreshold = this.escapeThreshold;
+        final boolean escapeNonAscii = this.escapeNonAscii;
+        int runStart = start;
+        for (int i = start; i < end; i++) {
+            char c = chars[i];
+            if (c < 0x80 ? ESCAPES[c] != 0
+                    : c >= escapeThreshold && (escapeNonAscii || c <= PARAGRAPH_SEPARATOR)) {
+                appendChars(chars, runStart, i);
+                appendEscaped(c);
+                runStart = i + 1;
+            }
         }
+        return appendChars(chars, runStart, end);
+    }
 
+    final JsonStringBuilder appendChars(char[] chars, int start, int end) {
+        int i = start;
+        while (i < end) {
+            if (writePos >= writeBuffer.length) {
+                refreshBuffer(writePos);
+            }
+            final int charsToCopy = Math.min(end - i, writeBuffer.length - writePos);
+            System.arraycopy(chars, i, writeBuffer, writePos, charsToCopy);
+            i += charsToCopy;
+            writePos += charsToCopy;
+        }
         return this;
     }
 
@@ -93,15 +187,43 @@ class JsonStringBuilder {
     }
 
     final JsonStringBuilder append(int value) {
-        return appendString(String.valueOf(value));
+        return append((long) value);
     }
 
     final JsonStringBuilder append(long value) {
-        return appendString(String.valueOf(value));
+        if (value == Long.MIN_VALUE) {
+            return appendString(MIN_LONG_VALUE);
+        }
+        ensureCapacity(MAX_LONG_LENGTH);
+        char[] writeBuffer = this.writeBuffer;
+        int writePos = this.writePos;
+        if (value < 0) {
+            writeBuffer[writePos++] = '-';
+            value = -value;
+        }
+        long rest = value / 10;
+        int digits = 1;
+        while (rest > 0) {
+            rest /= 10;
+            digits++;
+        }
+        int pos = writePos + digits;
+        do {
+            long q = value / 10;
+            writeBuffer[--pos] = (char) ('0' + (value - q * 10));
+            value = q;
+        } while (value > 0);
+        this.writePos = writePos + digits;
+        return this;
     }
 
     final JsonStringBuilder append(double value) {
-        return appendString(String.valueOf(value));
+        if (!SHORTEST_DOUBLES) {
+            return appendString(Double.toString(value));
+        }
+        ensureCapacity(DoubleFormatter.MAX_LENGTH);
+        writePos = DoubleFormatter.format(value, writeBuffer, writePos);
+        return this;
     }
 
     final JsonStringBuilder append(boolean value) {
@@ -117,6 +239,28 @@ class JsonStringBuilder {
         return new String(writeBuffer, 0, writePos);
     }
 
+    private void appendEscaped(char c) {
+        ensureCapacity(6);
+        final char[] writeBuffer = this.writeBuffer;
+        int pos = this.writePos;
+        final char escape = (c < 0x80) ? ESCAPES[c] : 'u';
+        writeBuffer[pos++] = '\\';
+        writeBuffer[pos++] = escape;
+        if (escape == 'u') {
+            writeBuffer[pos++] = HEX_DIGITS[c >> 12];
+            writeBuffer[pos++] = HEX_DIGITS[(c >> 8) & 0xf];
+            writeBuffer[pos++] = HEX_DIGITS[(c >> 4) & 0xf];
+            writeBuffer[pos++] = HEX_DIGITS[c & 0xf];
+        }
+        this.writePos = pos;
+    }
+
+    private void ensureCapacity(int length) {
+        while (writePos + length > writeBuffer.length) {
+            refreshBuffer(writePos);
+        }
+    }
+
     private JsonStringBuilder appendString(String string) {
         return appendString(string, 0, string.length());
     }
@@ -146,6 +290,38 @@ class JsonStringBuilder {
         return this;
     }
 
+    /**
+     * Returns the major version of the Java specification.
+     *
+     * @return the major version, or 8 if it is unknown.
+     */
+    private static int getJavaVersion() {
+        String version = System.getProperty("java.specification.version", "1.8");
+        if (version.startsWith("1.")) {
+            version = version.substring(2);
+        }
+        try {
+            return Integer.parseInt(version);
+        } catch (NumberFormatException e) {
+            return 8;
+        }
+    }
+
+    private static char[] createEscapes() {
+        char[] escapes = new char[0x80];
+        for (int c = 0; c < 0x20; c++) {
+            escapes[c] = 'u';
+        }
+        escapes['\b'] = 'b';
+        escapes['\t'] = 't';
+        escapes['\n'] = 'n';
+        escapes['\f'] = 'f';
+        escapes['\r'] = 'r';
+        escapes['"'] = '"';
+        escapes['\\'] = '\\';
+        return escapes;
+    }
+
     protected void refreshBuffer(int pos) {
         final int newBufferSize = writeBuffer.length * 2;
         writeBuffer = Arrays.copyOf(writeBuffer, newBufferSize);
@@ -18,10 +18,8 @@ package org.leadpony.joy.core;
 import static org.leadpony.joy.core.Preconditions.requireNonNull;
 
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.nio.charset.Charset;
-import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
 import jakarta.json.JsonWriter;
@@ -33,8 +31,9 @@ import jakarta.json.stream.JsonGenerator;
  */
 class JsonWriterFactoryImpl extends JsonGeneratorFactoryImpl implements JsonWriterFactory {
 
-    JsonWriterFactoryImpl(Map<String, ?> config, CharBufferFactory bufferFactory) {
-        super(config, bufferFactory);
+    JsonWriterFactoryImpl(Map<String, ?> config,
+            CharBufferFactory bufferFactory, ByteBufferFactory byteBufferFactory) {
+        super(config, bufferFactory, byteBufferFactory);
     }
 
     @Override
@@ -47,8 +46,7 @@ class JsonWriterFactoryImpl extends JsonGeneratorFactoryImpl implements JsonWrit
     @Override
     public JsonWriter createWriter(OutputStream out) {
         requireNonNull(out, "out");
-        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
-        JsonGenerator generator = createGenerator(writer);
+        JsonGenerator generator = createGenerator(out);
         return new JsonWriterImpl(generator);
     }
 
@@ -56,8 +54,7 @@ class JsonWriterFactoryImpl extends JsonGeneratorFactoryImpl implements JsonWrit
     public JsonWriter createWriter(OutputStream out, Charset charset) {
         requireNonNull(out, "out");
         requireNonNull(charset, "charset");
-        Writer writer = new OutputStreamWriter(out, charset);
-        JsonGenerator generator = createGenerator(writer);
+        JsonGenerator generator = createGenerator(out, charset);
         return new JsonWriterImpl(generator);
     }
 }
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2019-2020 the Joy Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.joy.core;
+
+import jakarta.json.JsonValue;
+
+/**
+ * A JSON array whose items are built from a {@link StructuralIndex} when
+ * they are accessed for the first time.
+ *
+ * @author leadpony
+ */
+final class LazyJsonArray extends AbstractJsonArray {
+
+    private final StructuralIndex index;
+    private final int[] nodes;
+    private final JsonValue[] items;
+
+    /**
+     * Constructs this array.
+     *
+     * @param index the index containing the array.
+     * @param node  the node of the array.
+     */
+    LazyJsonArray(StructuralIndex index, int node) {
+        this.index = index;
+        final int size = index.getSize(node);
+        this.nodes = new int[size];
+        this.items = new JsonValue[size];
+        int item = node + 1;
+        for (int i = 0; i < size; i++) {
+            nodes[i] = item;
+            item = index.getNext(item);
+        }
+    }
+
+    @Override
+    public JsonValue get(int index) {
+        JsonValue item = items[index];
+        if (item == null) {
+            item = this.index.getValue(nodes[index]);
+            items[index] = item;
+        }
+        return item;
+    }
+
+    @Override
+    public int size() {
+        return nodes.length;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2019-2020 the Joy Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.joy.core;
+
+import java.util.Arrays;
+
+import jakarta.json.JsonValue;
+
+/**
+ * A JSON object whose values are built from a {@link StructuralIndex} when
+ * they are accessed for the first time. The names of the properties are
+ * built when the object is created.
+ *
+ * <p>
+ * If a name appears more than once, the property keeps the position of the
+ * first one and the value of the last one, as {@link JsonObjectBuilderImpl}
+ * does.
+ * </p>
+ *
+ * @author leadpony
+ */
+final class LazyJsonObject extends AbstractJsonObject {
+
+    private final StructuralIndex index;
+    private final String[] names;
+    private final int[] nodes;
+    private final JsonValue[] values;
+    private final int[] table;
+
+    /**
+     * Constructs this object.
+     *
+     * @param index the index containing the object.
+     * @param node  the node of the object.
+     */
+    LazyJsonObject(StructuralIndex index, int node) {
+        this.index = index;
+        final int count = index.getSize(node);
+        String[] names = new String[count];
+        int[] nodes = new int[count];
+        int[] table = (count > JsonObjectImpl.MAX_LINEAR_SIZE)
+                ? new int[Integer.highestOneBit(count) << 2] : null;
+        int size = 0;
+        int key = node + 1;
+        for (int i = 0; i < count; i++) {
+            String name = index.getString(key);
+            int found = JsonObjectImpl.indexOf(names, table, size, name);
+            if (found >= 0) {
+                nodes[found] = key + 1;
+            } else {
+                names[size] = name;
+                nodes[size] = key + 1;
+                if (table != null) {
+                    JsonObjectImpl.addToTable(table, name, size);
+                }
+                size++;
+            }
+            key = index.getNext(key + 1);
+        }
+        if (size < count) {
+            names = Arrays.copyOf(names, size);
+            nodes = Arrays.copyOf(nodes, size);
+        }
+        this.names = names;
+        this.nodes = nodes;
+        this.values = new JsonValue[size];
+        this.table = table;
+    }
+
+    /* As a Map */
+
+    @Override
+    public int size() {
+        return names.length;
+    }
+
+    @Override
+    String getName(int index) {
+        return names[index];
+    }
+
+    @Override
+    JsonValue getValueAt(int index) {
+        JsonValue value = values[index];
+        if (value == null) {
+            value = this.index.getValue(nodes[index]);
+            values[index] = value;
+        }
+        return value;
+    }
+
+    @Override
+    int indexOf(Object key) {
+        return JsonObjectImpl.indexOf(names, table, names.length, key);
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2019-2020 the Joy Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.joy.core;
+
+import jakarta.json.JsonValue;
+
+import org.leadpony.joy.api.JsonNumberArray;
+
+/**
+ * A JSON array of numbers holding {@code long} values, some of which do not
+ * fit in {@code int}.
+ *
+ * @author leadpony
+ */
+final class LongJsonArray extends AbstractJsonArray implements JsonNumberArray {
+
+    private final long[] values;
+
+    LongJsonArray(long[] values) {
+        this.values = values;
+    }
+
+    /* As a JsonNumberArray */
+
+    @Override
+    public int[] toIntArray() {
+        int[] result = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = (int) values[i];
+        }
+        return result;
+    }
+
+    @Override
+    public long[] toLongArray() {
+        return values.clone();
+    }
+
+    @Override
+    public double[] toDoubleArray() {
+        double[] result = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = values[i];
+        }
+        return result;
+    }
+
+    /* As a List */
+
+    @Override
+    public JsonValue get(int index) {
+        long value = values[index];
+        // The same number as parsed.
+        if (value == (int) value) {
+            return JsonValues.valueOf((int) value);
+        }
+        return JsonValues.valueOf(value);
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+}
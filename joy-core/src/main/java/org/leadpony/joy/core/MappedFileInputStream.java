@@ -0,0 +1,110 @@
+/*
+ * Copyright 2019-2020 the Joy Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.joy.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * An input stream which reads a file through memory-mapped windows. The
+ * windows are mapped one after another, so files larger than 2 GB can be
+ * read.
+ *
+ * @author leadpony
+ */
+class MappedFileInputStream extends InputStream {
+
+    /**
+     * The default size of a mapped window, in bytes.
+     */
+    static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final int windowSize;
+
+    /*
+     * The file position of the next window.
+     */
+    private long nextPosition;
+
+    private MappedByteBuffer window;
+
+    MappedFileInputStream(Path path, int windowSize) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+        this.windowSize = windowSize;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!prepareWindow()) {
+            return -1;
+        }
+        return window.get() & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!prepareWindow()) {
+            return -1;
+        }
+        int bytesToRead = Math.min(len, window.remaining());
+        window.get(b, off, bytesToRead);
+        return bytesToRead;
+    }
+
+    @Override
+    public int available() {
+        long remaining = fileSize - nextPosition;
+        if (window != null) {
+            remaining += window.remaining();
+        }
+        return (int) Math.min(remaining, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+
+    /**
+     * Maps the next window if the current window is exhausted.
+     *
+     * @return {@code false} if the end of file was reached.
+     * @throws IOException if an I/O error has occurred.
+     */
+    private boolean prepareWindow() throws IOException {
+        if (window != null && window.hasRemaining()) {
+            return true;
+        }
+        if (nextPosition >= fileSize) {
+            return false;
+        }
+        long size = Math.min(windowSize, fileSize - nextPosition);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, nextPosition, size);
+        nextPosition += size;
+        return true;
+    }
+}
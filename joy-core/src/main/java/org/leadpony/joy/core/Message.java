@@ -94,6 +94,10 @@ public final class Message {
         return format("IOErrorOccurredWhileParserWasReading");
     }
 
+    public static String thatIOErrorOccurredWhileParserWasOpening(Object source) {
+        return format("IOErrorOccurredWhileParserWasOpening", source);
+    }
+
     public static String thatIOErrorOccurredWhileParserWasClosing() {
         return format("IOErrorOccurredWhileParserWasClosing");
     }
@@ -102,6 +106,19 @@ public final class Message {
         return format("ParserHasBeenAlreadyClosed");
     }
 
+    public static String thatEndOfInputHasBeenAlreadyFed() {
+        return format("EndOfInputHasBeenAlreadyFed");
+    }
+
+    public static String thatParserNeedsMoreInput() {
+        return format("ParserNeedsMoreInput");
+    }
+
+    public static String thatWholeValueHasNotBeenFed(String method) {
+        requireNonNull(method, "method");
+        return format("WholeValueHasNotBeenFed", method);
+    }
+
     /*
      * Messages for JSON generator
      */
@@ -145,6 +162,14 @@ public final class Message {
         return format("GeneratorIsNotCompleted");
     }
 
+    public static String thatGeneratorHasNoOutput() {
+        return format("GeneratorHasNoOutput");
+    }
+
+    public static String thatBufferHasNoSpaceRemaining() {
+        return format("BufferHasNoSpaceRemaining");
+    }
+
     public static String thatIOErrorOccurredWhileGeneratorWasWriting() {
         return format("IOErrorOccurredWhileGeneratorWasWriting");
     }
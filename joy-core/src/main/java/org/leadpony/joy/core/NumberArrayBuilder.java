@@ -0,0 +1,254 @@
+/*
+ * Copyright 2019-2020 the Joy Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.joy.core;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import jakarta.json.JsonArray;
+import jakarta.json.JsonArrayBuilder;
+import jakarta.json.JsonNumber;
+import jakarta.json.JsonValue;
+
+/**
+ * A builder of the JSON arrays which keep the numbers as primitive values.
+ * The numbers are accepted while all of them are integers in the range of
+ * long, or all of them are the shortest decimals of {@code double} values
+ * written in the format of {@link Double#toString(double)}.
+ *
+ * <p>
+ * The decimals are accepted by their digits and scales only, without
+ * formatting the {@code double} values. A decimal of 15 significant digits at
+ * most is the shortest decimal of the nearest double, while a longer one is
+ * not accepted. The unscaled values and the scales are kept until the array
+ * is built, so that the numbers added so far can be copied to another builder
+ * as they are.
+ * </p>
+ *
+ * @author leadpony
+ */
+final class NumberArrayBuilder {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /*
+     * Any decimal of 15 significant digits at most is the shortest decimal
+     * of the nearest normal double.
+     */
+    private static final int MAX_DIGITS = 15;
+
+    /*
+     * The range of the decimal point for which the doubles are normal and
+     * finite, where the decimal is 0.d1d2...dn 10^point.
+     */
+    private static final int MIN_POINT = -306;
+    private static final int MAX_POINT = 308;
+
+    /*
+     * The range of the decimal point for which the doubles are written
+     * without exponent, where the decimal is 0.d1d2...dn 10^point.
+     */
+    private static final int MIN_PLAIN_POINT = -2;
+    private static final int MAX_PLAIN_POINT = 7;
+
+    private static final long[] POWERS_OF_TEN = {
+        1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L,
+        10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L, 10_000_000_000_000L, 100_000_000_000_000L,
+        1_000_000_000_000_000L
+    };
+
+    /*
+     * The integers, or the unscaled values of the decimals.
+     */
+    private long[] longs;
+    private int[] scales;
+    private int size;
+    private boolean allInts = true;
+
+    /**
+     * Adds a value to the array if it can be kept as a primitive value.
+     *
+     * @param value the value to add.
+     * @return {@code true} if the value was added, {@code false} if the array
+     *         cannot be built by this builder.
+     */
+    boolean add(JsonValue value) {
+        if (isInteger(value)) {
+            return addLong(((JsonNumber) value).longValue());
+        } else if (value instanceof BigDecimalJsonNumber) {
+            BigDecimal decimal = ((JsonNumber) value).bigDecimalValue();
+            if (decimal.precision() > MAX_DIGITS) {
+                return false;
+            }
+            return addDecimal(decimal.unscaledValue().longValue(), decimal.scale());
+        }
+        return false;
+    }
+
+    /**
+     * Adds an integer to the array.
+     *
+     * @param value the integer to add.
+     * @return {@code true} if the value was added, {@code false} if the array
+     *         cannot be built by this builder.
+     */
+    boolean addLong(long value) {
+        if (scales != null) {
+            return false;
+        }
+        if (longs == null) {
+            longs = new long[INITIAL_CAPACITY];
+        } else if (size == longs.length) {
+            longs = Arrays.copyOf(longs, size * 2);
+        }
+        longs[size++] = value;
+        allInts &= value == (int) value;
+        return true;
+    }
+
+    /**
+     * Adds a decimal {@code unscaled * 10^-scale} to the array if it is the
+     * shortest decimal of a {@code double} value.
+     *
+     * @param unscaled the unscaled value of the decimal.
+     * @param scale    the scale of the decimal.
+     * @return {@code true} if the value was added, {@code false} if the array
+     *         cannot be built by this builder.
+     */
+    boolean addDecimal(long unscaled, int scale) {
+        if ((longs != null && scales == null) || !isShortestDecimal(unscaled, scale)) {
+            return false;
+        }
+        if (scales == null) {
+            longs = new long[INITIAL_CAPACITY];
+            scales = new int[INITIAL_CAPACITY];
+        } else if (size == longs.length) {
+            longs = Arrays.copyOf(longs, size * 2);
+            scales = Arrays.copyOf(scales, size * 2);
+        }
+        longs[size] = unscaled;
+        scales[size++] = scale;
+        return true;
+    }
+
+    /**
+     * Checks if no values were added.
+     *
+     * @return {@code true} if this builder is empty.
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Builds the array of the values added so far.
+     *
+     * @return the newly built array.
+     */
+    JsonArray build() {
+        if (scales != null) {
+            double[] doubles = new double[size];
+            for (int i = 0; i < size; i++) {
+                doubles[i] = toDouble(longs[i], scales[i]);
+            }
+            return new DoubleJsonArray(doubles);
+        } else if (allInts) {
+            int[] ints = new int[size];
+            for (int i = 0; i < size; i++) {
+                ints[i] = (int) longs[i];
+            }
+            return new IntJsonArray(ints);
+        }
+        return new LongJsonArray(Arrays.copyOf(longs, size));
+    }
+
+    /**
+     * Adds the values added so far to the specified builder, as the numbers
+     * created by the parsers.
+     *
+     * @param builder the builder to which the values are added.
+     */
+    void copyTo(JsonArrayBuilder builder) {
+        for (int i = 0; i < size; i++) {
+            long value = longs[i];
+            if (scales != null) {
+                builder.add(JsonValues.valueOf(BigDecimal.valueOf(value, scales[i])));
+            } else if (value == (int) value) {
+                builder.add(JsonValues.valueOf((int) value));
+            } else {
+                builder.add(JsonValues.valueOf(value));
+            }
+        }
+    }
+
+    /**
+     * Checks if the specified decimal is the shortest decimal of a normal
+     * double, with the same scale.
+     */
+    private static boolean isShortestDecimal(long unscaled, int scale) {
+        if (unscaled == 0) {
+            // Written as "0.0"
+            return scale == 1;
+        }
+        long significand = Math.abs(unscaled);
+        int exponent = -scale;
+        while (significand % 10 == 0) {
+            significand /= 10;
+            exponent++;
+        }
+        final int length = countDigits(significand);
+        final int point = length + exponent;
+        return length <= MAX_DIGITS
+                && MIN_POINT <= point && point <= MAX_POINT
+                && scale == getScale(length, exponent);
+    }
+
+    private static double toDouble(long unscaled, int scale) {
+        double value = DoubleParser.toDouble(Math.abs(unscaled), -scale, unscaled < 0);
+        if (Double.isNaN(value)) {
+            value = BigDecimal.valueOf(unscaled, scale).doubleValue();
+        }
+        return value;
+    }
+
+    /**
+     * Returns the scale of the decimal {@code d1d2...dn 10^exponent} written
+     * by {@link Double#toString(double)}, where dn is not zero.
+     */
+    private static int getScale(int length, int exponent) {
+        final int point = length + exponent;
+        if (MIN_PLAIN_POINT <= point && point <= MAX_PLAIN_POINT) {
+            return Math.max(1, -exponent);
+        }
+        // d1.d2...dnEx
+        return Math.max(1, length - 1) - (point - 1);
+    }
+
+    private static int countDigits(long value) {
+        int digits = 1;
+        while (digits < POWERS_OF_TEN.length && value >= POWERS_OF_TEN[digits]) {
+            digits++;
+        }
+        return digits;
+    }
+
+    private static boolean isInteger(JsonValue value) {
+        return value instanceof IntJsonNumber
+                || value instanceof LongJsonNumber
+                || value == IntJsonNumber.ZERO
+                || value == IntJsonNumber.ONE;
+    }
+}
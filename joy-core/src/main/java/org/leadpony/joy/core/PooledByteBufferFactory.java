@@ -0,0 +1,92 @@
+/*
+ * Copyright 2019 the Joy Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.joy.core;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+/**
+ * A byte buffer factory which can keep created buffers.
+ *
+ * @author leadpony
+ */
+class PooledByteBufferFactory implements ByteBufferFactory {
+
+    private final int defaultSize;
+    private final int maxBuffers;
+    private final int maxBufferSize;
+
+    private final Queue<WeakReference<byte[]>> pool;
+
+    PooledByteBufferFactory() {
+        this(8192, 5, 65536);
+    }
+
+    /**
+     * Constructs this factory.
+     *
+     * @param defaultSize   the size of the buffers to create.
+     * @param maxBuffers    the maximum number of the buffers to keep.
+     * @param maxBufferSize the maximum size of the buffers to keep. The larger
+     *                      buffers, which were extended by the parsers, are
+     *                      dropped on release.
+     */
+    PooledByteBufferFactory(int defaultSize, int maxBuffers, int maxBufferSize) {
+        this.defaultSize = defaultSize;
+        this.maxBuffers = maxBuffers;
+        this.maxBufferSize = maxBufferSize;
+        this.pool = new ArrayDeque<>();
+    }
+
+    @Override
+    public byte[] createBuffer() {
+        byte[] buffer = getBuffer();
+        if (buffer != null) {
+            return buffer;
+        }
+        return createNewBuffer();
+    }
+
+    @Override
+    public void releaseBuffer(byte[] buffer) {
+        if (buffer.length <= maxBufferSize) {
+            putBuffer(buffer);
+        }
+    }
+
+    private byte[] createNewBuffer() {
+        return new byte[defaultSize];
+    }
+
+    private synchronized byte[] getBuffer() {
+        while (!pool.isEmpty()) {
+            WeakReference<byte[]> ref = pool.poll();
+            byte[] buffer = ref.get();
+            if (buffer != null) {
+                return buffer;
+            }
+        }
+        return null;
+    }
+
+    private synchronized void putBuffer(byte[] buffer) {
+        while (pool.size() >= maxBuffers) {
+            pool.poll();
+        }
+        pool.offer(new WeakReference<>(buffer));
+    }
+}
@@ -28,16 +28,27 @@ class PooledCharBufferFactory implements CharBufferFactory {
 
     private final int defaultSize;
     private final int maxBuffers;
+    private final int maxBufferSize;
 
     private final Queue<WeakReference<char[]>> pool;
 
     PooledCharBufferFactory() {
-        this(4096, 5);
+        this(4096, 5, 65536);
     }
 
-    PooledCharBufferFactory(int defaultSize, int maxBuffers) {
+    /**
+     * Constructs this factory.
+     *
+     * @param defaultSize   the size of the buffers to create.
+     * @param maxBuffers    the maximum number of the buffers to keep.
+     * @param maxBufferSize the maximum size of the buffers to keep. The larger
+     *                      buffers, which were extended by the parsers, are
+     *                      dropped on release.
+     */
+    PooledCharBufferFactory(int defaultSize, int maxBuffers, int maxBufferSize) {
         this.defaultSize = defaultSize;
         this.maxBuffers = maxBuffers;
+        this.maxBufferSize = maxBufferSize;
         this.pool = new ArrayDeque<>();
     }
 
@@ -52,7 +63,9 @@ class PooledCharBufferFactory implements CharBufferFactory {
 
     @Override
     public void releaseBuffer(char[] buffer) {
-        putBuffer(buffer);
+        if (buffer.length <= maxBufferSize) {
+            putBuffer(buffer);
+        }
     }
 
     private char[] createNewBuffer() {
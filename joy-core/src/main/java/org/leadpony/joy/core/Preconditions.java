@@ -28,6 +28,12 @@ public final class Preconditions {
         }
     }
 
+    public static void requireValidRange(int offset, int length, int size) {
+        if (offset < 0 || length < 0 || length > size - offset) {
+            throw new IndexOutOfBoundsException("offset or length is out of range.");
+        }
+    }
+
     public static void requireFiniteNumber(double value) {
         if (Double.isNaN(value) || Double.isInfinite(value)) {
             throw new NumberFormatException("value must be a finite number.");
@@ -26,12 +26,19 @@ final class PrettyJsonGenerator extends CompactJsonGenerator {
     private final int indentationSize;
     private int indentationTotal;
 
-    PrettyJsonGenerator(Writer writer, CharBufferFactory bufferFactory, char indentationChar, int indentationSize) {
-        super(writer, bufferFactory);
+    PrettyJsonGenerator(Writer writer, CharBufferFactory bufferFactory, ByteBufferFactory byteBufferFactory,
+            char indentationChar, int indentationSize) {
+        super(writer, bufferFactory, byteBufferFactory);
         this.indentationChar = indentationChar;
         this.indentationSize = indentationSize;
     }
 
+    @Override
+    protected void resetState() {
+        super.resetState();
+        indentationTotal = 0;
+    }
+
     @Override
     protected void appendOpeningBracket(char c) {
         super.appendOpeningBracket(c);
@@ -0,0 +1,257 @@
+/*
+ * Copyright 2019-2020 the Joy Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.joy.core;
+
+import static org.leadpony.joy.core.Preconditions.requireNonNull;
+import static org.leadpony.joy.core.Preconditions.requireValidRange;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.Map.Entry;
+import java.util.stream.Stream;
+
+import jakarta.json.JsonArray;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonValue;
+import jakarta.json.stream.JsonLocation;
+
+import org.leadpony.joy.api.FieldSet;
+import org.leadpony.joy.api.ReusableJsonParser;
+import org.leadpony.joy.core.StreamReaders.DetectedEncoding;
+
+/**
+ * An implementation of {@link ReusableJsonParser}.
+ *
+ * <p>
+ * This parser delegates to one of the underlying parsers, each of which is
+ * created on first use for its kind of input and reset afterwards. The
+ * buffers of the underlying parsers are owned by this parser and never
+ * released to the pool.
+ * </p>
+ *
+ * @author leadpony
+ */
+final class ReusableJsonParserImpl implements ReusableJsonParser {
+
+    private static final byte[] NO_BYTES = {};
+
+    private final JsonParserFactoryImpl factory;
+    private final CharBufferFactory bufferFactory;
+    private final ByteBufferFactory byteBufferFactory;
+
+    // The parser reading bytes in place.
+    private final Utf8JsonParser bytesParser;
+    // The parser reading UTF-8 input streams.
+    private Utf8JsonParser streamParser;
+    // The parser reading characters.
+    private BasicJsonParser charsParser;
+
+    // The parser currently used.
+    private AbstractBasicJsonParser parser;
+
+    /**
+     * Constructs this parser.
+     *
+     * @param factory           the factory which configures the underlying
+     *                          parsers.
+     * @param bufferFactory     the factory of char buffers.
+     * @param byteBufferFactory the factory of byte buffers.
+     */
+    ReusableJsonParserImpl(JsonParserFactoryImpl factory,
+            CharBufferFactory bufferFactory, ByteBufferFactory byteBufferFactory) {
+        this.factory = factory;
+        this.bufferFactory = bufferFactory::createBuffer;
+        this.byteBufferFactory = byteBufferFactory::createBuffer;
+        this.bytesParser = factory.configure(new Utf8JsonParser(NO_BYTES, 0, 0));
+        this.parser = bytesParser;
+    }
+
+    /* As a ReusableJsonParser */
+
+    @Override
+    public void reset(InputStream in) {
+        requireNonNull(in, "in");
+        DetectedEncoding encoding = StreamReaders.detectEncoding(in);
+        if (encoding.isUtf8()) {
+            resetStream(in, encoding.getLeadingBytes());
+        } else {
+            resetChars(StreamReaders.createStreamReader(in, encoding));
+        }
+    }
+
+    @Override
+    public void reset(Reader reader) {
+        requireNonNull(reader, "reader");
+        resetChars(reader);
+    }
+
+    @Override
+    public void reset(byte[] bytes, int offset, int length) {
+        requireNonNull(bytes, "bytes");
+        requireValidRange(offset, length, bytes.length);
+        if (StreamReaders.isUtf8WithoutBom(bytes, offset, length)) {
+            bytesParser.reset(bytes, offset, length);
+            this.parser = bytesParser;
+            return;
+        }
+        ByteArrayInputStream in = new ByteArrayInputStream(bytes, offset, length);
+        DetectedEncoding encoding = StreamReaders.detectEncoding(in);
+        if (encoding.isUtf8()) {
+            // Skips the byte order mark only.
+            int start = offset + length - in.available() - encoding.getLeadingBytes().length;
+            bytesParser.reset(bytes, start, offset + length - start);
+            this.parser = bytesParser;
+        } else {
+            resetChars(StreamReaders.createStreamReader(in, encoding));
+        }
+    }
+
+    /* As a JsonParser */
+
+    @Override
+    public boolean hasNext() {
+        return parser.hasNext();
+    }
+
+    @Override
+    public Event next() {
+        return parser.next();
+    }
+
+    @Override
+    public Event currentEvent() {
+        return parser.getCurrentEvent();
+    }
+
+    @Override
+    public String getString() {
+        return parser.getString();
+    }
+
+    @Override
+    public Reader getValueReader() {
+        return parser.getValueReader();
+    }
+
+    @Override
+    public int nextFieldIndex(FieldSet fields) {
+        return parser.nextFieldIndex(fields);
+    }
+
+    @Override
+    public boolean isIntegralNumber() {
+        return parser.isIntegralNumber();
+    }
+
+    @Override
+    public int getInt() {
+        return parser.getInt();
+    }
+
+    @Override
+    public long getLong() {
+        return parser.getLong();
+    }
+
+    @Override
+    public BigDecimal getBigDecimal() {
+        return parser.getBigDecimal();
+    }
+
+    @Override
+    public double getDouble() {
+        return parser.getDouble();
+    }
+
+    @Override
+    public JsonLocation getLocation() {
+        return parser.getLocation();
+    }
+
+    @Override
+    public JsonObject getObject() {
+        return parser.getObject();
+    }
+
+    @Override
+    public JsonValue getValue() {
+        return parser.getValue();
+    }
+
+    @Override
+    public JsonArray getArray() {
+        return parser.getArray();
+    }
+
+    @Override
+    public Stream<JsonValue> getArrayStream() {
+        return parser.getArrayStream();
+    }
+
+    @Override
+    public Stream<Entry<String, JsonValue>> getObjectStream() {
+        return parser.getObjectStream();
+    }
+
+    @Override
+    public Stream<JsonValue> getValueStream() {
+        return parser.getValueStream();
+    }
+
+    @Override
+    public void skipArray() {
+        parser.skipArray();
+    }
+
+    @Override
+    public void skipObject() {
+        parser.skipObject();
+    }
+
+    @Override
+    public void close() {
+        parser.close();
+    }
+
+    /**
+     * Returns the parser currently used.
+     *
+     * @return the underlying parser.
+     */
+    AbstractBasicJsonParser getCurrentParser() {
+        return parser;
+    }
+
+    private void resetStream(InputStream in, byte[] leadingBytes) {
+        if (streamParser == null) {
+            streamParser = factory.configure(new Utf8JsonParser(in, leadingBytes, byteBufferFactory));
+        } else {
+            streamParser.reset(in, leadingBytes);
+        }
+        this.parser = streamParser;
+    }
+
+    private void resetChars(Reader reader) {
+        if (charsParser == null) {
+            charsParser = factory.configure(new BasicJsonParser(reader, bufferFactory));
+        } else {
+            charsParser.reset(reader);
+        }
+        this.parser = charsParser;
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2019-2020 the Joy Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.joy.core;
+
+import org.leadpony.joy.api.SerializedName;
+
+/**
+ * A {@link SerializedName} holding the characters of the name escaped and
+ * enclosed in quotation marks.
+ *
+ * @author leadpony
+ */
+final class SerializedNameImpl implements SerializedName {
+
+    private final String name;
+    private final char[] quotedChars;
+
+    SerializedNameImpl(String name, char[] quotedChars) {
+        this.name = name;
+        this.quotedChars = quotedChars;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    char[] getQuotedChars() {
+        return quotedChars;
+    }
+
+    @Override
+    public String toString() {
+        return new String(quotedChars);
+    }
+}
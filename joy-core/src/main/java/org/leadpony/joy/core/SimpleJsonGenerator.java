@@ -33,8 +33,11 @@ import jakarta.json.JsonObject;
 import jakarta.json.JsonString;
 import jakarta.json.JsonValue;
 import jakarta.json.stream.JsonGenerationException;
+import jakarta.json.stream.JsonParser.Event;
 
 import org.leadpony.joy.api.JsonGenerator;
+import org.leadpony.joy.api.JsonParser;
+import org.leadpony.joy.api.SerializedName;
 
 /**
  * @author leadpony
@@ -73,6 +76,47 @@ class SimpleJsonGenerator extends JsonStringBuilder implements JsonGenerator {
         return this;
     }
 
+    @Override
+    public JsonGenerator writeKey(SerializedName name) {
+        if (name instanceof SerializedNameImpl) {
+            state = state.writeKey(this, (SerializedNameImpl) name);
+            return this;
+        }
+        return writeKey(name.getName());
+    }
+
+    @Override
+    public JsonGenerator copyCurrentEvent(JsonParser parser) {
+        AbstractBasicJsonParser basicParser = null;
+        if (parser instanceof AbstractBasicJsonParser) {
+            basicParser = (AbstractBasicJsonParser) parser;
+        } else if (parser instanceof ReusableJsonParserImpl) {
+            basicParser = ((ReusableJsonParserImpl) parser).getCurrentParser();
+        }
+        if (basicParser != null && !basicParser.hasStreamedString()) {
+            Event event = basicParser.getCurrentEvent();
+            if (event == Event.KEY_NAME) {
+                state = state.copyKey(this);
+                append('"');
+                basicParser.appendValue(this);
+                append('"');
+                appendColon();
+                return this;
+            } else if (event == Event.VALUE_STRING) {
+                state = state.copyValue(this);
+                append('"');
+                basicParser.appendValue(this);
+                append('"');
+                return this;
+            } else if (event == Event.VALUE_NUMBER) {
+                state = state.copyValue(this);
+                basicParser.appendValue(this);
+                return this;
+            }
+        }
+        return JsonGenerator.super.copyCurrentEvent(parser);
+    }
+
     @Override
     public JsonGenerator writeStartArray() {
         state = state.writeStartArray(this);
@@ -230,6 +274,15 @@ class SimpleJsonGenerator extends JsonStringBuilder implements JsonGenerator {
     public void flush() {
     }
 
+    /**
+     * Discards the JSON written so far and starts a new one.
+     */
+    protected void resetState() {
+        stateStack.clear();
+        state = State.INITIAL;
+        writePos = 0;
+    }
+
     final void pushState(State state) {
         stateStack.push(state);
     }
@@ -245,6 +298,12 @@ class SimpleJsonGenerator extends JsonStringBuilder implements JsonGenerator {
         appendColon();
     }
 
+    final void appendKey(SerializedNameImpl name) {
+        char[] chars = name.getQuotedChars();
+        appendChars(chars, 0, chars.length);
+        appendColon();
+    }
+
     final void appendValue(JsonValue value) {
         switch (value.getValueType()) {
         case ARRAY:
@@ -413,6 +472,11 @@ class SimpleJsonGenerator extends JsonStringBuilder implements JsonGenerator {
                 g.appendNull();
                 return FINAL;
             }
+
+            @Override
+            State copyValue(SimpleJsonGenerator g) {
+                return FINAL;
+            }
         },
 
         FINAL(Message::thatIllegalGeneratorMethodWasCalledAfterAll) {
@@ -420,6 +484,12 @@ class SimpleJsonGenerator extends JsonStringBuilder implements JsonGenerator {
 
         START_ARRAY(Message::thatIllegalGeneratorMethodWasCalledAfterArrayStart) {
 
+            @Override
+            State copyValue(SimpleJsonGenerator g) {
+                g.appendBreak();
+                return ARRAY;
+            }
+
             @Override
             State writeStartObject(SimpleJsonGenerator g) {
                 g.appendBreak();
@@ -508,6 +578,12 @@ class SimpleJsonGenerator extends JsonStringBuilder implements JsonGenerator {
 
         ARRAY(Message::thatIllegalGeneratorMethodWasCalledAfterArrayItem) {
 
+            @Override
+            State copyValue(SimpleJsonGenerator g) {
+                g.appendComma();
+                return ARRAY;
+            }
+
             @Override
             State writeStartObject(SimpleJsonGenerator g) {
                 g.appendComma();
@@ -612,6 +688,19 @@ class SimpleJsonGenerator extends JsonStringBuilder implements JsonGenerator {
                 return KEY_NAME;
             }
 
+            @Override
+            State writeKey(SimpleJsonGenerator g, SerializedNameImpl name) {
+                g.appendBreak();
+                g.appendKey(name);
+                return KEY_NAME;
+            }
+
+            @Override
+            State copyKey(SimpleJsonGenerator g) {
+                g.appendBreak();
+                return KEY_NAME;
+            }
+
             @Override
             State writeStartArray(SimpleJsonGenerator g, String name) {
                 g.appendBreak();
@@ -769,6 +858,11 @@ class SimpleJsonGenerator extends JsonStringBuilder implements JsonGenerator {
                 g.appendNull();
                 return OBJECT;
             }
+
+            @Override
+            State copyValue(SimpleJsonGenerator g) {
+                return OBJECT;
+            }
         },
 
         OBJECT(Message::thatIllegalGeneratorMethodWasCalledAfterPropertyValue) {
@@ -788,6 +882,19 @@ class SimpleJsonGenerator extends JsonStringBuilder implements JsonGenerator {
                 return KEY_NAME;
             }
 
+            @Override
+            State writeKey(SimpleJsonGenerator g, SerializedNameImpl name) {
+                g.appendComma();
+                g.appendKey(name);
+                return KEY_NAME;
+            }
+
+            @Override
+            State copyKey(SimpleJsonGenerator g) {
+                g.appendComma();
+                return KEY_NAME;
+            }
+
             @Override
             State writeStartArray(SimpleJsonGenerator g, String name) {
                 g.appendComma();
@@ -894,6 +1001,10 @@ class SimpleJsonGenerator extends JsonStringBuilder implements JsonGenerator {
             throw newJsonGenerationException("writeKey(String)");
         }
 
+        State writeKey(SimpleJsonGenerator g, SerializedNameImpl name) {
+            throw newJsonGenerationException("writeKey(SerializedName)");
+        }
+
         State writeStartArray(SimpleJsonGenerator g) {
             throw newJsonGenerationException("writeStartArray()");
         }
@@ -978,6 +1089,14 @@ class SimpleJsonGenerator extends JsonStringBuilder implements JsonGenerator {
             throw newJsonGenerationException("writeNull()");
         }
 
+        State copyKey(SimpleJsonGenerator g) {
+            throw newJsonGenerationException("copyCurrentEvent(JsonParser)");
+        }
+
+        State copyValue(SimpleJsonGenerator g) {
+            throw newJsonGenerationException("copyCurrentEvent(JsonParser)");
+        }
+
         protected final JsonGenerationException newJsonGenerationException(String method) {
             return new JsonGenerationException(message.apply(method));
         }
@@ -21,11 +21,10 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.PushbackInputStream;
 import java.io.Reader;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 import jakarta.json.JsonException;
 
@@ -62,96 +61,169 @@ final class StreamReaders {
      * @see <a href="https://www.ietf.org/rfc/rfc4627.txt">RFC 4627</a>
      */
     static Reader createStreamReader(InputStream in) {
+        return createStreamReader(in, detectEncoding(in));
+    }
+
+    /**
+     * Creates a reader which will read from the specified input stream. The
+     * bytes already read while detecting the encoding are decoded first, so
+     * the input stream is not wrapped by another stream.
+     *
+     * @param in       the original input source.
+     * @param encoding the encoding detected by {@link #detectEncoding(InputStream)}.
+     * @return newly create reader.
+     */
+    static Reader createStreamReader(InputStream in, DetectedEncoding encoding) {
+        return new UnicodeStreamReader(in, encoding.getCharset(), encoding.getLeadingBytes());
+    }
+
+    /**
+     * Detects the character encoding of the specified input stream according
+     * to the logic described in RFC 4627. The first four bytes are read at
+     * once, and the byte order mark will be consumed if found.
+     *
+     * @param in the original input source.
+     * @return the detected encoding.
+     *
+     * @see <a href="https://www.ietf.org/rfc/rfc4627.txt">RFC 4627</a>
+     */
+    static DetectedEncoding detectEncoding(InputStream in) {
+        byte[] bytes = new byte[4];
+        int length = 0;
         try {
-            int b1 = in.read();
-            if (b1 < 0) {
-                // empty
-                return createReader(in, DEFAULT_ENCODING);
+            while (length < bytes.length) {
+                int bytesRead = in.read(bytes, length, bytes.length - length);
+                if (bytesRead < 0) {
+                    break;
+                }
+                length += bytesRead;
             }
+        } catch (IOException e) {
+            throw new JsonException(Message.thatIOErrorOccurredWhileParserWasReading(), e);
+        }
+        return detectEncoding(bytes, length);
+    }
 
-            int b2 = in.read();
-            if (b2 < 0) {
-                // 1 letter
-                return createReader(in, DEFAULT_ENCODING, (byte) b1);
-            }
+    private static DetectedEncoding detectEncoding(byte[] bytes, int length) {
+        if (length < 2) {
+            // empty or 1 letter
+            return new DetectedEncoding(DEFAULT_ENCODING, bytes, 0, length);
+        }
 
-            // 2 letters or more
+        final int b1 = bytes[0] & 0xff;
+        final int b2 = bytes[1] & 0xff;
 
-            if (b1 == 0xfe && b2 == 0xff) {
-                // UTF-16BE with BOM
-                return createReader(in, UTF_16BE);
-            }
+        if (b1 == 0xfe && b2 == 0xff) {
+            // UTF-16BE with BOM
+            return new DetectedEncoding(UTF_16BE, bytes, 2, length);
+        }
 
-            int b3 = in.read();
-            if (b3 < 0) {
-                // 2 letters
-                if (b1 == 0xff && b2 == 0xfe) {
-                    return createReader(in, UTF_16LE);
-                } else {
-                    if (b1 == 0) {
-                        return createReader(in, UTF_16BE, (byte) b1, (byte) b2);
-                    } else if (b2 == 0) {
-                        return createReader(in, UTF_16LE, (byte) b1, (byte) b2);
-                    }
-                    return createReader(in, DEFAULT_ENCODING, (byte) b1, (byte) b2);
-                }
+        if (length == 2) {
+            // 2 letters
+            if (b1 == 0xff && b2 == 0xfe) {
+                return new DetectedEncoding(UTF_16LE, bytes, 2, length);
+            } else if (b1 == 0) {
+                return new DetectedEncoding(UTF_16BE, bytes, 0, length);
+            } else if (b2 == 0) {
+                return new DetectedEncoding(UTF_16LE, bytes, 0, length);
             }
+            return new DetectedEncoding(DEFAULT_ENCODING, bytes, 0, length);
+        }
 
-            // 3 letters or more
+        final int b3 = bytes[2] & 0xff;
 
-            if (b1 == 0xef && b2 == 0xbb && b3 == 0xbf) {
-                // UTF-8 with BOM
-                return createReader(in, UTF_8);
-            }
+        if (b1 == 0xef && b2 == 0xbb && b3 == 0xbf) {
+            // UTF-8 with BOM
+            return new DetectedEncoding(UTF_8, bytes, 3, length);
+        }
 
-            int b4 = in.read();
-            if (b4 < 0) {
-                // 3 letters
-                return createReader(in, DEFAULT_ENCODING, (byte) b1, (byte) b2, (byte) b3);
-            }
+        if (length == 3) {
+            // 3 letters
+            return new DetectedEncoding(DEFAULT_ENCODING, bytes, 0, length);
+        }
 
-            // 4 letters or more
-
-            if (b1 == 0 && b2 == 0 && b3 == 0xfe && b4 == 0xff) {
-                // UTF-32BE with BOM
-                return createReader(in, UTF_32BE);
-            } else if (b1 == 0xff && b2 == 0xfe && b3 == 0 && b4 == 0) {
-                // UTF-32LE with BOM
-                return createReader(in, UTF_32LE);
-            } else if (b1 == 0xff && b2 == 0xfe) {
-                // UTF-16LE with BOM
-                return createReader(in, UTF_16LE, (byte) b3, (byte) b4);
-            }
+        // 4 letters or more
 
-            if (b1 == 0 && b3 == 0) {
-                if (b2 == 0) {
-                    return createReader(in, UTF_32BE, (byte) b1, (byte) b2, (byte) b3, (byte) b4);
-                } else {
-                    return createReader(in, UTF_16BE, (byte) b1, (byte) b2, (byte) b3, (byte) b4);
-                }
-            } else if (b2 == 0 && b4 == 0) {
-                if (b3 == 0) {
-                    return createReader(in, UTF_32LE, (byte) b1, (byte) b2, (byte) b3, (byte) b4);
-                } else {
-                    return createReader(in, UTF_16LE, (byte) b1, (byte) b2, (byte) b3, (byte) b4);
-                }
-            }
+        final int b4 = bytes[3] & 0xff;
 
-            return createReader(in, DEFAULT_ENCODING, (byte) b1, (byte) b2, (byte) b3, (byte) b4);
+        if (b1 == 0 && b2 == 0 && b3 == 0xfe && b4 == 0xff) {
+            // UTF-32BE with BOM
+            return new DetectedEncoding(UTF_32BE, bytes, 4, length);
+        } else if (b1 == 0xff && b2 == 0xfe && b3 == 0 && b4 == 0) {
+            // UTF-32LE with BOM
+            return new DetectedEncoding(UTF_32LE, bytes, 4, length);
+        } else if (b1 == 0xff && b2 == 0xfe) {
+            // UTF-16LE with BOM
+            return new DetectedEncoding(UTF_16LE, bytes, 2, length);
+        }
 
-        } catch (IOException e) {
-            throw new JsonException(Message.thatIOErrorOccurredWhileParserWasReading(), e);
+        if (b1 == 0 && b3 == 0) {
+            return new DetectedEncoding((b2 == 0) ? UTF_32BE : UTF_16BE, bytes, 0, length);
+        } else if (b2 == 0 && b4 == 0) {
+            return new DetectedEncoding((b3 == 0) ? UTF_32LE : UTF_16LE, bytes, 0, length);
         }
+
+        return new DetectedEncoding(DEFAULT_ENCODING, bytes, 0, length);
     }
 
-    private static Reader createReader(InputStream in, Charset charset) {
-        return new InputStreamReader(in, charset);
+    /**
+     * Checks if the specified bytes are encoded in UTF-8 without byte order
+     * mark. This method returns {@code true} for most of the UTF-8 input,
+     * which needs no further detection.
+     *
+     * @param bytes  the byte array containing the input.
+     * @param offset the offset of the first byte.
+     * @param length the number of bytes.
+     * @return {@code true} if the bytes are surely in UTF-8 without byte order
+     *         mark.
+     */
+    static boolean isUtf8WithoutBom(byte[] bytes, int offset, int length) {
+        // Neither the byte order marks nor the null bytes of UTF-16 and UTF-32.
+        return length >= 2 && bytes[offset] > 0 && bytes[offset + 1] != 0;
     }
 
-    private static Reader createReader(InputStream in, Charset charset, byte... bytes) throws IOException {
-        PushbackInputStream s = new PushbackInputStream(in, bytes.length);
-        s.unread(bytes);
-        return new InputStreamReader(s, charset);
+    /**
+     * The character encoding detected in an input stream.
+     *
+     * @author leadpony
+     */
+    static final class DetectedEncoding {
+
+        private final Charset charset;
+        private final byte[] leadingBytes;
+
+        DetectedEncoding(Charset charset, byte[] bytes, int start, int end) {
+            this.charset = charset;
+            this.leadingBytes = (start == 0 && end == bytes.length) ? bytes : Arrays.copyOfRange(bytes, start, end);
+        }
+
+        /**
+         * Returns the detected charset.
+         *
+         * @return the detected charset.
+         */
+        Charset getCharset() {
+            return charset;
+        }
+
+        /**
+         * Checks if the detected charset is UTF-8.
+         *
+         * @return {@code true} if the charset is UTF-8.
+         */
+        boolean isUtf8() {
+            return UTF_8.equals(charset);
+        }
+
+        /**
+         * Returns the bytes which were read from the stream but not consumed as
+         * the byte order mark.
+         *
+         * @return the bytes to be read again.
+         */
+        byte[] getLeadingBytes() {
+            return leadingBytes;
+        }
     }
 
     private StreamReaders() {
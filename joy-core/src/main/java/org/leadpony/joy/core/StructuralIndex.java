@@ -0,0 +1,203 @@
+/*
+ * Copyright 2019-2020 the Joy Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.joy.core;
+
+import java.util.Arrays;
+
+import jakarta.json.JsonValue;
+import jakarta.json.stream.JsonParser.Event;
+
+/**
+ * The structural index of a JSON value read by a parser which has the whole
+ * input in its read buffer.
+ *
+ * <p>
+ * The value and the values in it are kept as nodes in the order of the
+ * input. A node of a string or a number keeps the range of the value in the
+ * read buffer, and a node of an array or an object keeps the number of its
+ * items or properties and the index of the node following it. A property is
+ * kept as the node of the key name followed by the node of the value. The
+ * values are built from the nodes only when they are accessed.
+ * </p>
+ *
+ * @author leadpony
+ */
+final class StructuralIndex {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private static final byte ARRAY = 0;
+    private static final byte OBJECT = 1;
+    private static final byte STRING = 2;
+    // A string which has escape sequences in the read buffer.
+    private static final byte ESCAPED_STRING = 3;
+    private static final byte NUMBER = 4;
+    private static final byte TRUE = 5;
+    private static final byte FALSE = 6;
+    private static final byte NULL = 7;
+
+    private final AbstractBasicJsonParser parser;
+
+    private byte[] types = new byte[INITIAL_CAPACITY];
+    private int[] starts = new int[INITIAL_CAPACITY];
+    private int[] ends = new int[INITIAL_CAPACITY];
+    private int size;
+
+    private StructuralIndex(AbstractBasicJsonParser parser) {
+        this.parser = parser;
+    }
+
+    /**
+     * Reads the current value of the specified parser, which must have the
+     * whole input in its read buffer. The value is validated as a whole, but
+     * only the index of it is built.
+     *
+     * @param parser the parser whose current value will be read.
+     * @return the value which will be built on demand.
+     */
+    static JsonValue read(AbstractBasicJsonParser parser) {
+        StructuralIndex index = new StructuralIndex(parser);
+        index.addNodes();
+        return index.getValue(0);
+    }
+
+    /**
+     * Returns the value of the specified node.
+     *
+     * @param node the index of the node.
+     * @return the value built from the node.
+     */
+    JsonValue getValue(int node) {
+        switch (types[node]) {
+        case ARRAY:
+            return new LazyJsonArray(this, node);
+        case OBJECT:
+            return new LazyJsonObject(this, node);
+        case STRING:
+        case ESCAPED_STRING:
+            return JsonValues.valueOf(getString(node));
+        case NUMBER:
+            AbstractBasicJsonParser numberParser = parser.createPartialParser(starts[node], ends[node]);
+            numberParser.next();
+            return numberParser.getValue();
+        case TRUE:
+            return JsonValue.TRUE;
+        case FALSE:
+            return JsonValue.FALSE;
+        default:
+            return JsonValue.NULL;
+        }
+    }
+
+    /**
+     * Returns the string of the specified node of a string or a key name.
+     *
+     * @param node the index of the node.
+     * @return the string built from the node.
+     */
+    String getString(int node) {
+        return parser.buildString(starts[node], ends[node], types[node] == ESCAPED_STRING);
+    }
+
+    /**
+     * Returns the number of the items or the properties in the specified
+     * node of an array or an object.
+     *
+     * @param node the index of the node.
+     * @return the number of the items or the properties.
+     */
+    int getSize(int node) {
+        return starts[node];
+    }
+
+    /**
+     * Returns the node following the specified node and the nodes in it.
+     *
+     * @param node the index of the node.
+     * @return the index of the next node.
+     */
+    int getNext(int node) {
+        final byte type = types[node];
+        return (type == ARRAY || type == OBJECT) ? ends[node] : node + 1;
+    }
+
+    private void addNodes() {
+        int[] containers = new int[16];
+        int depth = 0;
+        Event event = parser.getCurrentEvent();
+        for (;;) {
+            if (depth > 0 && event != Event.END_ARRAY && event != Event.END_OBJECT) {
+                final int container = containers[depth - 1];
+                // Counts the items in the array, or the key names in the object.
+                if (types[container] == ARRAY || event == Event.KEY_NAME) {
+                    starts[container]++;
+                }
+            }
+            switch (event) {
+            case START_ARRAY:
+            case START_OBJECT:
+                if (depth == containers.length) {
+                    containers = Arrays.copyOf(containers, depth * 2);
+                }
+                containers[depth++] = addNode(event == Event.START_ARRAY ? ARRAY : OBJECT, 0, 0);
+                break;
+            case END_ARRAY:
+            case END_OBJECT:
+                ends[containers[--depth]] = size;
+                break;
+            case KEY_NAME:
+            case VALUE_STRING:
+                byte type = parser.hasRawEscape() ? ESCAPED_STRING : STRING;
+                addNode(type, parser.valueStart, parser.valueEnd);
+                break;
+            case VALUE_NUMBER:
+                addNode(NUMBER, parser.valueStart, parser.valueEnd);
+                break;
+            case VALUE_TRUE:
+                addNode(TRUE, 0, 0);
+                break;
+            case VALUE_FALSE:
+                addNode(FALSE, 0, 0);
+                break;
+            default:
+                addNode(NULL, 0, 0);
+                break;
+            }
+            if (depth == 0) {
+                return;
+            }
+            if (!parser.hasNext()) {
+                throw parser.newUnexpectedEndException(types[containers[depth - 1]] == ARRAY
+                        ? ParserEventSet.VALUES_OR_END_ARRAY
+                        : ParserEventSet.KEY_NAME_OR_END_OBJECT);
+            }
+            event = parser.next();
+        }
+    }
+
+    private int addNode(byte type, int start, int end) {
+        if (size == types.length) {
+            int newLength = size * 2;
+            types = Arrays.copyOf(types, newLength);
+            starts = Arrays.copyOf(starts, newLength);
+            ends = Arrays.copyOf(ends, newLength);
+        }
+        types[size] = type;
+        starts[size] = start;
+        ends[size] = end;
+        return size++;
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2019-2020 the Joy Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.joy.core;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A bounded table of canonical strings, shared by the parsers created by the
+ * same factory.
+ *
+ * <p>
+ * Each symbol can be found in one of two slots determined by its hash code. A
+ * new symbol is put in the first slot and evicts the older symbol in the second
+ * slot, so the table never grows. This class is thread-safe because strings
+ * are immutable; a thread may just fail to see a symbol recently added by
+ * another thread.
+ * </p>
+ *
+ * @author leadpony
+ */
+final class SymbolTable {
+
+    /**
+     * The maximum length of the symbols to keep.
+     */
+    static final int MAX_SYMBOL_LENGTH = 64;
+
+    private static final int MAX_TABLE_SIZE = 1 << 16;
+
+    private final String[] symbols;
+    private final int mask;
+
+    /**
+     * Constructs this table.
+     *
+     * @param size the maximum number of symbols, which will be rounded up to a
+     *             power of two.
+     */
+    SymbolTable(int size) {
+        int tableSize = 2;
+        while (tableSize < size && tableSize < MAX_TABLE_SIZE) {
+            tableSize <<= 1;
+        }
+        this.symbols = new String[tableSize];
+        this.mask = tableSize - 1;
+    }
+
+    /**
+     * Returns the symbol equal to the specified characters.
+     *
+     * @param chars  the array of characters.
+     * @param offset the offset of the first character.
+     * @param length the number of characters.
+     * @return the canonical string.
+     */
+    String getSymbol(char[] chars, int offset, int length) {
+        if (length > MAX_SYMBOL_LENGTH) {
+            return new String(chars, offset, length);
+        }
+        final int end = offset + length;
+        int hash = 0;
+        for (int i = offset; i < end; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        final int index = indexOf(hash);
+        String symbol = symbols[index];
+        if (matches(symbol, chars, offset, length)) {
+            return symbol;
+        }
+        symbol = symbols[index ^ 1];
+        if (matches(symbol, chars, offset, length)) {
+            return symbol;
+        }
+        return addSymbol(index, new String(chars, offset, length));
+    }
+
+    /**
+     * Returns the symbol equal to the specified ASCII bytes.
+     *
+     * @param bytes  the array of bytes.
+     * @param offset the offset of the first byte.
+     * @param length the number of bytes.
+     * @return the canonical string, or {@code null} if the bytes contain any
+     *         non-ASCII byte or too long.
+     */
+    String getSymbol(byte[] bytes, int offset, int length) {
+        if (length > MAX_SYMBOL_LENGTH) {
+            return null;
+        }
+        final int end = offset + length;
+        int hash = 0;
+        for (int i = offset; i < end; i++) {
+            int b = bytes[i];
+            if (b < 0) {
+                return null;
+            }
+            hash = 31 * hash + b;
+        }
+        final int index = indexOf(hash);
+        String symbol = symbols[index];
+        if (matches(symbol, bytes, offset, length)) {
+            return symbol;
+        }
+        symbol = symbols[index ^ 1];
+        if (matches(symbol, bytes, offset, length)) {
+            return symbol;
+        }
+        return addSymbol(index, new String(bytes, offset, length, StandardCharsets.US_ASCII));
+    }
+
+    private int indexOf(int hash) {
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private String addSymbol(int index, String symbol) {
+        symbols[index ^ 1] = symbols[index];
+        symbols[index] = symbol;
+        return symbol;
+    }
+
+    private static boolean matches(String symbol, char[] chars, int offset, int length) {
+        if (symbol == null || symbol.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (symbol.charAt(i) != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matches(String symbol, byte[] bytes, int offset, int length) {
+        if (symbol == null || symbol.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (symbol.charAt(i) != bytes[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,401 @@
+/*
+ * Copyright 2019-2020 the Joy Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.joy.core;
+
+import java.util.Arrays;
+
+import jakarta.json.JsonValue;
+import jakarta.json.stream.JsonParser.Event;
+
+/**
+ * A JSON value kept in two flat arrays, a tape of the nodes and the
+ * characters of the strings and the decimal numbers.
+ *
+ * <p>
+ * Each node occupies two words of the tape in the order of the input. The
+ * first word has the type of the node in the highest byte, and the payload
+ * in the rest. The payload of an array or an object is the position of the
+ * node following it, and the second word is the number of its items or
+ * properties. The payload of a string or a decimal number is the offset of
+ * its characters, and the second word is the number of the characters. The
+ * second word of an integer is the value itself. A property is kept as the
+ * node of the key name followed by the node of the value.
+ * </p>
+ *
+ * <p>
+ * The arrays and the objects are accessed through the views created on
+ * demand, and the other values are also created each time they are
+ * accessed. Nothing is kept by the views except the position of the node.
+ * </p>
+ *
+ * @author leadpony
+ */
+final class TapeDocument {
+
+    private static final int TYPE_SHIFT = 56;
+    private static final long PAYLOAD_MASK = (1L << TYPE_SHIFT) - 1;
+
+    private static final int ARRAY = 1;
+    private static final int OBJECT = 2;
+    // An object which has the same key name more than once.
+    private static final int OBJECT_WITH_DUPLICATES = 3;
+    private static final int STRING = 4;
+    private static final int INTEGER = 5;
+    private static final int DECIMAL = 6;
+    private static final int TRUE = 7;
+    private static final int FALSE = 8;
+    private static final int NULL = 9;
+
+    private final long[] tape;
+    private final char[] chars;
+
+    private TapeDocument(long[] tape, char[] chars) {
+        this.tape = tape;
+        this.chars = chars;
+    }
+
+    /**
+     * Reads the current value of the specified parser into a new document.
+     *
+     * @param parser the parser whose current value will be read.
+     * @return the value kept in the document.
+     */
+    static JsonValue read(AbstractBasicJsonParser parser) {
+        Builder builder = new Builder(parser);
+        builder.addNodes();
+        return builder.build().getValue(0);
+    }
+
+    /**
+     * Returns the value of the specified node.
+     *
+     * @param node the position of the node.
+     * @return the value of the node.
+     */
+    JsonValue getValue(int node) {
+        switch (getType(node)) {
+        case ARRAY:
+            return new TapeJsonArray(this, node);
+        case OBJECT:
+        case OBJECT_WITH_DUPLICATES:
+            return new TapeJsonObject(this, node);
+        case STRING:
+            return JsonValues.valueOf(chars, getPayload(node), (int) tape[node + 1]);
+        case INTEGER:
+            long value = tape[node + 1];
+            return (value == (int) value) ? JsonValues.valueOf((int) value) : JsonValues.valueOf(value);
+        case DECIMAL:
+            BasicJsonParser parser = new BasicJsonParser(chars, getPayload(node), (int) tape[node + 1]);
+            parser.next();
+            return parser.getValue();
+        case TRUE:
+            return JsonValue.TRUE;
+        case FALSE:
+            return JsonValue.FALSE;
+        default:
+            return JsonValue.NULL;
+        }
+    }
+
+    /**
+     * Returns the string of the specified node of a string or a key name.
+     *
+     * @param node the position of the node.
+     * @return the string of the node.
+     */
+    String getString(int node) {
+        return new String(chars, getPayload(node), (int) tape[node + 1]);
+    }
+
+    /**
+     * Checks if the specified node of a key name has the specified name.
+     *
+     * @param node the position of the node.
+     * @param name the name to compare.
+     * @return {@code true} if the node has the name.
+     */
+    boolean matches(int node, String name) {
+        final int length = (int) tape[node + 1];
+        if (name.length() != length) {
+            return false;
+        }
+        final char[] chars = this.chars;
+        final int offset = getPayload(node);
+        for (int i = 0; i < length; i++) {
+            if (chars[offset + i] != name.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of the items or the distinct properties in the
+     * specified node of an array or an object.
+     *
+     * @param node the position of the node.
+     * @return the number of the items or the properties.
+     */
+    int getSize(int node) {
+        return (int) tape[node + 1];
+    }
+
+    /**
+     * Returns the node following the specified node and the nodes in it.
+     *
+     * @param node the position of the node.
+     * @return the position of the next node.
+     */
+    int getNext(int node) {
+        final int type = getType(node);
+        return (type == ARRAY || type == OBJECT || type == OBJECT_WITH_DUPLICATES) ? getPayload(node) : node + 2;
+    }
+
+    /**
+     * Checks if the specified node of an object has any key name more than
+     * once.
+     *
+     * @param node the position of the node.
+     * @return {@code true} if the object has duplicate key names.
+     */
+    boolean hasDuplicates(int node) {
+        return getType(node) == OBJECT_WITH_DUPLICATES;
+    }
+
+    private int getType(int node) {
+        return (int) (tape[node] >>> TYPE_SHIFT);
+    }
+
+    private int getPayload(int node) {
+        return (int) (tape[node] & PAYLOAD_MASK);
+    }
+
+    /**
+     * A builder of the document from the events of a parser.
+     *
+     * @author leadpony
+     */
+    private static final class Builder {
+
+        private static final int INITIAL_TAPE_SIZE = 64;
+        private static final int INITIAL_CHARS_SIZE = 256;
+
+        private final AbstractBasicJsonParser parser;
+
+        private long[] tape = new long[INITIAL_TAPE_SIZE];
+        private int tapeSize;
+        private char[] chars = new char[INITIAL_CHARS_SIZE];
+        private int charsSize;
+
+        // The positions of the key names in an object.
+        private int[] keys = new int[16];
+
+        Builder(AbstractBasicJsonParser parser) {
+            this.parser = parser;
+        }
+
+        TapeDocument build() {
+            return new TapeDocument(Arrays.copyOf(tape, tapeSize), Arrays.copyOf(chars, charsSize));
+        }
+
+        void addNodes() {
+            int[] containers = new int[16];
+            int depth = 0;
+            Event event = parser.getCurrentEvent();
+            for (;;) {
+                if (depth > 0 && event != Event.END_ARRAY && event != Event.END_OBJECT) {
+                    final int container = containers[depth - 1];
+                    // Counts the items in the array, or the key names in the object.
+                    if ((tape[container] >>> TYPE_SHIFT) == ARRAY || event == Event.KEY_NAME) {
+                        tape[container + 1]++;
+                    }
+                }
+                switch (event) {
+                case START_ARRAY:
+                case START_OBJECT:
+                    if (depth == containers.length) {
+                        containers = Arrays.copyOf(containers, depth * 2);
+                    }
+                    containers[depth++] = addNode(event == Event.START_ARRAY ? ARRAY : OBJECT, 0, 0);
+                    break;
+                case END_ARRAY:
+                    tape[containers[--depth]] |= tapeSize;
+                    break;
+                case END_OBJECT:
+                    closeObject(containers[--depth]);
+                    break;
+                case KEY_NAME:
+                case VALUE_STRING:
+                    addNode(STRING, charsSize, addChars());
+                    break;
+                case VALUE_NUMBER:
+                    if (parser.isLongNumber()) {
+                        addNode(INTEGER, 0, parser.getLong());
+                    } else {
+                        addNode(DECIMAL, charsSize, addChars());
+                    }
+                    break;
+                case VALUE_TRUE:
+                    addNode(TRUE, 0, 0);
+                    break;
+                case VALUE_FALSE:
+                    addNode(FALSE, 0, 0);
+                    break;
+                default:
+                    addNode(NULL, 0, 0);
+                    break;
+                }
+                if (depth == 0) {
+                    return;
+                }
+                if (!parser.hasNext()) {
+                    throw parser.newUnexpectedEndException((tape[containers[depth - 1]] >>> TYPE_SHIFT) == ARRAY
+                            ? ParserEventSet.VALUES_OR_END_ARRAY
+                            : ParserEventSet.KEY_NAME_OR_END_OBJECT);
+                }
+                event = parser.next();
+            }
+        }
+
+        private int addNode(int type, int payload, long second) {
+            if (tapeSize + 2 > tape.length) {
+                tape = Arrays.copyOf(tape, tape.length * 2);
+            }
+            tape[tapeSize] = ((long) type << TYPE_SHIFT) | payload;
+            tape[tapeSize + 1] = second;
+            final int node = tapeSize;
+            tapeSize += 2;
+            return node;
+        }
+
+        /**
+         * Appends the characters of the current value.
+         *
+         * @return the number of the characters appended.
+         */
+        private int addChars() {
+            if (parser.hasStreamedString()) {
+                String value = parser.getString();
+                ensureCharsCapacity(value.length());
+                value.getChars(0, value.length(), chars, charsSize);
+                charsSize += value.length();
+                return value.length();
+            }
+            ensureCharsCapacity(parser.valueEnd - parser.valueStart);
+            final int length = parser.copyValueChars(chars, charsSize);
+            charsSize += length;
+            return length;
+        }
+
+        private void ensureCharsCapacity(int length) {
+            if (charsSize + length > chars.length) {
+                chars = Arrays.copyOf(chars, Math.max(chars.length * 2, charsSize + length));
+            }
+        }
+
+        /**
+         * Completes the node of an object, and marks it if the same key name
+         * appears more than once.
+         *
+         * @param node the position of the object.
+         */
+        private void closeObject(int node) {
+            tape[node] |= tapeSize;
+            final int count = (int) tape[node + 1];
+            if (count < 2) {
+                return;
+            }
+            if (keys.length < count) {
+                keys = new int[Math.max(keys.length * 2, count)];
+            }
+            int key = node + 2;
+            for (int i = 0; i < count; i++) {
+                keys[i] = key;
+                key = getNext(key + 2);
+            }
+            int distinct = (count <= JsonObjectImpl.MAX_LINEAR_SIZE) ? countByComparing(count) : countByHashing(count);
+            if (distinct < count) {
+                tape[node] = ((long) OBJECT_WITH_DUPLICATES << TYPE_SHIFT) | tapeSize;
+                tape[node + 1] = distinct;
+            }
+        }
+
+        private int countByComparing(int count) {
+            int distinct = count;
+            for (int i = 1; i < count; i++) {
+                for (int j = 0; j < i; j++) {
+                    if (equalKeys(keys[i], keys[j])) {
+                        distinct--;
+                        break;
+                    }
+                }
+            }
+            return distinct;
+        }
+
+        private int countByHashing(int count) {
+            int[] table = new int[Integer.highestOneBit(count) << 2];
+            final int mask = table.length - 1;
+            int distinct = count;
+            for (int i = 0; i < count; i++) {
+                int slot = hash(keys[i]) & mask;
+                int entry;
+                while ((entry = table[slot]) != 0) {
+                    if (equalKeys(keys[i], keys[entry - 1])) {
+                        distinct--;
+                        break;
+                    }
+                    slot = (slot + 1) & mask;
+                }
+                if (entry == 0) {
+                    table[slot] = i + 1;
+                }
+            }
+            return distinct;
+        }
+
+        private int getNext(int node) {
+            final long type = tape[node] >>> TYPE_SHIFT;
+            return (type == ARRAY || type == OBJECT || type == OBJECT_WITH_DUPLICATES)
+                    ? (int) (tape[node] & PAYLOAD_MASK) : node + 2;
+        }
+
+        private boolean equalKeys(int first, int second) {
+            final int length = (int) tape[first + 1];
+            if (tape[second + 1] != length) {
+                return false;
+            }
+            final int offset1 = (int) (tape[first] & PAYLOAD_MASK);
+            final int offset2 = (int) (tape[second] & PAYLOAD_MASK);
+            for (int i = 0; i < length; i++) {
+                if (chars[offset1 + i] != chars[offset2 + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int hash(int key) {
+            final int length = (int) tape[key + 1];
+            final int offset = (int) (tape[key] & PAYLOAD_MASK);
+            int h = 0;
+            for (int i = 0; i < length; i++) {
+                h = 31 * h + chars[offset + i];
+            }
+            return h ^ (h >>> 16);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2019-2020 the Joy Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.joy.core;
+
+import jakarta.json.JsonValue;
+
+/**
+ * A view of an array kept in a {@link TapeDocument}. The items are found
+ * directly if all of them are neither arrays nor objects, and are found by
+ * skipping the items before them otherwise. The last position found is kept,
+ * so that the items are iterated in linear time.
+ *
+ * @author leadpony
+ */
+final class TapeJsonArray extends AbstractJsonArray {
+
+    private final TapeDocument document;
+    private final int node;
+    private final int size;
+
+    // The index of the item last found in the high half, and its node in the low half.
+    private volatile long cursor;
+
+    TapeJsonArray(TapeDocument document, int node) {
+        this.document = document;
+        this.node = node;
+        this.size = document.getSize(node);
+    }
+
+    @Override
+    public JsonValue get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(String.valueOf(index));
+        }
+        return document.getValue(findItem(index));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private int findItem(int index) {
+        final int first = node + 2;
+        if (document.getNext(node) == first + size * 2) {
+            // All items occupy the same length.
+            return first + index * 2;
+        }
+        final long cursor = this.cursor;
+        int current = (int) (cursor >>> 32);
+        int item = (int) cursor;
+        if (item == 0 || current > index) {
+            current = 0;
+            item = first;
+        }
+        while (current < index) {
+            item = document.getNext(item);
+            current++;
+        }
+        this.cursor = ((long) current << 32) | item;
+        return item;
+    }
+}
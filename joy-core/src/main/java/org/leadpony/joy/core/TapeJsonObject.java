@@ -0,0 +1,212 @@
+/*
+ * Copyright 2019-2020 the Joy Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.joy.core;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import jakarta.json.JsonValue;
+
+/**
+ * A view of an object kept in a {@link TapeDocument}. The properties are
+ * searched linearly by comparing the key names in place.
+ *
+ * <p>
+ * If a name appears more than once, the property keeps the position of the
+ * first one and the value of the last one, as {@link JsonObjectBuilderImpl}
+ * does.
+ * </p>
+ *
+ * @author leadpony
+ */
+final class TapeJsonObject extends AbstractJsonObject {
+
+    private final TapeDocument document;
+    private final int node;
+
+    TapeJsonObject(TapeDocument document, int node) {
+        this.document = document;
+        this.node = node;
+    }
+
+    /* As a Map */
+
+    @Override
+    public Set<Entry<String, JsonValue>> entrySet() {
+        return new EntrySet();
+    }
+
+    @Override
+    public int size() {
+        return document.getSize(node);
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        for (Entry<String, JsonValue> entry : entrySet()) {
+            if (entry.getValue().equals(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return findValue(key) >= 0;
+    }
+
+    @Override
+    public JsonValue get(Object key) {
+        final int value = findValue(key);
+        return (value >= 0) ? document.getValue(value) : null;
+    }
+
+    @Override
+    String getName(int index) {
+        return document.getString(findKey(index));
+    }
+
+    @Override
+    JsonValue getValueAt(int index) {
+        return get(getName(index));
+    }
+
+    @Override
+    int indexOf(Object key) {
+        if (!(key instanceof String)) {
+            return -1;
+        }
+        final String name = (String) key;
+        final int end = document.getNext(node);
+        int index = 0;
+        for (int property = node + 2; property < end; property = document.getNext(property + 2)) {
+            if (isFirstKey(property)) {
+                if (document.matches(property, name)) {
+                    return index;
+                }
+                index++;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the value of the property of the specified name. The value of the
+     * last one is found if the name appears more than once.
+     *
+     * @param key the name of the property.
+     * @return the position of the value, or -1 if not found.
+     */
+    private int findValue(Object key) {
+        if (!(key instanceof String)) {
+            return -1;
+        }
+        final String name = (String) key;
+        final boolean last = document.hasDuplicates(node);
+        final int end = document.getNext(node);
+        int found = -1;
+        for (int property = node + 2; property < end; property = document.getNext(property + 2)) {
+            if (document.matches(property, name)) {
+                found = property + 2;
+                if (!last) {
+                    break;
+                }
+            }
+        }
+        return found;
+    }
+
+    private int findKey(int index) {
+        final int end = document.getNext(node);
+        int current = 0;
+        for (int key = node + 2; key < end; key = document.getNext(key + 2)) {
+            if (isFirstKey(key)) {
+                if (current++ == index) {
+                    return key;
+                }
+            }
+        }
+        throw new IndexOutOfBoundsException(String.valueOf(index));
+    }
+
+    /**
+     * Checks if the specified key name does not appear before it.
+     *
+     * @param key the position of the key name.
+     * @return {@code true} if the key name is the first one.
+     */
+    private boolean isFirstKey(int key) {
+        if (!document.hasDuplicates(node)) {
+            return true;
+        }
+        final String name = document.getString(key);
+        for (int other = node + 2; other < key; other = document.getNext(other + 2)) {
+            if (document.matches(other, name)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The view of the properties as a set of entries.
+     *
+     * @author leadpony
+     */
+    private final class EntrySet extends AbstractSet<Entry<String, JsonValue>> {
+
+        @Override
+        public Iterator<Entry<String, JsonValue>> iterator() {
+            return new Iterator<Entry<String, JsonValue>>() {
+
+                private final int end = document.getNext(node);
+                private int key = findNextKey(node + 2);
+
+                @Override
+                public boolean hasNext() {
+                    return key < end;
+                }
+
+                @Override
+                public Entry<String, JsonValue> next() {
+                    if (key >= end) {
+                        throw new NoSuchElementException();
+                    }
+                    String name = document.getString(key);
+                    JsonValue value = document.hasDuplicates(node) ? get(name) : document.getValue(key + 2);
+                    key = findNextKey(document.getNext(key + 2));
+                    return new SimpleImmutableEntry<>(name, value);
+                }
+
+                private int findNextKey(int start) {
+                    int next = start;
+                    while (next < end && !isFirstKey(next)) {
+                        next = document.getNext(next + 2);
+                    }
+                    return next;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return TapeJsonObject.this.size();
+        }
+    }
+}
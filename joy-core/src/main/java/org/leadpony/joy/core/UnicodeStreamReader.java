@@ -0,0 +1,249 @@
+/*
+ * Copyright 2019-2020 the Joy Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.joy.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * A reader which decodes the bytes read from an input stream, starting with
+ * the bytes already read while detecting the encoding. UTF-16 and UTF-32 are
+ * decoded by this class itself, and the other encodings by a charset
+ * decoder. Malformed input is replaced with U+FFFD in the same way as
+ * {@link java.io.InputStreamReader}.
+ *
+ * @author leadpony
+ */
+final class UnicodeStreamReader extends Reader {
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final char REPLACEMENT = '\uFFFD';
+
+    private final InputStream in;
+    // The number of bytes in a code unit, or 0 if decoded by the decoder.
+    private final int unitSize;
+    private final boolean bigEndian;
+    private final CharsetDecoder decoder;
+
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int readPos;
+    private int readEnd;
+    private boolean eoi;
+    private boolean flushed;
+
+    // The low surrogate decoded but not yet read.
+    private int pendingChar = -1;
+    private char[] pairBuffer;
+
+    /**
+     * Constructs this reader.
+     *
+     * @param in           the input stream to read.
+     * @param charset      the encoding of the input.
+     * @param leadingBytes the bytes already read from the input stream.
+     */
+    UnicodeStreamReader(InputStream in, Charset charset, byte[] leadingBytes) {
+        this.in = in;
+        String name = charset.name();
+        if (name.startsWith("UTF-16")) {
+            this.unitSize = 2;
+        } else if (name.startsWith("UTF-32")) {
+            this.unitSize = 4;
+        } else {
+            this.unitSize = 0;
+        }
+        this.bigEndian = name.endsWith("BE");
+        if (unitSize == 0) {
+            this.decoder = charset.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        } else {
+            this.decoder = null;
+        }
+        System.arraycopy(leadingBytes, 0, buffer, 0, leadingBytes.length);
+        this.readEnd = leadingBytes.length;
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        if (off < 0 || len < 0 || len > cbuf.length - off) {
+            throw new IndexOutOfBoundsException();
+        } else if (len == 0) {
+            return 0;
+        }
+        int count = 0;
+        if (pendingChar >= 0) {
+            cbuf[off] = (char) pendingChar;
+            pendingChar = -1;
+            if (len == 1) {
+                return 1;
+            }
+            count = 1;
+        }
+        for (;;) {
+            count += decode(cbuf, off + count, len - count);
+            if (count > 0) {
+                return count;
+            } else if (eoi) {
+                return -1;
+            }
+            fillBuffer();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private void fillBuffer() throws IOException {
+        final int remaining = readEnd - readPos;
+        if (readPos > 0) {
+            System.arraycopy(buffer, readPos, buffer, 0, remaining);
+            readPos = 0;
+            readEnd = remaining;
+        }
+        int bytesRead = in.read(buffer, remaining, buffer.length - remaining);
+        if (bytesRead < 0) {
+            eoi = true;
+        } else {
+            readEnd += bytesRead;
+        }
+    }
+
+    /**
+     * Decodes the bytes in the buffer.
+     *
+     * @param cbuf the array to which the chars will be written.
+     * @param off  the offset of the first char to write.
+     * @param len  the maximum number of chars to write, at least 1.
+     * @return the number of chars written.
+     */
+    private int decode(char[] cbuf, int off, int len) {
+        if (decoder != null) {
+            return decodeWithDecoder(cbuf, off, len);
+        }
+        final byte[] buffer = this.buffer;
+        final int end = readEnd;
+        final int last = off + len;
+        int pos = readPos;
+        int i = off;
+        if (unitSize == 2) {
+            while (i < last && pos + 2 <= end) {
+                final char c = getUnit(buffer, pos);
+                if (!Character.isSurrogate(c)) {
+                    cbuf[i++] = c;
+                    pos += 2;
+                } else if (Character.isLowSurrogate(c)) {
+                    cbuf[i++] = REPLACEMENT;
+                    pos += 2;
+                } else if (pos + 4 <= end) {
+                    final char low = getUnit(buffer, pos + 2);
+                    pos += 4;
+                    if (Character.isLowSurrogate(low)) {
+                        i = putPair(cbuf, i, last, c, low);
+                    } else {
+                        // Replaces both of the units.
+                        cbuf[i++] = REPLACEMENT;
+                    }
+                } else {
+                    break;
+                }
+            }
+        } else {
+            while (i < last && pos + 4 <= end) {
+                final int codePoint = getCodePoint(buffer, pos);
+                pos += 4;
+                if (Character.isBmpCodePoint(codePoint)) {
+                    cbuf[i++] = (char) codePoint;
+                } else if (Character.isValidCodePoint(codePoint)) {
+                    i = putPair(cbuf, i, last,
+                            Character.highSurrogate(codePoint), Character.lowSurrogate(codePoint));
+                } else {
+                    cbuf[i++] = REPLACEMENT;
+                }
+            }
+        }
+        readPos = pos;
+        if (i == off && eoi && pos < end) {
+            // The incomplete char at the end of input.
+            readPos = end;
+            cbuf[i++] = REPLACEMENT;
+        }
+        return i - off;
+    }
+
+    private int putPair(char[] cbuf, int i, int last, char high, char low) {
+        cbuf[i++] = high;
+        if (i < last) {
+            cbuf[i++] = low;
+        } else {
+            pendingChar = low;
+        }
+        return i;
+    }
+
+    private char getUnit(byte[] buffer, int pos) {
+        final int b1 = buffer[pos] & 0xff;
+        final int b2 = buffer[pos + 1] & 0xff;
+        return (char) (bigEndian ? (b1 << 8 | b2) : (b2 << 8 | b1));
+    }
+
+    private int getCodePoint(byte[] buffer, int pos) {
+        final int b1 = buffer[pos] & 0xff;
+        final int b2 = buffer[pos + 1] & 0xff;
+        final int b3 = buffer[pos + 2] & 0xff;
+        final int b4 = buffer[pos + 3] & 0xff;
+        if (bigEndian) {
+            return b1 << 24 | b2 << 16 | b3 << 8 | b4;
+        }
+        return b4 << 24 | b3 << 16 | b2 << 8 | b1;
+    }
+
+    private int decodeWithDecoder(char[] cbuf, int off, int len) {
+        if (len == 1) {
+            // Decodes a surrogate pair at once.
+            if (pairBuffer == null) {
+                pairBuffer = new char[2];
+            }
+            int count = decodeWithDecoder(pairBuffer, 0, 2);
+            if (count > 0) {
+                cbuf[off] = pairBuffer[0];
+                if (count > 1) {
+                    pendingChar = pairBuffer[1];
+                }
+            }
+            return (count > 0) ? 1 : 0;
+        }
+        if (flushed) {
+            return 0;
+        }
+        ByteBuffer src = ByteBuffer.wrap(buffer, readPos, readEnd - readPos);
+        CharBuffer dst = CharBuffer.wrap(cbuf, off, len);
+        decoder.decode(src, dst, eoi);
+        readPos = src.position();
+        if (eoi && !src.hasRemaining()) {
+            flushed = decoder.flush(dst).isUnderflow();
+        }
+        return dst.position() - off;
+    }
+}
@@ -0,0 +1,937 @@
+/*
+ * Copyright 2019-2020 the Joy Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.joy.core;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+
+import jakarta.json.JsonString;
+import jakarta.json.stream.JsonParsingException;
+
+import org.leadpony.joy.api.FieldSet;
+
+/**
+ * An implementation of {@link JsonParser} which reads UTF-8 encoded bytes
+ * directly, without decoding the whole input into characters.
+ *
+ * <p>
+ * Strings are decoded only when requested. While scanning, only the escape
+ * sequences and the control characters in strings are checked, and malformed
+ * UTF-8 sequences are decoded into U+FFFD later. The column numbers and the
+ * stream offsets reported by this parser are counted in chars as if the input
+ * were decoded, that is, the bytes continuing UTF-8 sequences are not counted
+ * and 4-byte sequences are counted as surrogate pairs.
+ * </p>
+ *
+ * @author leadpony
+ */
+class Utf8JsonParser extends AbstractBasicJsonParser {
+
+    private InputStream in;
+
+    private final ByteBufferFactory bufferFactory;
+
+    private boolean eoi;
+
+    protected byte[] readBuffer;
+
+    private boolean hasEscape;
+
+    private char[] charBuffer;
+
+    // The chars decoded but not yet read from the streamed string.
+    private String heldChars;
+
+    /*
+     * The position in the read buffer up to which the chars were counted.
+     */
+    protected int charsCounted;
+
+    /*
+     * The number of bytes between the start of the read buffer and
+     * the position above, less the number of chars they make.
+     */
+    protected int extraBytes;
+
+    /**
+     * Constructs this parser.
+     *
+     * @param in            the input stream to read.
+     * @param leadingBytes  the bytes already read from the input stream.
+     * @param bufferFactory the factory of byte buffers.
+     */
+    Utf8JsonParser(InputStream in, byte[] leadingBytes, ByteBufferFactory bufferFactory) {
+        this.in = in;
+        this.bufferFactory = bufferFactory;
+        this.readBuffer = bufferFactory.createBuffer();
+        System.arraycopy(leadingBytes, 0, readBuffer, 0, leadingBytes.length);
+        this.readEnd = leadingBytes.length;
+    }
+
+    /**
+     * Constructs this parser which reads the specified bytes in place.
+     *
+     * @param bytes  the bytes to read.
+     * @param offset the offset of the first byte to read.
+     * @param length the number of bytes to read.
+     */
+    Utf8JsonParser(byte[] bytes, int offset, int length) {
+        this.in = null;
+        this.bufferFactory = null;
+        this.readBuffer = bytes;
+        this.readStart = offset;
+        this.readPos = offset;
+        this.readEnd = offset + length;
+        this.charsCounted = offset;
+        this.eoi = true;
+    }
+
+    /**
+     * Resets this parser to read the specified input stream from the start.
+     * The buffer created for this parser is reused.
+     *
+     * @param in           the input stream to read.
+     * @param leadingBytes the bytes already read from the input stream.
+     */
+    void reset(InputStream in, byte[] leadingBytes) {
+        this.in = in;
+        this.eoi = false;
+        System.arraycopy(leadingBytes, 0, readBuffer, 0, leadingBytes.length);
+        this.readStart = 0;
+        this.readPos = 0;
+        this.readEnd = leadingBytes.length;
+        resetInput();
+    }
+
+    /**
+     * Resets this parser to read the specified bytes in place.
+     *
+     * @param bytes  the bytes to read.
+     * @param offset the offset of the first byte to read.
+     * @param length the number of bytes to read.
+     */
+    void reset(byte[] bytes, int offset, int length) {
+        this.readBuffer = bytes;
+        this.readStart = offset;
+        this.readPos = offset;
+        this.readEnd = offset + length;
+        resetInput();
+    }
+
+    private void resetInput() {
+        this.hasEscape = false;
+        this.heldChars = null;
+        this.charsCounted = readStart;
+        this.extraBytes = 0;
+        resetState();
+    }
+
+    /* As a AbstractBasicJsonParser */
+
+    @Override
+    protected void closeInput() {
+        if (in == null) {
+            return;
+        }
+
+        bufferFactory.releaseBuffer(readBuffer);
+
+        try {
+            in.close();
+        } catch (IOException e) {
+            throw newJsonException(Message.thatIOErrorOccurredWhileParserWasClosing(), e);
+        }
+    }
+
+    @Override
+    protected int peekNonSpaceChar() {
+        for (;;) {
+            final byte[] buffer = this.readBuffer;
+            int readPos = this.readPos;
+            int readEnd = this.readEnd;
+            while (readPos < readEnd) {
+                int c = buffer[readPos] & 0xff;
+                if (c > 0x20) {
+                    this.readPos = readPos;
+                    return c;
+                } else if (c == 0x20 || c == '\t' || (lazyLocation && (c == '\n' || c == '\r'))) {
+                    readPos++;
+                } else if (c == '\n') {
+                    startNewLine(++readPos);
+                } else if (c == '\r') {
+                    if (++readPos >= readEnd) {
+                        if (!fillReadBuffer(0)) {
+                            return -1;
+                        }
+                        readPos = 0;
+                        readEnd = this.readEnd;
+                    }
+                    if (this.readBuffer[readPos] == '\n') {
+                        readPos++;
+                    }
+                    startNewLine(readPos);
+                } else {
+                    this.readPos = readPos;
+                    throw newUnexpectedCharException(c);
+                }
+            }
+
+            if (!fillReadBuffer(0)) {
+                return -1;
+            }
+        }
+    }
+
+    @Override
+    protected int peekChar() {
+        if (readPos >= readEnd) {
+            if (!fillReadBuffer(0)) {
+                return -1;
+            }
+        }
+        return readBuffer[readPos] & 0xff;
+    }
+
+    private int peekValueChar() {
+        if (this.readPos >= this.readEnd) {
+            if (!fillReadBufferRetainingValue(this.readPos)) {
+                return -1;
+            }
+        }
+        return this.readBuffer[this.readPos] & 0xff;
+    }
+
+    @Override
+    protected int peekNumberChar() {
+        return peekValueChar();
+    }
+
+    /**
+     * Fills the buffer with new bytes.
+     *
+     * @param newStart the position to start to read.
+     * @return {@code false} if the end of input was reached.
+     */
+    private boolean fillReadBuffer(int newStart) {
+        if (eoi) {
+            this.readPos = this.readEnd;
+            return false;
+        }
+        if (lazyLocation) {
+            countLines(readEnd);
+        }
+        resolveLineOffset();
+        // Counts the chars before the bytes are overwritten.
+        final long endOffset = getStreamOffset(readEnd);
+        try {
+            int bytesToRead = readBuffer.length - newStart;
+            int bytesRead = this.in.read(readBuffer, newStart, bytesToRead);
+            if (bytesRead < 0) {
+                eoi = true;
+                this.readPos = this.readEnd;
+                return false;
+            }
+            this.bufferOffset = endOffset;
+            this.readStart = newStart;
+            this.readEnd = newStart + bytesRead;
+            this.readPos = newStart;
+            this.linesCounted = newStart;
+            this.charsCounted = newStart;
+            this.extraBytes = 0;
+            return true;
+        } catch (IOException e) {
+            throw newJsonException(Message.thatIOErrorOccurredWhileParserWasReading(), e);
+        }
+    }
+
+    /**
+     * Fills the buffer with new bytes, keeping the bytes of the current value.
+     *
+     * @param valueEnd the end of the bytes to keep.
+     * @return {@code false} if the end of input was reached.
+     */
+    private boolean fillReadBufferRetainingValue(int valueEnd) {
+        if (eoi) {
+            this.readPos = this.readEnd;
+            return false;
+        }
+        // Counts before the buffer is rearranged.
+        if (lazyLocation) {
+            countLines(readEnd);
+        }
+        resolveLineOffset();
+        getStreamOffset(readEnd);
+        final int valueLen = valueEnd - this.valueStart;
+        if (valueLen > readBuffer.length / 2) {
+            extendReadBuffer(this.valueStart, valueLen);
+        } else if (valueStart > 0) {
+            System.arraycopy(readBuffer, this.valueStart, readBuffer, 0, valueLen);
+        }
+        if (!fillReadBuffer(valueLen)) {
+            // The value was already moved to the head of the buffer.
+            final int shift = this.valueStart;
+            this.readStart -= shift;
+            this.readEnd -= shift;
+            this.readPos -= shift;
+            this.linesCounted -= shift;
+            this.charsCounted -= shift;
+            this.valueStart = 0;
+            return false;
+        }
+        this.valueStart = 0;
+        return true;
+    }
+
+    private void extendReadBuffer(int valueStart, int valueLen) {
+        int newLength = readBuffer.length * 2;
+        byte[] newBuffer = new byte[newLength];
+        System.arraycopy(readBuffer, valueStart, newBuffer, 0, valueLen);
+        this.readBuffer = newBuffer;
+    }
+
+    @Override
+    protected void parseString(int maxLength) {
+        // Consumes the opening quotation mark
+        this.valueStart = ++this.readPos;
+        this.hasEscape = false;
+
+        for (;;) {
+            byte[] buffer = this.readBuffer;
+            int readPos = this.readPos;
+            int readEnd = this.readEnd;
+
+            while (readPos < readEnd) {
+                int c = buffer[readPos];
+                if (c == '"') {
+                    // Consumes the closing quotation mark
+                    this.readPos = readPos + 1;
+                    this.valueEnd = readPos;
+                    return;
+                } else if (c == '\\') {
+                    this.readPos = readPos;
+                    parseEscapedString(maxLength);
+                    return;
+                } else if (c >= 0x20 || c < 0) {
+                    readPos++;
+                } else {
+                    this.readPos = readPos;
+                    throw newUnexpectedCharException(c);
+                }
+            }
+
+            this.readPos = readPos;
+            if (readPos - this.valueStart >= maxLength) {
+                streamRestOfString();
+                return;
+            }
+            if (!fillReadBufferRetainingValue(readPos)) {
+                throw newUnexpectedEndException();
+            }
+        }
+    }
+
+    /**
+     * Validates the rest of the string containing escape sequences. The escape
+     * sequences are kept as they are in the buffer and will be resolved later.
+     *
+     * @param maxLength the maximum length of the string to keep in the buffer.
+     */
+    private void parseEscapedString(int maxLength) {
+        this.hasEscape = true;
+        validateEscape();
+
+        for (;;) {
+            if (this.readPos >= this.readEnd && this.readPos - this.valueStart >= maxLength) {
+                streamRestOfString();
+                return;
+            }
+            int c = peekValueChar();
+            if (c == '"') {
+                break;
+            } else if (c == '\\') {
+                validateEscape();
+            } else if (c >= 0x20) {
+                consumeChar();
+            } else {
+                throw newUnexpectedCharException(c);
+            }
+        }
+
+        this.valueEnd = this.readPos;
+        // Consumes the last quotation mark.
+        consumeChar();
+    }
+
+    /**
+     * Starts to stream the rest of the current string from the input. The
+     * incomplete character at the end of the buffer is left to the stream.
+     */
+    private void streamRestOfString() {
+        final byte[] buffer = this.readBuffer;
+        int end = this.readPos;
+        int i = end - 1;
+        while (i > valueStart && i > end - 4 && (buffer[i] & 0xc0) == 0x80) {
+            i--;
+        }
+        if (i >= valueStart && (buffer[i] & 0xc0) == 0xc0 && i + countTrailingBytes(buffer[i]) >= end) {
+            end = i;
+        }
+        this.readPos = end;
+        this.valueEnd = end;
+        this.heldChars = null;
+        startStreamingString(buildString());
+    }
+
+    @Override
+    protected int readStringChars(char[] chars, int offset, int length) {
+        int count = 0;
+        if (heldChars != null) {
+            count = takeChars(heldChars, chars, offset, length);
+        }
+        while (count < length) {
+            final int c = peekChar();
+            if (c == '"') {
+                if (count > 0) {
+                    break;
+                }
+                // Consumes the closing quotation mark
+                consumeChar();
+                return -1;
+            } else if (c == '\\') {
+                this.valueStart = this.readPos;
+                validateEscape();
+                chars[offset + count++] = unescape(this.readBuffer, this.valueStart);
+            } else if (c >= 0x80) {
+                count += readNonAsciiChars(chars, offset + count, length - count);
+            } else if (c >= 0x20) {
+                final byte[] buffer = this.readBuffer;
+                final int end = Math.min(this.readEnd, this.readPos + length - count);
+                int readPos = this.readPos;
+                while (readPos < end) {
+                    final int b = buffer[readPos];
+                    if (b == '"' || b == '\\' || b < 0x20) {
+                        break;
+                    }
+                    chars[offset + count++] = (char) b;
+                    readPos++;
+                }
+                this.readPos = readPos;
+            } else if (c < 0) {
+                throw newUnexpectedEndException();
+            } else {
+                throw newUnexpectedCharException(c);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Decodes the run of non-ASCII bytes at the current position, without
+     * splitting any character.
+     *
+     * @param chars  the array to which the decoded chars will be written.
+     * @param offset the offset of the first char to write.
+     * @param length the maximum number of chars to write.
+     * @return the number of chars written, at least 1.
+     */
+    private int readNonAsciiChars(char[] chars, int offset, int length) {
+        for (;;) {
+            final byte[] buffer = this.readBuffer;
+            final int start = this.readPos;
+            final int readEnd = this.readEnd;
+            // The number of chars never exceeds the number of bytes.
+            final int limit = Math.min(readEnd, start + Math.max(length, 4));
+            int end = start;
+            while (end < limit && buffer[end] < 0) {
+                end++;
+            }
+            int cut = start;
+            while (cut < end) {
+                final int expected = countTrailingBytes(buffer[cut]) + 1;
+                int actual = 1;
+                while (actual < expected && cut + actual < end && (buffer[cut + actual] & 0xc0) == 0x80) {
+                    actual++;
+                }
+                if (actual < expected && cut + actual == end
+                        && (end == readEnd || (buffer[end] & 0xc0) == 0x80)) {
+                    // The char may continue after the run.
+                    break;
+                }
+                cut += actual;
+            }
+            if (cut > start) {
+                this.readPos = cut;
+                return takeChars(new String(buffer, start, cut - start, UTF_8), chars, offset, length);
+            }
+            // The first char is split at the end of the buffer.
+            this.valueStart = start;
+            this.readPos = readEnd;
+            if (!fillReadBufferRetainingValue(readEnd)) {
+                String decoded = new String(this.readBuffer, this.valueStart, this.readEnd - this.valueStart, UTF_8);
+                this.readPos = this.readEnd;
+                return takeChars(decoded, chars, offset, length);
+            }
+            this.readPos = this.valueStart;
+        }
+    }
+
+    private int takeChars(String decoded, char[] chars, int offset, int length) {
+        final int count = Math.min(decoded.length(), length);
+        decoded.getChars(0, count, chars, offset);
+        this.heldChars = (count < decoded.length()) ? decoded.substring(count) : null;
+        return count;
+    }
+
+    private void validateEscape() {
+        // Consumes the reverse solidus
+        consumeChar();
+        int c = peekValueChar();
+        switch (c) {
+        case '"':
+        case '\\':
+        case '/':
+        case 'b':
+        case 'f':
+        case 'n':
+        case 'r':
+        case 't':
+            consumeChar();
+            break;
+        case 'u':
+            consumeChar();
+            for (int i = 0; i < 4; i++) {
+                hexadecimalToInt(peekValueChar());
+                consumeChar();
+            }
+            break;
+        default:
+            throw newUnexpectedCharException(c);
+        }
+    }
+
+    private int hexadecimalToInt(int c) {
+        if ('0' <= c && c <= '9') {
+            return c - '0';
+        } else if ('A' <= c && c <= 'F') {
+            return c - 'A' + 10;
+        } else if ('a' <= c && c <= 'f') {
+            return c - 'a' + 10;
+        } else {
+            throw newUnexpectedCharException(c);
+        }
+    }
+
+    @Override
+    protected void parseNumber(int c) {
+        hasEscape = false;
+        super.parseNumber(c);
+    }
+
+    @Override
+    protected void skipRawContainers(int depth, ArrayItems items) {
+        boolean inString = false;
+        boolean escaped = false;
+        boolean afterCarriageReturn = false;
+        for (;;) {
+            final byte[] buffer = this.readBuffer;
+            final int readEnd = this.readEnd;
+            int readPos = this.readPos;
+            while (readPos < readEnd) {
+                final int c = buffer[readPos++];
+                if (inString) {
+                    if (escaped) {
+                        escaped = false;
+                    } else if (c == '\\') {
+                        escaped = true;
+                    } else if (c == '"') {
+                        inString = false;
+                    }
+                } else if (c == '"') {
+                    inString = true;
+                } else if (c == '[' || c == '{') {
+                    depth++;
+                } else if (c == ']' || c == '}') {
+                    if (--depth == 0) {
+                        this.readPos = readPos;
+                        return;
+                    }
+                } else if (c == ',') {
+                    if (depth == 1 && items != null) {
+                        if (lazyLocation) {
+                            countLines(readPos);
+                        }
+                        resolveLineOffset();
+                        items.add(readPos, lineNumber, lineOffset, getStreamOffset(readPos));
+                    }
+                } else if (c == '\n' && !lazyLocation) {
+                    if (afterCarriageReturn) {
+                        moveLineStart(readPos);
+                    } else {
+                        startNewLine(readPos);
+                    }
+                } else if (c == '\r' && !lazyLocation) {
+                    startNewLine(readPos);
+                    afterCarriageReturn = true;
+                    continue;
+                }
+                afterCarriageReturn = false;
+            }
+            this.readPos = readPos;
+            if (!fillReadBuffer(0)) {
+                throw newUnexpectedEndException();
+            }
+        }
+    }
+
+    @Override
+    protected void countLines(int end) {
+        final byte[] buffer = this.readBuffer;
+        boolean afterCarriageReturn = this.countedCarriageReturn;
+        long lines = 0;
+        int lineStart = -1;
+        int i = this.linesCounted;
+        if (pendingCarriageReturn && i < readEnd) {
+            pendingCarriageReturn = false;
+            lines++;
+            lineStart = i;
+        }
+        for (; i < end; i++) {
+            final int c = buffer[i];
+            if (c == '\n') {
+                if (!afterCarriageReturn) {
+                    lines++;
+                }
+                lineStart = i + 1;
+                afterCarriageReturn = false;
+            } else if (c == '\r') {
+                if (i + 1 < readEnd) {
+                    lines++;
+                    lineStart = i + 1;
+                } else {
+                    // Counted only if followed by any char.
+                    pendingCarriageReturn = true;
+                }
+                afterCarriageReturn = true;
+            } else {
+                afterCarriageReturn = false;
+            }
+        }
+        if (lineStart >= 0) {
+            this.lineNumber += lines;
+            this.lineStartPos = lineStart;
+        }
+        this.linesCounted = i;
+        this.countedCarriageReturn = afterCarriageReturn;
+    }
+
+    @Override
+    protected long getStreamOffset(int pos) {
+        if (pos > charsCounted) {
+            extraBytes += countExtraBytes(readBuffer, charsCounted, pos);
+        } else if (pos < charsCounted) {
+            extraBytes -= countExtraBytes(readBuffer, pos, charsCounted);
+        }
+        this.charsCounted = pos;
+        return super.getStreamOffset(pos) - extraBytes;
+    }
+
+    /**
+     * Counts the bytes which do not make chars of their own, that is, the bytes
+     * continuing UTF-8 sequences, less one for each 4-byte sequence which makes
+     * a surrogate pair.
+     */
+    private static int countExtraBytes(byte[] buffer, int start, int end) {
+        int count = 0;
+        for (int i = start; i < end; i++) {
+            final byte b = buffer[i];
+            if (b < 0) {
+                if (b < (byte) 0xc0) {
+                    count++;
+                } else if (b >= (byte) 0xf0) {
+                    count--;
+                }
+            }
+        }
+        return count;
+    }
+
+    @Override
+    protected boolean hasWholeInput() {
+        return in == null;
+    }
+
+    @Override
+    protected AbstractBasicJsonParser createPartialParser(int start, int end) {
+        return new Utf8JsonParser(readBuffer, start, end - start);
+    }
+
+    @Override
+    protected String buildString() {
+        if (hasEscape) {
+            return buildUnescapedString();
+        }
+        return new String(readBuffer, valueStart, valueEnd - valueStart, UTF_8);
+    }
+
+    @Override
+    protected String buildString(int start, int end, boolean unescape) {
+        if (!unescape) {
+            return new String(readBuffer, start, end - start, UTF_8);
+        }
+        final char[] chars = new char[end - start];
+        return new String(chars, 0, decodeString(start, end, chars, 0, true));
+    }
+
+    @Override
+    protected int copyValueChars(char[] chars, int offset) {
+        if (getCurrentEvent() == Event.VALUE_NUMBER) {
+            final int length = valueEnd - valueStart;
+            for (int i = 0; i < length; i++) {
+                chars[offset + i] = (char) readBuffer[valueStart + i];
+            }
+            return length;
+        }
+        return decodeString(valueStart, valueEnd, chars, offset, hasEscape);
+    }
+
+    @Override
+    protected boolean hasRawEscape() {
+        return hasEscape;
+    }
+
+    @Override
+    protected String buildKeyName(SymbolTable symbolTable) {
+        if (!hasEscape) {
+            String symbol = symbolTable.getSymbol(readBuffer, valueStart, valueEnd - valueStart);
+            if (symbol != null) {
+                return symbol;
+            }
+        }
+        return buildString();
+    }
+
+    @Override
+    protected int findKeyName(FieldSetImpl fields) {
+        if (!hasEscape) {
+            int index = fields.indexOf(readBuffer, valueStart, valueEnd - valueStart);
+            if (index != FieldSet.NOT_FOUND || isAscii(readBuffer, valueStart, valueEnd)) {
+                return index;
+            }
+        }
+        // Malformed bytes would be decoded as replacement characters.
+        return fields.indexOf(buildString());
+    }
+
+    @Override
+    protected BigDecimal buildBigDecimal() {
+        final int length = valueEnd - valueStart;
+        char[] chars = getCharBuffer(length);
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) readBuffer[valueStart + i];
+        }
+        return new BigDecimal(chars, 0, length);
+    }
+
+    @Override
+    protected JsonString getValueAsString() {
+        if (hasStreamedString()) {
+            return JsonValues.valueOf(getString());
+        }
+        return JsonValues.valueOf(buildString());
+    }
+
+    @Override
+    JsonParsingException newUnexpectedCharException(int actual) {
+        return super.newUnexpectedCharException(decodeUnexpectedChar(actual));
+    }
+
+    @Override
+    JsonParsingException newUnexpectedCharException(int actual, Object expected) {
+        return super.newUnexpectedCharException(decodeUnexpectedChar(actual), expected);
+    }
+
+    @Override
+    protected void appendValue(JsonStringBuilder builder) {
+        final int length = valueEnd - valueStart;
+        // The number of chars never exceeds the number of bytes.
+        final char[] chars = getCharBuffer(length);
+        if (getCurrentEvent() == Event.VALUE_NUMBER) {
+            for (int i = 0; i < length; i++) {
+                chars[i] = (char) readBuffer[valueStart + i];
+            }
+            builder.appendChars(chars, 0, length);
+        } else if (builder.escapesOnlyRequired()) {
+            // The escape sequences in the input are kept as they are.
+            builder.appendChars(chars, 0, decodeString(valueStart, valueEnd, chars, 0, false));
+        } else {
+            builder.append(chars, 0, decodeString(valueStart, valueEnd, chars, 0, hasEscape));
+        }
+    }
+
+    /**
+     * Resolves the escape sequences in the current string value. The string
+     * was already validated by {@link #parseEscapedString()}.
+     *
+     * @return the unescaped string.
+     */
+    private String buildUnescapedString() {
+        // The number of chars never exceeds the number of bytes.
+        final char[] chars = getCharBuffer(valueEnd - valueStart);
+        return new String(chars, 0, decodeString(valueStart, valueEnd, chars, 0, true));
+    }
+
+    /**
+     * Decodes a string value in the read buffer into the specified array.
+     *
+     * @param start    the position of the first byte of the value.
+     * @param end      the position after the last byte of the value.
+     * @param chars    the array to which the characters will be written,
+     *                 which has room for the value in bytes after the offset.
+     * @param offset   the offset in the array.
+     * @param unescape {@code true} if the escape sequences are resolved.
+     * @return the number of characters written.
+     */
+    private int decodeString(int start, int end, char[] chars, int offset, boolean unescape) {
+        final byte[] buffer = this.readBuffer;
+        int pos = offset;
+        int i = start;
+        while (i < end) {
+            int c = buffer[i];
+            if (c == '\\' && unescape) {
+                chars[pos++] = unescape(buffer, i);
+                i += (buffer[i + 1] == 'u') ? 6 : 2;
+            } else if (c >= 0) {
+                chars[pos++] = (char) c;
+                i++;
+            } else {
+                // Decodes the run of non-ASCII bytes at once.
+                int runStart = i++;
+                while (i < end && buffer[i] < 0) {
+                    i++;
+                }
+                String decoded = new String(buffer, runStart, i - runStart, UTF_8);
+                decoded.getChars(0, decoded.length(), chars, pos);
+                pos += decoded.length();
+            }
+        }
+        return pos - offset;
+    }
+
+    /**
+     * Resolves the escape sequence which was already validated.
+     *
+     * @param buffer the buffer containing the escape sequence.
+     * @param start  the position of the reverse solidus.
+     * @return the unescaped char.
+     */
+    private char unescape(byte[] buffer, int start) {
+        final int c = buffer[start + 1];
+        switch (c) {
+        case 'b':
+            return '\b';
+        case 'f':
+            return '\f';
+        case 'n':
+            return '\n';
+        case 'r':
+            return '\r';
+        case 't':
+            return '\t';
+        case 'u':
+            int codePoint = 0;
+            for (int i = start + 2; i < start + 6; i++) {
+                codePoint = (codePoint << 4) + hexadecimalToInt(buffer[i]);
+            }
+            return (char) codePoint;
+        default:
+            return (char) c;
+        }
+    }
+
+    static int countTrailingBytes(int c) {
+        if (c >= 0) {
+            return 0;
+        }
+        c &= 0xff;
+        if (c >= 0xf0) {
+            return 3;
+        } else if (c >= 0xe0) {
+            return 2;
+        } else if (c >= 0xc0) {
+            return 1;
+        }
+        return 0;
+    }
+
+    private static boolean isAscii(byte[] bytes, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (bytes[i] < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private char[] getCharBuffer(int minLength) {
+        char[] chars = this.charBuffer;
+        if (chars == null || chars.length < minLength) {
+            chars = new char[Math.max(minLength, 64)];
+            this.charBuffer = chars;
+        }
+        return chars;
+    }
+
+    /**
+     * Decodes the non-ASCII character at the current position, which was found
+     * unexpectedly. The parser cannot be continued after this call.
+     *
+     * @param actual the first byte of the character, or -1.
+     * @return the decoded character, or the original argument.
+     */
+    private int decodeUnexpectedChar(int actual) {
+        if (actual < 0x80) {
+            return actual;
+        }
+        final int expectedLength;
+        if (actual >= 0xf0) {
+            expectedLength = 4;
+        } else if (actual >= 0xe0) {
+            expectedLength = 3;
+        } else if (actual >= 0xc0) {
+            expectedLength = 2;
+        } else {
+            expectedLength = 1;
+        }
+        byte[] bytes = new byte[expectedLength];
+        int length = Math.min(expectedLength, readEnd - readPos);
+        System.arraycopy(readBuffer, readPos, bytes, 0, length);
+        try {
+            while (length < expectedLength && !eoi) {
+                int bytesRead = in.read(bytes, length, expectedLength - length);
+                if (bytesRead < 0) {
+                    break;
+                }
+                length += bytesRead;
+            }
+        } catch (IOException e) {
+            // Ignores the error and decodes the bytes available.
+        }
+        return new String(bytes, 0, length, UTF_8).charAt(0);
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2019-2020 the Joy Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.leadpony.joy.core;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+/**
+ * A writer which encodes the characters in UTF-8 into a byte buffer and
+ * writes the buffer to an output stream when it is full. The characters are
+ * encoded by this class itself without a charset encoder, and no other
+ * buffering is needed. A surrogate without its pair is replaced with
+ * {@code '?'} in the same way as {@link java.io.OutputStreamWriter}.
+ *
+ * @author leadpony
+ */
+final class Utf8StreamWriter extends Writer {
+
+    private static final byte REPLACEMENT = '?';
+
+    private OutputStream out;
+    private final ByteBufferFactory bufferFactory;
+    private byte[] buffer;
+    private int bufferPos;
+
+    // The high surrogate written but not yet encoded.
+    private char pendingSurrogate;
+    private boolean alreadyClosed;
+
+    /**
+     * Constructs this writer.
+     *
+     * @param out           the output stream to write.
+     * @param bufferFactory the factory of the byte buffer, to which the buffer
+     *                      is released on close.
+     */
+    Utf8StreamWriter(OutputStream out, ByteBufferFactory bufferFactory) {
+        this.out = out;
+        this.bufferFactory = bufferFactory;
+        this.buffer = bufferFactory.createBuffer();
+    }
+
+    /**
+     * Resets this writer to write to the specified output stream. The bytes
+     * not yet written to the previous output stream are discarded.
+     *
+     * @param out the output stream to write.
+     */
+    void reset(OutputStream out) {
+        this.out = out;
+        if (alreadyClosed) {
+            this.buffer = bufferFactory.createBuffer();
+            this.alreadyClosed = false;
+        }
+        this.bufferPos = 0;
+        this.pendingSurrogate = 0;
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        write(new char[] {(char) c}, 0, 1);
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        ensureOpen();
+        final int end = off + len;
+        int i = off;
+        if (pendingSurrogate != 0 && i < end) {
+            i = writePendingSurrogate(cbuf[i], i);
+        }
+
+        byte[] buffer = this.buffer;
+        int pos = bufferPos;
+        while (i < end) {
+            // Leaves room for the longest sequence of 4 bytes.
+            int limit = buffer.length - 4;
+            if (pos > limit) {
+                bufferPos = pos;
+                flushBuffer();
+                pos = 0;
+            }
+            int asciiEnd = Math.min(end, i + limit - pos);
+            char c;
+            while (i < asciiEnd && (c = cbuf[i]) < 0x80) {
+                buffer[pos++] = (byte) c;
+                i++;
+            }
+            if (i >= end) {
+                break;
+            }
+            c = cbuf[i++];
+            if (c < 0x80) {
+                buffer[pos++] = (byte) c;
+            } else if (c < 0x800) {
+                buffer[pos++] = (byte) (0xc0 | (c >> 6));
+                buffer[pos++] = (byte) (0x80 | (c & 0x3f));
+            } else if (Character.isHighSurrogate(c)) {
+                if (i >= end) {
+                    pendingSurrogate = c;
+                } else if (Character.isLowSurrogate(cbuf[i])) {
+                    pos = encodeCodePoint(Character.toCodePoint(c, cbuf[i++]), buffer, pos);
+                } else {
+                    buffer[pos++] = REPLACEMENT;
+                }
+            } else if (Character.isLowSurrogate(c)) {
+                buffer[pos++] = REPLACEMENT;
+            } else {
+                buffer[pos++] = (byte) (0xe0 | (c >> 12));
+                buffer[pos++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                buffer[pos++] = (byte) (0x80 | (c & 0x3f));
+            }
+        }
+        bufferPos = pos;
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        char[] chars = new char[len];
+        str.getChars(off, off + len, chars, 0);
+        write(chars, 0, len);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        flushBuffer();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (alreadyClosed) {
+            return;
+        }
+        try {
+            if (pendingSurrogate != 0) {
+                pendingSurrogate = 0;
+                if (bufferPos >= buffer.length) {
+                    flushBuffer();
+                }
+                buffer[bufferPos++] = REPLACEMENT;
+            }
+            flushBuffer();
+            out.close();
+        } finally {
+            alreadyClosed = true;
+            bufferFactory.releaseBuffer(buffer);
+            buffer = null;
+        }
+    }
+
+    private int writePendingSurrogate(char next, int index) throws IOException {
+        char high = pendingSurrogate;
+        pendingSurrogate = 0;
+        if (bufferPos > buffer.length - 4) {
+            flushBuffer();
+        }
+        if (Character.isLowSurrogate(next)) {
+            bufferPos = encodeCodePoint(Character.toCodePoint(high, next), buffer, bufferPos);
+            return index + 1;
+        }
+        buffer[bufferPos++] = REPLACEMENT;
+        return index;
+    }
+
+    private static int encodeCodePoint(int codePoint, byte[] buffer, int pos) {
+        buffer[pos++] = (byte) (0xf0 | (codePoint >> 18));
+        buffer[pos++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+        buffer[pos++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+        buffer[pos++] = (byte) (0x80 | (codePoint & 0x3f));
+        return pos;
+    }
+
+    private void flushBuffer() throws IOException {
+        if (bufferPos > 0) {
+            out.write(buffer, 0, bufferPos);
+            bufferPos = 0;
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (alreadyClosed) {
+            throw new IOException("Stream closed");
+        }
+    }
+}